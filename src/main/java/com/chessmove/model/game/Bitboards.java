@@ -0,0 +1,113 @@
+package com.chessmove.model.game;
+
+import com.chessmove.util.Color;
+import com.chessmove.util.PieceType;
+
+/**
+ * Square and bitboard helpers shared by the board representation.
+ * <p>
+ * Squares are numbered {@code row * 8 + col}, using the same row/column convention as the rest of the model
+ * (row 0 is the eighth rank, column 0 is the a-file), so bit 0 is a8 and bit 63 is h1.
+ */
+public final class Bitboards {
+
+    public static final int NO_SQUARE = -1;
+    public static final int PIECE_KINDS = 12;
+
+    public static final long[] KNIGHT_ATTACKS = new long[64];
+    public static final long[] KING_ATTACKS = new long[64];
+    // Squares attacked by a pawn of the given color (by ordinal) standing on the given square
+    public static final long[][] PAWN_ATTACKS = new long[2][64];
+    // Squares strictly between two squares on a common rank, file or diagonal, empty otherwise
+    public static final long[][] BETWEEN = new long[64][64];
+    // The full rank, file or diagonal through two squares, empty if they are not aligned
+    public static final long[][] LINE = new long[64][64];
+
+    private static final int[][] KNIGHT_DELTAS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_DELTAS = {{1, 0}, {1, 1}, {1, -1}, {0, 1}, {0, -1}, {-1, 0}, {-1, 1}, {-1, -1}};
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = leaperAttacks(square, KNIGHT_DELTAS);
+            KING_ATTACKS[square] = leaperAttacks(square, KING_DELTAS);
+            PAWN_ATTACKS[Color.WHITE.ordinal()][square] = leaperAttacks(square, new int[][]{{-1, -1}, {-1, 1}});
+            PAWN_ATTACKS[Color.BLACK.ordinal()][square] = leaperAttacks(square, new int[][]{{1, -1}, {1, 1}});
+        }
+        for (int from = 0; from < 64; from++) {
+            for (int[] dir : KING_DELTAS) {
+                long ray = 0;
+                int r = row(from) + dir[0];
+                int c = col(from) + dir[1];
+                while (isOnBoard(r, c)) {
+                    int to = square(r, c);
+                    BETWEEN[from][to] = ray;
+                    LINE[from][to] = fullLine(from, dir);
+                    ray |= bit(to);
+                    r += dir[0];
+                    c += dir[1];
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static int square(int row, int col) {
+        return (row << 3) | col;
+    }
+
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    public static int col(int square) {
+        return square & 7;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Returns the index of the bitboard holding pieces of the given color and type.
+     *
+     * @param color The color of the piece
+     * @param type  The type of the piece
+     * @return An index between 0 and 11
+     */
+    public static int pieceIndex(Color color, PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    private static boolean isOnBoard(int row, int col) {
+        return ((row | col) & ~7) == 0;
+    }
+
+    private static long leaperAttacks(int square, int[][] deltas) {
+        long attacks = 0;
+        for (int[] delta : deltas) {
+            int r = row(square) + delta[0];
+            int c = col(square) + delta[1];
+            if (isOnBoard(r, c)) {
+                attacks |= bit(square(r, c));
+            }
+        }
+        return attacks;
+    }
+
+    private static long fullLine(int square, int[] dir) {
+        long line = bit(square);
+        for (int sign = -1; sign <= 1; sign += 2) {
+            int r = row(square) + sign * dir[0];
+            int c = col(square) + sign * dir[1];
+            while (isOnBoard(r, c)) {
+                line |= bit(square(r, c));
+                r += sign * dir[0];
+                c += sign * dir[1];
+            }
+        }
+        return line;
+    }
+}
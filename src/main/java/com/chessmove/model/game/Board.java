@@ -3,11 +3,24 @@ package com.chessmove.model.game;
 import com.chessmove.model.piece.Piece;
 import com.chessmove.util.Color;
 import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
 
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
+import static com.chessmove.model.game.Bitboards.KING_ATTACKS;
+import static com.chessmove.model.game.Bitboards.KNIGHT_ATTACKS;
+import static com.chessmove.model.game.Bitboards.NO_SQUARE;
+import static com.chessmove.model.game.Bitboards.PAWN_ATTACKS;
+import static com.chessmove.model.game.Bitboards.PIECE_KINDS;
+import static com.chessmove.model.game.Bitboards.bit;
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.pieceIndex;
+import static com.chessmove.model.game.Bitboards.row;
+import static com.chessmove.model.game.Bitboards.square;
+import static com.chessmove.model.game.MagicBitboards.bishopAttacks;
+import static com.chessmove.model.game.MagicBitboards.rookAttacks;
 import static com.chessmove.util.CalculationConstants.DELIMITER;
 import static com.chessmove.util.CalculationConstants.EMPTY;
 import static com.chessmove.util.CalculationConstants.LINE_BREAK;
@@ -15,17 +28,74 @@ import static com.chessmove.util.CalculationConstants.SEPARATOR;
 
 public final class Board {
 
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    private static final int INITIAL_HISTORY_SIZE = 64;
+
+    // Castling rights that survive a move from or to the given square (moving a king or rook, or capturing a rook)
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[square(0, 0)] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASKS[square(0, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[square(0, 7)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASKS[square(7, 0)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[square(7, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[square(7, 7)] &= ~WHITE_KINGSIDE;
+    }
+
     private final Piece[][] squares;
-    private final String enPassantTarget;
-    private final Set<String> whiteCastlingRights;
-    private final Set<String> blackCastlingRights;
+    private final long[] pieceBitboards = new long[PIECE_KINDS];
+    private final long[] colorOccupancy = new long[2];
+    private final int[] kingSquares = {NO_SQUARE, NO_SQUARE};
+    private long occupied;
+    private Color sideToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long zobristKey;
+    // White-minus-black piece-square sums and the game phase, see PieceSquareTables
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+
+    // Undo records of the moves made on this board, one entry per ply
+    private int ply;
+    private Piece[] movedPieces = new Piece[INITIAL_HISTORY_SIZE];
+    private Piece[] capturedPieces = new Piece[INITIAL_HISTORY_SIZE];
+    private int[] castlingHistory = new int[INITIAL_HISTORY_SIZE];
+    private int[] enPassantHistory = new int[INITIAL_HISTORY_SIZE];
+    private int[] halfmoveHistory = new int[INITIAL_HISTORY_SIZE];
+    private long[] keyHistory = new long[INITIAL_HISTORY_SIZE];
+
+    public Board(Piece[][] squares, Color sideToMove, String enPassantTarget,
+                 Set<String> whiteCastlingRights, Set<String> blackCastlingRights,
+                 int halfmoveClock, int fullmoveNumber) {
+        this.squares = new Piece[8][8];
+        this.sideToMove = sideToMove != null ? sideToMove : Color.WHITE;
+        this.enPassantSquare = parseSquare(enPassantTarget);
+        this.castlingRights = parseCastlingRights(whiteCastlingRights, blackCastlingRights);
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = squares[row][col];
+                if (piece != null) {
+                    putPiece(square(row, col), piece);
+                }
+            }
+        }
+        this.zobristKey = Zobrist.computeKey(this);
+    }
 
     public Board(Piece[][] squares, String enPassantTarget,
                  Set<String> whiteCastlingRights, Set<String> blackCastlingRights) {
-        this.squares = squares;
-        this.enPassantTarget = enPassantTarget;
-        this.whiteCastlingRights = whiteCastlingRights;
-        this.blackCastlingRights = blackCastlingRights;
+        this(squares, Color.WHITE, enPassantTarget, whiteCastlingRights, blackCastlingRights, 0, 1);
     }
 
     public Board(Piece[][] squares) {
@@ -33,48 +103,452 @@ public final class Board {
     }
 
     public Board() {
-        squares = new Piece[8][8];
-        this.enPassantTarget = "-";
-        this.whiteCastlingRights = new HashSet<>();
-        this.blackCastlingRights = new HashSet<>();
+        this(new Piece[8][8], "-", new HashSet<>(), new HashSet<>());
     }
 
-    public Board copy() {
-        Piece[][] squaresCopy = new Piece[8][8];
+    private Board(Board other) {
+        this.squares = new Piece[8][8];
         for (int row = 0; row < 8; row++) {
-            squaresCopy[row] = Arrays.copyOf(this.squares[row], 8);
+            this.squares[row] = Arrays.copyOf(other.squares[row], 8);
         }
-        return new Board(squaresCopy, enPassantTarget, whiteCastlingRights, blackCastlingRights);
+        System.arraycopy(other.pieceBitboards, 0, this.pieceBitboards, 0, PIECE_KINDS);
+        System.arraycopy(other.colorOccupancy, 0, this.colorOccupancy, 0, 2);
+        System.arraycopy(other.kingSquares, 0, this.kingSquares, 0, 2);
+        this.occupied = other.occupied;
+        this.sideToMove = other.sideToMove;
+        this.castlingRights = other.castlingRights;
+        this.enPassantSquare = other.enPassantSquare;
+        this.halfmoveClock = other.halfmoveClock;
+        this.fullmoveNumber = other.fullmoveNumber;
+        this.zobristKey = other.zobristKey;
+        this.middlegameScore = other.middlegameScore;
+        this.endgameScore = other.endgameScore;
+        this.phase = other.phase;
+    }
+
+    /**
+     * Returns an independent copy of the current position. The move history is not copied, so moves made before
+     * the copy was taken cannot be unmade on the copy.
+     *
+     * @return A new board with the same position
+     */
+    public Board copy() {
+        return new Board(this);
     }
 
+    /**
+     * Returns the piece placement as a grid. This is a read-only compatibility view of the bitboards:
+     * changes must go through the board itself, otherwise the two representations get out of sync.
+     *
+     * @return The squares of the board indexed by row and column
+     */
     public Piece[][] getSquares() {
         return squares;
     }
 
     public String getEnPassantTarget() {
-        return enPassantTarget;
+        return enPassantSquare == NO_SQUARE ? "-" : toAlgebraicNotation(row(enPassantSquare), col(enPassantSquare));
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
     }
 
     public Set<String> getWhiteCastlingRights() {
-        return whiteCastlingRights;
+        Set<String> rights = new HashSet<>();
+        if ((castlingRights & WHITE_KINGSIDE) != 0) rights.add("K");
+        if ((castlingRights & WHITE_QUEENSIDE) != 0) rights.add("Q");
+        return rights;
     }
 
     public Set<String> getBlackCastlingRights() {
-        return blackCastlingRights;
+        Set<String> rights = new HashSet<>();
+        if ((castlingRights & BLACK_KINGSIDE) != 0) rights.add("k");
+        if ((castlingRights & BLACK_QUEENSIDE) != 0) rights.add("q");
+        return rights;
     }
 
-    public boolean squareUnderAttack(int row, int col, Color attackerColor) {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece piece = squares[r][c];
-                if (piece != null && piece.getColor() == attackerColor && piece.canAttackSquare(r, c, row, col, this)) {
-                    return true;
-                }
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public boolean hasCastlingRight(Color color, boolean kingSide) {
+        int right;
+        if (color == Color.WHITE) {
+            right = kingSide ? WHITE_KINGSIDE : WHITE_QUEENSIDE;
+        } else {
+            right = kingSide ? BLACK_KINGSIDE : BLACK_QUEENSIDE;
+        }
+        return (castlingRights & right) != 0;
+    }
+
+    public Color getSideToMove() {
+        return sideToMove;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Tells whether the current position already occurred among the moves made on this board since the last
+     * capture or pawn move. Positions before the board was created or copied are not known.
+     *
+     * @return True if the position is a repetition
+     */
+    public boolean isRepetition() {
+        int earliest = Math.max(0, ply - halfmoveClock);
+        for (int i = ply - 2; i >= earliest; i -= 2) {
+            if (keyHistory[i] == zobristKey) {
+                return true;
             }
         }
         return false;
     }
 
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Returns the square of the king of the given color, kept up to date as moves are made.
+     *
+     * @param color The color of the king
+     * @return The square of the king, or {@link Bitboards#NO_SQUARE} if there is no such king
+     */
+    public int getKingSquare(Color color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Returns the 64-bit Zobrist key of the position, covering the pieces, the side to move, the castling rights
+     * and the en-passant file. The key is maintained incrementally by {@link #makeMove(Move)}.
+     *
+     * @return The Zobrist key
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Returns the material and piece-square score of the position from white's point of view, tapered between
+     * its middlegame and endgame values by the game phase. The sums behind it are maintained incrementally by
+     * {@link #makeMove(Move)} and {@link #unmakeMove(Move)}, so the score costs a few operations instead of a
+     * scan of the board.
+     *
+     * @return The score in centipawns, positive when white is better
+     */
+    public int getPieceSquareScore() {
+        return PieceSquareTables.taper(middlegameScore, endgameScore, phase);
+    }
+
+    /**
+     * Returns the game phase, from {@value PieceSquareTables#MAX_PHASE} with all minor and major pieces on the
+     * board down to 0 with only kings and pawns.
+     *
+     * @return The sum of the phase weights of the pieces
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the bitboard of the pieces of the given type and color.
+     *
+     * @param type  The type of the pieces
+     * @param color The color of the pieces
+     * @return A bitboard with one bit set for every such piece
+     */
+    public long getPieces(PieceType type, Color color) {
+        return pieceBitboards[pieceIndex(color, type)];
+    }
+
+    public long getOccupancy(Color color) {
+        return colorOccupancy[color.ordinal()];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Makes a move in place. Captures (including en-passant), the rook's part of castling, castling rights,
+     * the en-passant square, the clocks and the side to move are all updated, and an undo record is pushed
+     * so that {@link #unmakeMove(Move)} can restore the previous position without copying the board.
+     * Castling and en-passant are recognised from the piece movement itself; promotions come from the move.
+     *
+     * @param move The move to make; the moving piece must be on its from-square
+     */
+    public void makeMove(Move move) {
+        makeMove(PackedMove.of(move));
+    }
+
+    /**
+     * Makes a {@link PackedMove packed move} in place, see {@link #makeMove(Move)}.
+     *
+     * @param move The packed move to make
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int fromCol = col(from);
+        int toCol = col(to);
+        Piece moving = pieceAt(from);
+
+        ensureHistoryCapacity();
+        movedPieces[ply] = moving;
+        castlingHistory[ply] = castlingRights;
+        enPassantHistory[ply] = enPassantSquare;
+        halfmoveHistory[ply] = halfmoveClock;
+        keyHistory[ply] = zobristKey;
+
+        boolean isPawn = moving.getType() == PieceType.PAWN;
+        boolean enPassant = isPawn && to == enPassantSquare && fromCol != toCol;
+        int capturedSquare = enPassant ? square(row(from), toCol) : to;
+        Piece captured = pieceAt(capturedSquare);
+        capturedPieces[ply] = captured;
+        if (captured != null) {
+            removePiece(capturedSquare);
+        }
+
+        PieceType promotion = PackedMove.promotion(move);
+        removePiece(from);
+        putPiece(to, promotion != null ? Piece.of(promotion, moving.getColor()) : moving);
+        if (moving.getType() == PieceType.KING && Math.abs(toCol - fromCol) == 2) {
+            moveCastlingRook(row(from), toCol, false);
+        }
+
+        zobristKey ^= Zobrist.enPassantKey(enPassantSquare) ^ Zobrist.castlingKey(castlingRights)
+                ^ Zobrist.sideKey(sideToMove);
+        enPassantSquare = isPawn && Math.abs(to - from) == 16 ? (from + to) / 2 : NO_SQUARE;
+        castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        halfmoveClock = isPawn || captured != null ? 0 : halfmoveClock + 1;
+        if (moving.getColor() == Color.BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = Color.getOppositeColor(moving.getColor());
+        zobristKey ^= Zobrist.enPassantKey(enPassantSquare) ^ Zobrist.castlingKey(castlingRights)
+                ^ Zobrist.sideKey(sideToMove);
+        ply++;
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(Move)}.
+     *
+     * @param move The move to take back; it must be the last move made on this board
+     */
+    public void unmakeMove(Move move) {
+        unmakeMove(PackedMove.of(move));
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(int)}.
+     *
+     * @param move The packed move to take back; it must be the last move made on this board
+     */
+    public void unmakeMove(int move) {
+        ply--;
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int fromCol = col(from);
+        int toCol = col(to);
+        Piece moving = movedPieces[ply];
+        Piece captured = capturedPieces[ply];
+        int previousEnPassant = enPassantHistory[ply];
+
+        if (moving.getType() == PieceType.KING && Math.abs(toCol - fromCol) == 2) {
+            moveCastlingRook(row(from), toCol, true);
+        }
+        removePiece(to);
+        putPiece(from, moving);
+        if (captured != null) {
+            boolean enPassant = moving.getType() == PieceType.PAWN && to == previousEnPassant && fromCol != toCol;
+            putPiece(enPassant ? square(row(from), toCol) : to, captured);
+        }
+
+        castlingRights = castlingHistory[ply];
+        enPassantSquare = previousEnPassant;
+        halfmoveClock = halfmoveHistory[ply];
+        if (moving.getColor() == Color.BLACK) {
+            fullmoveNumber--;
+        }
+        sideToMove = moving.getColor();
+        zobristKey = keyHistory[ply];
+        movedPieces[ply] = null;
+        capturedPieces[ply] = null;
+    }
+
+    /**
+     * Passes the turn to the opponent without moving a piece, as searches do to test whether a position is so
+     * good that even a free move for the opponent does not help it. The en-passant target is cleared and the
+     * halfmove clock restarts, so that {@link #isRepetition()} does not look back across the null move.
+     */
+    public void makeNullMove() {
+        ensureHistoryCapacity();
+        movedPieces[ply] = null;
+        capturedPieces[ply] = null;
+        castlingHistory[ply] = castlingRights;
+        enPassantHistory[ply] = enPassantSquare;
+        halfmoveHistory[ply] = halfmoveClock;
+        keyHistory[ply] = zobristKey;
+
+        zobristKey ^= Zobrist.enPassantKey(enPassantSquare) ^ Zobrist.sideKey(sideToMove);
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        sideToMove = Color.getOppositeColor(sideToMove);
+        zobristKey ^= Zobrist.sideKey(sideToMove);
+        ply++;
+    }
+
+    /**
+     * Takes back the last {@link #makeNullMove() null move}.
+     */
+    public void unmakeNullMove() {
+        ply--;
+        enPassantSquare = enPassantHistory[ply];
+        halfmoveClock = halfmoveHistory[ply];
+        sideToMove = Color.getOppositeColor(sideToMove);
+        zobristKey = keyHistory[ply];
+    }
+
+    private void moveCastlingRook(int row, int kingToCol, boolean undo) {
+        int rookCol = kingToCol == 6 ? 7 : 0;
+        int rookToCol = kingToCol == 6 ? 5 : 3;
+        int from = square(row, undo ? rookToCol : rookCol);
+        int to = square(row, undo ? rookCol : rookToCol);
+        Piece rook = pieceAt(from);
+        if (rook != null) {
+            removePiece(from);
+            putPiece(to, rook);
+        }
+    }
+
+    private void ensureHistoryCapacity() {
+        if (ply == movedPieces.length) {
+            int size = ply * 2;
+            movedPieces = Arrays.copyOf(movedPieces, size);
+            capturedPieces = Arrays.copyOf(capturedPieces, size);
+            castlingHistory = Arrays.copyOf(castlingHistory, size);
+            enPassantHistory = Arrays.copyOf(enPassantHistory, size);
+            halfmoveHistory = Arrays.copyOf(halfmoveHistory, size);
+            keyHistory = Arrays.copyOf(keyHistory, size);
+        }
+    }
+
+    private Piece pieceAt(int square) {
+        return squares[row(square)][col(square)];
+    }
+
+    private void putPiece(int square, Piece piece) {
+        long bit = bit(square);
+        pieceBitboards[pieceIndex(piece.getColor(), piece.getType())] |= bit;
+        colorOccupancy[piece.getColor().ordinal()] |= bit;
+        occupied |= bit;
+        if (piece.getType() == PieceType.KING) {
+            kingSquares[piece.getColor().ordinal()] = square;
+        }
+        zobristKey ^= Zobrist.pieceKey(piece, square);
+        middlegameScore += PieceSquareTables.middlegame(piece, square);
+        endgameScore += PieceSquareTables.endgame(piece, square);
+        phase += PieceSquareTables.phase(piece);
+        squares[row(square)][col(square)] = piece;
+    }
+
+    private void removePiece(int square) {
+        Piece piece = pieceAt(square);
+        long bit = bit(square);
+        pieceBitboards[pieceIndex(piece.getColor(), piece.getType())] &= ~bit;
+        colorOccupancy[piece.getColor().ordinal()] &= ~bit;
+        occupied &= ~bit;
+        if (kingSquares[piece.getColor().ordinal()] == square) {
+            kingSquares[piece.getColor().ordinal()] = NO_SQUARE;
+        }
+        zobristKey ^= Zobrist.pieceKey(piece, square);
+        middlegameScore -= PieceSquareTables.middlegame(piece, square);
+        endgameScore -= PieceSquareTables.endgame(piece, square);
+        phase -= PieceSquareTables.phase(piece);
+        squares[row(square)][col(square)] = null;
+    }
+
+    private static int parseSquare(String algebraic) {
+        if (algebraic == null || algebraic.length() != 2) {
+            return NO_SQUARE;
+        }
+        int col = algebraic.charAt(0) - 'a';
+        int row = 8 - (algebraic.charAt(1) - '0');
+        return ((row | col) & ~7) == 0 ? square(row, col) : NO_SQUARE;
+    }
+
+    private static int parseCastlingRights(Set<String> whiteCastlingRights, Set<String> blackCastlingRights) {
+        int rights = 0;
+        if (whiteCastlingRights.contains("K")) rights |= WHITE_KINGSIDE;
+        if (whiteCastlingRights.contains("Q")) rights |= WHITE_QUEENSIDE;
+        if (blackCastlingRights.contains("k")) rights |= BLACK_KINGSIDE;
+        if (blackCastlingRights.contains("q")) rights |= BLACK_QUEENSIDE;
+        return rights;
+    }
+
+    public boolean squareUnderAttack(int row, int col, Color attackerColor) {
+        return isInBounds(row, col) && isSquareAttacked(square(row, col), attackerColor);
+    }
+
+    /**
+     * Tells whether any piece of the given color attacks the square. The lookup starts from the target square and
+     * probes outward as a "super-piece": knight jumps, pawn diagonals and the king ring first, since they are single
+     * table lookups, then the rook and bishop rays. It stops at the first attacker found.
+     *
+     * @param square        The attacked square
+     * @param attackerColor The color of the attacking pieces
+     * @return True if the square is attacked
+     */
+    public boolean isSquareAttacked(int square, Color attackerColor) {
+        int attacker = attackerColor.ordinal();
+        if ((KNIGHT_ATTACKS[square] & pieceBitboards[pieceIndex(attackerColor, PieceType.KNIGHT)]) != 0
+                || (PAWN_ATTACKS[1 - attacker][square] & pieceBitboards[pieceIndex(attackerColor, PieceType.PAWN)]) != 0
+                || (KING_ATTACKS[square] & pieceBitboards[pieceIndex(attackerColor, PieceType.KING)]) != 0) {
+            return true;
+        }
+        long queens = pieceBitboards[pieceIndex(attackerColor, PieceType.QUEEN)];
+        long rooks = pieceBitboards[pieceIndex(attackerColor, PieceType.ROOK)] | queens;
+        if (rooks != 0 && (rookAttacks(square, occupied) & rooks) != 0) {
+            return true;
+        }
+        long bishops = pieceBitboards[pieceIndex(attackerColor, PieceType.BISHOP)] | queens;
+        return bishops != 0 && (bishopAttacks(square, occupied) & bishops) != 0;
+    }
+
+    /**
+     * Returns every piece of the given color that attacks the square.
+     *
+     * @param square        The attacked square
+     * @param attackerColor The color of the attacking pieces
+     * @return The attacking pieces as a bitboard
+     */
+    public long attackersTo(int square, Color attackerColor) {
+        return attackersTo(square, attackerColor, occupied);
+    }
+
+    /**
+     * Returns every piece of the given color that attacks the square, with the sliding attacks computed on the given
+     * occupancy instead of the board's own. This lets callers ask what would be attacked after pieces are lifted
+     * off the board, without making a move.
+     *
+     * @param square        The attacked square
+     * @param attackerColor The color of the attacking pieces
+     * @param occupancy     The occupancy to use for sliding attacks
+     * @return The attacking pieces as a bitboard
+     */
+    public long attackersTo(int square, Color attackerColor, long occupancy) {
+        long queens = pieceBitboards[pieceIndex(attackerColor, PieceType.QUEEN)];
+        return (KNIGHT_ATTACKS[square] & pieceBitboards[pieceIndex(attackerColor, PieceType.KNIGHT)])
+                | (PAWN_ATTACKS[1 - attackerColor.ordinal()][square]
+                        & pieceBitboards[pieceIndex(attackerColor, PieceType.PAWN)])
+                | (KING_ATTACKS[square] & pieceBitboards[pieceIndex(attackerColor, PieceType.KING)])
+                | (rookAttacks(square, occupancy) & (pieceBitboards[pieceIndex(attackerColor, PieceType.ROOK)] | queens))
+                | (bishopAttacks(square, occupancy)
+                        & (pieceBitboards[pieceIndex(attackerColor, PieceType.BISHOP)] | queens));
+    }
+
     public Piece getPieceAt(int row, int col) {
         if (isInBounds(row, col)) {
             return squares[row][col];
@@ -83,19 +557,19 @@ public final class Board {
     }
 
     public boolean isInBounds(int row, int col) {
-        return row >= 0 && row < 8 && col >= 0 && col < 8;
+        return ((row | col) & ~7) == 0;
     }
 
     public boolean isEmpty(int row, int col) {
-        return isInBounds(row, col) && squares[row][col] == null;
+        return isInBounds(row, col) && (occupied & bit(square(row, col))) == 0;
     }
 
     public boolean isEnemyPiece(int row, int col, Color color) {
-        return isInBounds(row, col) && squares[row][col] != null && squares[row][col].getColor() != color;
+        return isInBounds(row, col) && (colorOccupancy[1 - color.ordinal()] & bit(square(row, col))) != 0;
     }
 
     public boolean isAttackerPiece(int row, int col, Color color) {
-        return !isInBounds(row, col) || squares[row][col] == null || squares[row][col].getColor() != color;
+        return !isInBounds(row, col) || (colorOccupancy[color.ordinal()] & bit(square(row, col))) == 0;
     }
 
     public String drawBoard() {
@@ -162,6 +636,11 @@ public final class Board {
             moveDescription += String.format(" (capturing %s)", capturedPieceName);
         }
 
+        // Include the piece a pawn promotes to
+        if (move.getPromotion() != null) {
+            moveDescription += String.format(" (promoting to %s)", move.getPromotion().toString().toLowerCase());
+        }
+
         // Append move type if it's castling or en-passant
         if (move.getMoveType() == MoveType.CASTLING) {
             moveDescription += " (castling)";
@@ -0,0 +1,158 @@
+package com.chessmove.model.game;
+
+import static com.chessmove.model.game.Bitboards.bit;
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
+import static com.chessmove.model.game.Bitboards.square;
+
+/**
+ * Precomputed sliding piece attacks using magic bitboards.
+ * <p>
+ * For every square the relevant blockers of a rook or bishop (the squares on its rays, excluding the board edge)
+ * are multiplied by a magic number, and the top bits of the product index a table holding the attack set for that
+ * occupancy. A slider's attacks on any board therefore cost one mask, one multiplication and one table lookup.
+ * The magic numbers below were found offline by random search for this board's square numbering.
+ */
+public final class MagicBitboards {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MAGICS = {
+            0xC680026118804000L, 0x0280200140008010L, 0xD080100020000880L, 0x0100040900100020L,
+            0x86000C1200502008L, 0x0A00020004100188L, 0x0080020001000080L, 0x0200008040240201L,
+            0x4092800024400080L, 0x0442400020005000L, 0x0402802002100088L, 0x0041800800801004L,
+            0x1022808004004800L, 0x0408808004000200L, 0x1042000104080200L, 0x000200210200804CL,
+            0x00C6688000894000L, 0x8000810021004008L, 0x0001010020001041L, 0x0000120042000820L,
+            0x1030050008001100L, 0x5224008002000480L, 0x1521010100040200L, 0x00000A00006C8504L,
+            0x8000800080204001L, 0x0400400280200091L, 0x88A0200080801000L, 0x4060080080801000L,
+            0x0004008080080006L, 0x5104000480260080L, 0x4000040101000200L, 0x181004020000834DL,
+            0x000080C002800020L, 0x0020004001010080L, 0x0000802000801008L, 0x0088080480801000L,
+            0x0C00040801001100L, 0x2011001803000400L, 0x0202004422000801L, 0x2140404082000401L,
+            0x0080104020094000L, 0xC008482010004001L, 0xC020100020008080L, 0x0202210110050008L,
+            0x6008008004008008L, 0x0042102004080140L, 0x0801040200010100L, 0x0A000040B102000CL,
+            0x4610420100208200L, 0x141040208A011200L, 0x0430001080200080L, 0x8181000810002100L,
+            0x0025440082480080L, 0x2025808200040080L, 0x0008100201480400L, 0x0080008908440200L,
+            0x2002942080004101L, 0x0400802102164001L, 0x8000090210200041L, 0x0106000410084022L,
+            0x0002000810210402L, 0x0002001001084482L, 0x0006004804010082L, 0x0010040030408902L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x0448221084010208L, 0x601404280E012200L, 0x40064C0400800400L, 0x0884042480000009L,
+            0x00040420880C0854L, 0x0042018420100000L, 0x4400421010080000L, 0x20022080441040A1L,
+            0x1484905001110400L, 0x0886040108120480L, 0x0080500100450AA0L, 0x0002844400800005L,
+            0x00221C1420822408L, 0x4205220804050000L, 0x880006014402C00EL, 0x0000020064040400L,
+            0xC008422020840080L, 0x0424833030008100L, 0x0024801000AE0040L, 0x408C000801445008L,
+            0x3455010490400004L, 0x000580211000A000L, 0x0040509918084401L, 0x8006001023340200L,
+            0xC060481820080180L, 0x0002200008080080L, 0x1022480121020400L, 0x2022002018040840L,
+            0x4001010000104001L, 0x9045050002024110L, 0x000114088200B402L, 0xC00F0242420A04C0L,
+            0x0C01104000480890L, 0x0000880410091000L, 0x0001044802010800L, 0x00010100400C0402L,
+            0x2240010804010040L, 0x8050011040020040L, 0x019050C201010100L, 0x8008810216410080L,
+            0x2044012010000814L, 0x1044420804996000L, 0x0C02010402030100L, 0x1040042018008901L,
+            0x000A080103108400L, 0x1001A00892800900L, 0x1008210410800400L, 0x005000A103000044L,
+            0x000C0C042404200CL, 0x8008908801100810L, 0x400003040144000CL, 0x1400011084040801L,
+            0x40110010820A1801L, 0x0800080208020401L, 0x0210021808608040L, 0x0004441424082060L,
+            0x0240240048281800L, 0x00B403084A222013L, 0x040000402A011000L, 0x0004001100208802L,
+            0x0001004020020C80L, 0x1100240430820A00L, 0x0230404848008080L, 0x0088280820404200L
+    };
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            initSquare(square, ROOK_DIRECTIONS, ROOK_MAGICS, ROOK_MASKS, ROOK_SHIFTS, ROOK_ATTACKS);
+            initSquare(square, BISHOP_DIRECTIONS, BISHOP_MAGICS, BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+    }
+
+    private MagicBitboards() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns the squares a rook on the given square attacks, stopping at (and including) the first blocker
+     * in every direction.
+     *
+     * @param square   The square of the rook
+     * @param occupied The occupancy of the board
+     * @return The attacked squares as a bitboard
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_ATTACKS[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * Returns the squares a bishop on the given square attacks, stopping at (and including) the first blocker
+     * in every direction.
+     *
+     * @param square   The square of the bishop
+     * @param occupied The occupancy of the board
+     * @return The attacked squares as a bitboard
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_ATTACKS[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    private static void initSquare(int square, int[][] directions, long[] magics, long[] masks, int[] shifts,
+                                   long[][] attacks) {
+        long mask = relevantBlockers(square, directions);
+        int bits = Long.bitCount(mask);
+        masks[square] = mask;
+        shifts[square] = 64 - bits;
+        attacks[square] = new long[1 << bits];
+
+        // Enumerate every subset of the mask (Carry-Rippler trick) and store its attack set
+        long subset = 0;
+        do {
+            int index = (int) ((subset * magics[square]) >>> shifts[square]);
+            attacks[square][index] = slowAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+    }
+
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] dir : directions) {
+            int r = row(square) + dir[0];
+            int c = col(square) + dir[1];
+            // The last square of a ray never blocks anything behind it, so it is left out
+            while (isInner(r) && isInner(c) && isInner(r + dir[0]) && isInner(c + dir[1])) {
+                mask |= bit(square(r, c));
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    private static boolean isInner(int coordinate) {
+        return coordinate >= 0 && coordinate < 8;
+    }
+
+    private static long slowAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] dir : directions) {
+            int r = row(square) + dir[0];
+            int c = col(square) + dir[1];
+            while (isInner(r) && isInner(c)) {
+                long target = bit(square(r, c));
+                attacks |= target;
+                if ((occupied & target) != 0) {
+                    break;
+                }
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return attacks;
+    }
+}
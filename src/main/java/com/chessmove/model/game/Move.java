@@ -2,6 +2,7 @@ package com.chessmove.model.game;
 
 import com.chessmove.model.piece.Piece;
 import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
 
 public class Move {
     private final int fromRow;
@@ -10,14 +11,21 @@ public class Move {
     private final int toCol;
     private final MoveType moveType;
     private final Piece capturedPiece; // New field
+    private final PieceType promotion;
 
-    public Move(int fromRow, int fromCol, int toRow, int toCol, MoveType moveType, Piece capturedPiece) {
+    public Move(int fromRow, int fromCol, int toRow, int toCol, MoveType moveType, Piece capturedPiece,
+                PieceType promotion) {
         this.fromRow = fromRow;
         this.fromCol = fromCol;
         this.toRow = toRow;
         this.toCol = toCol;
         this.moveType = moveType;
         this.capturedPiece = capturedPiece;
+        this.promotion = promotion;
+    }
+
+    public Move(int fromRow, int fromCol, int toRow, int toCol, MoveType moveType, Piece capturedPiece) {
+        this(fromRow, fromCol, toRow, toCol, moveType, capturedPiece, null);
     }
 
     // Overloaded constructors for existing uses
@@ -54,6 +62,15 @@ public class Move {
         return capturedPiece;
     }
 
+    /**
+     * Returns the type of piece a pawn promotes to, or null if this is not a promotion.
+     *
+     * @return The promotion piece type
+     */
+    public PieceType getPromotion() {
+        return promotion;
+    }
+
     @Override
     public String toString() {
         return "(" + fromRow + ", " + fromCol + ") -> (" + toRow + ", " + toCol + ")";
@@ -70,6 +87,7 @@ public class Move {
         if (fromCol != move.fromCol) return false;
         if (toRow != move.toRow) return false;
         if (toCol != move.toCol) return false;
+        if (promotion != move.promotion) return false;
         return moveType == move.moveType;
     }
 
@@ -80,6 +98,7 @@ public class Move {
         result = 31 * result + toRow;
         result = 31 * result + toCol;
         result = 31 * result + (moveType != null ? moveType.hashCode() : 0);
+        result = 31 * result + (promotion != null ? promotion.hashCode() : 0);
         return result;
     }
 
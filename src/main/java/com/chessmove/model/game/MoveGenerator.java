@@ -0,0 +1,289 @@
+package com.chessmove.model.game;
+
+import com.chessmove.model.piece.Piece;
+import com.chessmove.util.Color;
+import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.chessmove.model.game.Bitboards.BETWEEN;
+import static com.chessmove.model.game.Bitboards.KING_ATTACKS;
+import static com.chessmove.model.game.Bitboards.KNIGHT_ATTACKS;
+import static com.chessmove.model.game.Bitboards.LINE;
+import static com.chessmove.model.game.Bitboards.NO_SQUARE;
+import static com.chessmove.model.game.Bitboards.PAWN_ATTACKS;
+import static com.chessmove.model.game.Bitboards.bit;
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
+import static com.chessmove.model.game.Bitboards.square;
+import static com.chessmove.model.game.MagicBitboards.bishopAttacks;
+import static com.chessmove.model.game.MagicBitboards.queenAttacks;
+import static com.chessmove.model.game.MagicBitboards.rookAttacks;
+
+/**
+ * Generates strictly legal moves.
+ * <p>
+ * The checking pieces and the pinned pieces are computed once per position. A check mask (the checker and the
+ * squares between it and the king) restricts the non-king moves when in check, a pinned piece may only move along
+ * the line through its king and pinner, and in double check only the king moves. King moves are tested against the
+ * enemy attacks with the king removed from the board, and en-passant is verified separately because it removes two
+ * pieces from the same rank. No move has to be made and taken back to know that it is legal.
+ */
+public final class MoveGenerator {
+
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    private MoveGenerator() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Generates all legal moves of the given color. Moves are grouped by the square of the moving piece,
+     * from a8 to h1.
+     *
+     * @param board The current board
+     * @param color The color of the player to move
+     * @return The list of legal moves
+     */
+    public static List<Move> generateLegalMoves(Board board, Color color) {
+        MoveList packed = new MoveList();
+        generateLegalMoves(board, color, packed);
+        List<Move> moves = new ArrayList<>(packed.size());
+        for (int i = 0; i < packed.size(); i++) {
+            moves.add(PackedMove.toMove(packed.get(i), board));
+        }
+        return moves;
+    }
+
+    /**
+     * Generates all legal moves of the given color into a reusable list, as {@link PackedMove packed moves}.
+     * The list is cleared first. Nothing is allocated.
+     *
+     * @param board The current board
+     * @param color The color of the player to move
+     * @param moves The list to fill
+     */
+    public static void generateLegalMoves(Board board, Color color, MoveList moves) {
+        generate(board, color, moves, false, false);
+    }
+
+    /**
+     * Generates the legal captures (en-passant included) and promotions of the given color into a reusable list,
+     * in the same order as {@link #generateLegalMoves(Board, Color, MoveList)}. The list is cleared first.
+     *
+     * @param board The current board
+     * @param color The color of the player to move
+     * @param moves The list to fill
+     */
+    public static void generateLegalCaptures(Board board, Color color, MoveList moves) {
+        generate(board, color, moves, false, true);
+    }
+
+    /**
+     * Tells whether the given color has at least one legal move. Generation stops after the first piece that has
+     * a legal move, so this is cheaper than generating every move when only checkmate or stalemate matters.
+     *
+     * @param board The current board
+     * @param color The color of the player to move
+     * @param moves A scratch list; it is cleared and left holding the moves of the first piece found
+     * @return True if there is a legal move
+     */
+    public static boolean hasLegalMove(Board board, Color color, MoveList moves) {
+        generate(board, color, moves, true, false);
+        return !moves.isEmpty();
+    }
+
+    private static void generate(Board board, Color color, MoveList moves, boolean stopAtFirst,
+                                 boolean capturesOnly) {
+        moves.clear();
+        Color enemy = Color.getOppositeColor(color);
+        long own = board.getOccupancy(color);
+        long occupied = board.getOccupied();
+        // Kings are never captured
+        long targets = ~own & ~board.getPieces(PieceType.KING, enemy);
+        // Pawns filter their own pushes, since a push to the last row is a promotion
+        long pieceTargets = capturesOnly ? targets & board.getOccupancy(enemy) : targets;
+
+        int kingSquare = board.getKingSquare(color);
+        long checkers = kingSquare != NO_SQUARE ? board.attackersTo(kingSquare, enemy, occupied) : 0;
+        long checkMask = checkers == 0 ? -1L : BETWEEN[kingSquare][Long.numberOfTrailingZeros(checkers)] | checkers;
+        long pinned = kingSquare != NO_SQUARE ? pinnedPieces(board, kingSquare, color) : 0;
+        boolean doubleCheck = Long.bitCount(checkers) > 1;
+
+        // When looking for any move, the king goes first: in check it is the piece most likely to have one
+        if (stopAtFirst && kingSquare != NO_SQUARE) {
+            addKingMoves(board, kingSquare, color, targets, checkers, false, moves);
+            if (!moves.isEmpty()) {
+                return;
+            }
+        }
+
+        long pieces = own;
+        while (pieces != 0 && !(stopAtFirst && !moves.isEmpty())) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            Piece piece = board.getPieceAt(row(from), col(from));
+
+            if (piece.getType() == PieceType.KING) {
+                if (!stopAtFirst || from != kingSquare) {
+                    addKingMoves(board, from, color, pieceTargets, checkers, capturesOnly, moves);
+                }
+                continue;
+            }
+            if (doubleCheck) {
+                continue;
+            }
+
+            long allowed = targets & checkMask;
+            if ((pinned & bit(from)) != 0) {
+                allowed &= LINE[kingSquare][from];
+            }
+            long pieceAllowed = allowed & pieceTargets;
+            switch (piece.getType()) {
+                case PAWN -> addPawnMoves(board, from, color, kingSquare, allowed, capturesOnly, moves);
+                case KNIGHT -> addMoves(from, KNIGHT_ATTACKS[from] & pieceAllowed, moves);
+                case BISHOP -> addMoves(from, bishopAttacks(from, occupied) & pieceAllowed, moves);
+                case ROOK -> addMoves(from, rookAttacks(from, occupied) & pieceAllowed, moves);
+                case QUEEN -> addMoves(from, queenAttacks(from, occupied) & pieceAllowed, moves);
+                default -> {
+                    // Kings are handled above
+                }
+            }
+        }
+    }
+
+    private static long pinnedPieces(Board board, int kingSquare, Color color) {
+        Color enemy = Color.getOppositeColor(color);
+        long queens = board.getPieces(PieceType.QUEEN, enemy);
+        long snipers = (rookAttacks(kingSquare, 0) & (board.getPieces(PieceType.ROOK, enemy) | queens))
+                | (bishopAttacks(kingSquare, 0) & (board.getPieces(PieceType.BISHOP, enemy) | queens));
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = BETWEEN[kingSquare][sniper] & board.getOccupied();
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & board.getOccupancy(color);
+            }
+        }
+        return pinned;
+    }
+
+    private static void addKingMoves(Board board, int from, Color color, long targets, long checkers,
+                                     boolean capturesOnly, MoveList moves) {
+        Color enemy = Color.getOppositeColor(color);
+        // Without the king on the board, sliders keep attacking the squares behind it
+        long occupied = board.getOccupied() & ~bit(from);
+        long candidates = KING_ATTACKS[from] & targets;
+        while (candidates != 0) {
+            int to = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if (board.attackersTo(to, enemy, occupied) == 0) {
+                addMove(from, to, MoveType.NORMAL, null, moves);
+            }
+        }
+        if (checkers == 0 && !capturesOnly) {
+            addCastlingMoves(board, from, color, occupied, moves);
+        }
+    }
+
+    private static void addCastlingMoves(Board board, int from, Color color, long occupied, MoveList moves) {
+        int homeRow = color == Color.WHITE ? 7 : 0;
+        if (from != square(homeRow, 4)) {
+            return;
+        }
+        Color enemy = Color.getOppositeColor(color);
+        long rooks = board.getPieces(PieceType.ROOK, color);
+        if (board.hasCastlingRight(color, true)
+                && (rooks & bit(square(homeRow, 7))) != 0
+                && (board.getOccupied() & BETWEEN[from][square(homeRow, 7)]) == 0
+                && board.attackersTo(square(homeRow, 5), enemy, occupied) == 0
+                && board.attackersTo(square(homeRow, 6), enemy, occupied) == 0) {
+            addMove(from, square(homeRow, 6), MoveType.CASTLING, null, moves);
+        }
+        if (board.hasCastlingRight(color, false)
+                && (rooks & bit(square(homeRow, 0))) != 0
+                && (board.getOccupied() & BETWEEN[from][square(homeRow, 0)]) == 0
+                && board.attackersTo(square(homeRow, 3), enemy, occupied) == 0
+                && board.attackersTo(square(homeRow, 2), enemy, occupied) == 0) {
+            addMove(from, square(homeRow, 2), MoveType.CASTLING, null, moves);
+        }
+    }
+
+    private static void addPawnMoves(Board board, int from, Color color, int kingSquare, long allowed,
+                                     boolean capturesOnly, MoveList moves) {
+        int forward = color == Color.WHITE ? -8 : 8;
+        int startRow = color == Color.WHITE ? 6 : 1;
+        long occupied = board.getOccupied();
+
+        // Pushes (a pawn standing on its last row, which only a hand-made position can have, does not move)
+        int oneStep = from + forward;
+        if (oneStep >= 0 && oneStep < 64 && (occupied & bit(oneStep)) == 0) {
+            boolean promotes = row(oneStep) == 0 || row(oneStep) == 7;
+            if ((allowed & bit(oneStep)) != 0 && (promotes || !capturesOnly)) {
+                addPawnMove(from, oneStep, moves);
+            }
+            int twoSteps = oneStep + forward;
+            if (!capturesOnly && row(from) == startRow && (occupied & bit(twoSteps)) == 0
+                    && (allowed & bit(twoSteps)) != 0) {
+                addMove(from, twoSteps, MoveType.NORMAL, null, moves);
+            }
+        }
+
+        // Captures
+        long captures = PAWN_ATTACKS[color.ordinal()][from] & board.getOccupancy(Color.getOppositeColor(color))
+                & allowed;
+        while (captures != 0) {
+            int to = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addPawnMove(from, to, moves);
+        }
+
+        // En-passant
+        int enPassantSquare = board.getEnPassantSquare();
+        if (enPassantSquare != NO_SQUARE && (PAWN_ATTACKS[color.ordinal()][from] & bit(enPassantSquare)) != 0
+                && isLegalEnPassant(board, from, enPassantSquare, color, kingSquare)) {
+            addMove(from, enPassantSquare, MoveType.EN_PASSANT, null, moves);
+        }
+    }
+
+    private static boolean isLegalEnPassant(Board board, int from, int to, Color color, int kingSquare) {
+        Color enemy = Color.getOppositeColor(color);
+        int capturedSquare = square(row(from), col(to));
+        long capturedBit = bit(capturedSquare);
+        if ((board.getPieces(PieceType.PAWN, enemy) & capturedBit) == 0) {
+            return false;
+        }
+        if (kingSquare == NO_SQUARE) {
+            return true;
+        }
+        // Both pawns leave the rank at once, which can expose the king to a slider (and may also resolve a check)
+        long occupied = (board.getOccupied() ^ bit(from) ^ capturedBit) | bit(to);
+        return (board.attackersTo(kingSquare, enemy, occupied) & ~capturedBit) == 0;
+    }
+
+    private static void addPawnMove(int from, int to, MoveList moves) {
+        int lastRow = row(to);
+        if (lastRow == 0 || lastRow == 7) {
+            for (PieceType promotion : PROMOTIONS) {
+                addMove(from, to, MoveType.NORMAL, promotion, moves);
+            }
+        } else {
+            addMove(from, to, MoveType.NORMAL, null, moves);
+        }
+    }
+
+    private static void addMoves(int from, long targets, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            addMove(from, to, MoveType.NORMAL, null, moves);
+        }
+    }
+
+    private static void addMove(int from, int to, MoveType moveType, PieceType promotion, MoveList moves) {
+        moves.add(PackedMove.encode(from, to, moveType, promotion));
+    }
+}
@@ -0,0 +1,66 @@
+package com.chessmove.model.game;
+
+import java.util.Objects;
+
+/**
+ * A reusable list of {@link PackedMove packed moves} backed by an {@code int[]}. A list is meant to be allocated
+ * once per search depth and refilled by the move generator, so generating the moves of a position allocates
+ * nothing.
+ */
+public final class MoveList {
+
+    // No legal chess position has more than 218 moves
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves = new int[MAX_MOVES];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Replaces the move at the given index, e.g. when sorting the list in place.
+     *
+     * @param index The index of the move
+     * @param move  The new packed move
+     */
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Keeps only the first moves of the list, e.g. after filtering it in place.
+     *
+     * @param newSize The number of moves to keep, at most the current size
+     * @throws IndexOutOfBoundsException if the new size is negative or larger than the current size
+     */
+    public void truncate(int newSize) {
+        size = Objects.checkIndex(newSize, size + 1);
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,109 @@
+package com.chessmove.model.game;
+
+import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
+
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
+import static com.chessmove.model.game.Bitboards.square;
+
+/**
+ * Encodes a move in a single int, so that move lists can be plain {@code int[]} arrays.
+ * <p>
+ * Bits 0-5 hold the from-square, bits 6-11 the to-square, bits 12-13 the {@link MoveType} and bits 14-16 the
+ * promotion piece (0 when the move is not a promotion, otherwise the {@link PieceType} ordinal plus one). Squares
+ * use the numbering of {@link Bitboards}. Since a move never goes to its own square, 0 is not a valid move and is
+ * used as {@link #NONE}.
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int TYPE_SHIFT = 12;
+    private static final int TYPE_MASK = 0x3;
+    private static final int PROMOTION_SHIFT = 14;
+    private static final int PROMOTION_MASK = 0x7;
+
+    private static final MoveType[] MOVE_TYPES = MoveType.values();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    // Indexed by PieceType ordinal
+    private static final String PROMOTION_LETTERS = "kqrbnp";
+
+    private PackedMove() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static int encode(int from, int to, MoveType moveType, PieceType promotion) {
+        return from
+                | to << TO_SHIFT
+                | moveType.ordinal() << TYPE_SHIFT
+                | (promotion == null ? 0 : promotion.ordinal() + 1) << PROMOTION_SHIFT;
+    }
+
+    /**
+     * Encodes a move object. The captured piece is not part of the encoding, it can be read from the board.
+     *
+     * @param move The move to encode
+     * @return The packed move
+     */
+    public static int of(Move move) {
+        return encode(square(move.fromRow(), move.fromCol()), square(move.toRow(), move.toCol()),
+                move.getMoveType() != null ? move.getMoveType() : MoveType.NORMAL, move.getPromotion());
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    public static MoveType moveType(int move) {
+        return MOVE_TYPES[(move >>> TYPE_SHIFT) & TYPE_MASK];
+    }
+
+    public static PieceType promotion(int move) {
+        int promotion = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return promotion == 0 ? null : PIECE_TYPES[promotion - 1];
+    }
+
+    /**
+     * Decodes a packed move into a move object, taking the captured piece from the board the move is played on.
+     *
+     * @param move  The packed move
+     * @param board The board before the move is made
+     * @return The move object
+     */
+    public static Move toMove(int move, Board board) {
+        int from = from(move);
+        int to = to(move);
+        MoveType moveType = moveType(move);
+        int capturedSquare = moveType == MoveType.EN_PASSANT ? square(row(from), col(to)) : to;
+        return new Move(row(from), col(from), row(to), col(to), moveType,
+                board.getPieceAt(row(capturedSquare), col(capturedSquare)), promotion(move));
+    }
+
+    /**
+     * Returns the move in long algebraic (UCI) notation, e.g. {@code e2e4} or {@code e7e8q}.
+     *
+     * @param move The packed move
+     * @return The move in UCI notation
+     */
+    public static String toUci(int move) {
+        StringBuilder uci = new StringBuilder(5);
+        appendSquare(uci, from(move));
+        appendSquare(uci, to(move));
+        PieceType promotion = promotion(move);
+        if (promotion != null) {
+            uci.append(PROMOTION_LETTERS.charAt(promotion.ordinal()));
+        }
+        return uci.toString();
+    }
+
+    private static void appendSquare(StringBuilder uci, int square) {
+        uci.append((char) ('a' + col(square))).append((char) ('8' - row(square)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.chessmove.model.game;
+
+import com.chessmove.model.piece.Piece;
+import com.chessmove.util.Color;
+import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
+
+import static com.chessmove.model.game.Bitboards.bit;
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
+import static com.chessmove.model.game.Bitboards.square;
+
+/**
+ * Static exchange evaluation (SEE): the material a move wins or loses on its target square, assuming both sides
+ * keep recapturing there with their least valuable attacker for as long as it pays, without searching.
+ * <p>
+ * The attackers are found with {@link Board#attackersTo(int, Color, long)} on an occupancy from which every piece
+ * that has already captured is lifted, so sliders lined up behind it (x-rays) join the exchange in turn. A king
+ * only recaptures when the square is not defended any more. Pins are not taken into account.
+ */
+public final class StaticExchange {
+
+    // Exchange values in centipawns, by PieceType ordinal: king, queen, rook, bishop, knight, pawn
+    private static final int[] VALUES = {20_000, 900, 500, 330, 320, 100};
+    private static final PieceType[] CHEAPEST_FIRST = {
+            PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    };
+    // Every capture removes a piece, so an exchange has at most 32 steps
+    private static final int MAX_EXCHANGES = 32;
+
+    private StaticExchange() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Evaluates the exchange started by a move. The move must be legal on the board; the board is not changed.
+     *
+     * @param board The current board
+     * @param move  The {@link PackedMove packed move} to evaluate, usually a capture
+     * @return The material won by the side making the move, in centipawns; negative if it loses material
+     */
+    public static int evaluate(Board board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece moving = board.getPieceAt(row(from), col(from));
+        PieceType promotion = PackedMove.promotion(move);
+
+        long occupied = board.getOccupied() ^ bit(from);
+        int[] gain = new int[MAX_EXCHANGES];
+        if (PackedMove.moveType(move) == MoveType.EN_PASSANT) {
+            occupied ^= bit(square(row(from), col(to)));
+            gain[0] = value(PieceType.PAWN);
+        } else {
+            Piece captured = board.getPieceAt(row(to), col(to));
+            gain[0] = captured != null ? value(captured.getType()) : 0;
+        }
+        // The value of the piece standing on the target square, which the next capture wins
+        int onSquare = value(moving.getType());
+        if (promotion != null) {
+            gain[0] += value(promotion) - value(PieceType.PAWN);
+            onSquare = value(promotion);
+        }
+
+        Color side = Color.getOppositeColor(moving.getColor());
+        int depth = 0;
+        while (depth < MAX_EXCHANGES - 1) {
+            long attackers = board.attackersTo(to, side, occupied) & occupied;
+            if (attackers == 0) {
+                break;
+            }
+            PieceType attackerType = cheapestAttacker(board, attackers, side);
+            long attacker = Long.lowestOneBit(attackers & board.getPieces(attackerType, side));
+            if (attackerType == PieceType.KING
+                    && (board.attackersTo(to, Color.getOppositeColor(side), occupied ^ attacker) & occupied) != 0) {
+                // The king may not capture onto a defended square
+                break;
+            }
+
+            depth++;
+            // What the capturing side is ahead by if the exchange ends with this capture
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = value(attackerType);
+            occupied ^= attacker;
+            side = Color.getOppositeColor(side);
+        }
+        // Each side may stop capturing when going on would lose more
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * Returns the exchange value of a piece type.
+     *
+     * @param type The piece type
+     * @return The value in centipawns
+     */
+    public static int value(PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    private static PieceType cheapestAttacker(Board board, long attackers, Color side) {
+        for (PieceType type : CHEAPEST_FIRST) {
+            if ((attackers & board.getPieces(type, side)) != 0) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("No attacker among " + Long.toHexString(attackers));
+    }
+}
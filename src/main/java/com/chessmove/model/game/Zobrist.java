@@ -0,0 +1,98 @@
+package com.chessmove.model.game;
+
+import com.chessmove.model.piece.Piece;
+import com.chessmove.util.Color;
+
+import static com.chessmove.model.game.Bitboards.NO_SQUARE;
+import static com.chessmove.model.game.Bitboards.PIECE_KINDS;
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.pieceIndex;
+
+/**
+ * Zobrist keys for hashing positions.
+ * <p>
+ * A position's key is the XOR of one random number per piece on its square, one for black to move, one per
+ * combination of castling rights and one per en-passant file. Because XOR is its own inverse, the board keeps its
+ * key up to date by XOR-ing in and out only the terms a move changes. The numbers come from a fixed seed, so keys
+ * are stable between runs.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_KEYS = new long[PIECE_KINDS][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        long state = 0x2545F4914F6CDD1DL;
+        for (int piece = 0; piece < PIECE_KINDS; piece++) {
+            for (int square = 0; square < 64; square++) {
+                state = nextRandom(state);
+                PIECE_KEYS[piece][square] = scramble(state);
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            state = nextRandom(state);
+            CASTLING_KEYS[rights] = scramble(state);
+        }
+        for (int file = 0; file < 8; file++) {
+            state = nextRandom(state);
+            EN_PASSANT_KEYS[file] = scramble(state);
+        }
+        state = nextRandom(state);
+        BLACK_TO_MOVE_KEY = scramble(state);
+    }
+
+    private Zobrist() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static long pieceKey(Piece piece, int square) {
+        return PIECE_KEYS[pieceIndex(piece.getColor(), piece.getType())][square];
+    }
+
+    public static long castlingKey(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    public static long enPassantKey(int enPassantSquare) {
+        return enPassantSquare == NO_SQUARE ? 0 : EN_PASSANT_KEYS[col(enPassantSquare)];
+    }
+
+    public static long sideKey(Color sideToMove) {
+        return sideToMove == Color.BLACK ? BLACK_TO_MOVE_KEY : 0;
+    }
+
+    /**
+     * Computes the key of a position from scratch.
+     *
+     * @param board The board to hash
+     * @return The Zobrist key of the position
+     */
+    public static long computeKey(Board board) {
+        long key = 0;
+        long pieces = board.getOccupied();
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            key ^= pieceKey(board.getPieceAt(Bitboards.row(square), col(square)), square);
+        }
+        return key
+                ^ castlingKey(board.getCastlingRights())
+                ^ enPassantKey(board.getEnPassantSquare())
+                ^ sideKey(board.getSideToMove());
+    }
+
+    // xorshift64 step
+    private static long nextRandom(long state) {
+        state ^= state << 13;
+        state ^= state >>> 7;
+        state ^= state << 17;
+        return state;
+    }
+
+    // Multiplicative scrambling of the raw xorshift output (xorshift64*)
+    private static long scramble(long state) {
+        return state * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -7,6 +7,9 @@ import com.chessmove.util.PieceType;
 
 import java.util.List;
 
+import static com.chessmove.model.game.Bitboards.square;
+import static com.chessmove.model.game.MagicBitboards.bishopAttacks;
+
 public class Bishop extends Piece {
     public Bishop(Color color) {
         super(PieceType.BISHOP, color);
@@ -14,30 +17,14 @@ public class Bishop extends Piece {
 
     @Override
     public List<Move> generateMoves(int fromRow, int fromCol, Board board) {
-        return generateSlidingMoves(fromRow, fromCol, board, new int[][]{{1, 1}, {1, -1}, {-1, 1}, {-1, -1}});
+        return generateSlidingMoves(fromRow, fromCol, board, bishopAttacks(square(fromRow, fromCol), board.getOccupied()));
     }
 
     @Override
     public boolean canAttackSquare(int fromRow, int fromCol, int toRow, int toCol, Board board) {
-        int rowDiff = toRow - fromRow;
-        int colDiff = toCol - fromCol;
-        if (Math.abs(rowDiff) == Math.abs(colDiff)) {
-            int rowDirection = Integer.compare(toRow, fromRow);
-            int colDirection = Integer.compare(toCol, fromCol);
-            int currentRow = fromRow + rowDirection;
-            int currentCol = fromCol + colDirection;
-            while (currentRow != toRow && currentCol != toCol) {
-                if (!board.isEmpty(currentRow, currentCol)) {
-                    return false;
-                }
-                currentRow += rowDirection;
-                currentCol += colDirection;
-            }
-            // Check if the target square is occupied by a friendly piece
-            return board.isAttackerPiece(toRow, toCol, color);
+        if (!board.isInBounds(fromRow, fromCol)) {
+            return false;
         }
-        return false;
+        return isSlidingAttack(toRow, toCol, board, bishopAttacks(square(fromRow, fromCol), board.getOccupied()));
     }
-
-
 }
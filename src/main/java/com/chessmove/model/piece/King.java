@@ -8,7 +8,6 @@ import com.chessmove.util.PieceType;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 public class King extends Piece {
     public King(Color color) {
@@ -59,16 +58,13 @@ public class King extends Piece {
         if ((color == Color.WHITE && fromRow == 7 && fromCol == 4) ||
             (color == Color.BLACK && fromRow == 0 && fromCol == 4)) {
 
-            // Get castling rights
-            Set<String> castlingRights = color == Color.WHITE ? board.getWhiteCastlingRights() : board.getBlackCastlingRights();
-
             // Kingside castling
-            if ((castlingRights.contains("K") || castlingRights.contains("k")) && canCastleKingSide(fromRow, fromCol, board)) {
+            if (board.hasCastlingRight(color, true) && canCastleKingSide(fromRow, fromCol, board)) {
                     moves.add(new Move(fromRow, fromCol, fromRow, fromCol + 2, MoveType.CASTLING));
             }
 
             // Queenside castling
-            if ((castlingRights.contains("Q") || castlingRights.contains("q")) && canCastleQueenSide(fromRow, fromCol, board)) {
+            if (board.hasCastlingRight(color, false) && canCastleQueenSide(fromRow, fromCol, board)) {
                     moves.add(new Move(fromRow, fromCol, fromRow, fromCol - 2, MoveType.CASTLING));
             }
         }
@@ -9,6 +9,10 @@ import com.chessmove.util.PieceType;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.chessmove.model.game.Bitboards.NO_SQUARE;
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
+
 public class Pawn extends Piece {
 
     public Pawn(Color color) {
@@ -33,7 +37,7 @@ public class Pawn extends Piece {
         // Captures
         captures(fromRow, fromCol, board, nextRow, moves);
         // En-passant captures
-        if (board.getEnPassantTarget() != null) {
+        if (board.getEnPassantSquare() != NO_SQUARE) {
             enPassantCaptures(fromRow, fromCol, board, moves);
         }
 
@@ -54,20 +58,18 @@ public class Pawn extends Piece {
     }
 
     private void enPassantCaptures(int fromRow, int fromCol, Board board, List<Move> moves) {
-        String enPassantTarget = board.getEnPassantTarget();
-        if (!enPassantTarget.equals("-")) {
-            int targetRow = 8 - Character.getNumericValue(enPassantTarget.charAt(1));
-            int targetCol = enPassantTarget.charAt(0) - 'a';
-            int direction = color == Color.WHITE ? -1 : 1;
+        int enPassantSquare = board.getEnPassantSquare();
+        int targetRow = row(enPassantSquare);
+        int targetCol = col(enPassantSquare);
+        int direction = color == Color.WHITE ? -1 : 1;
 
-            // Check that the pawn is on the correct rank for en-passant
-            int enPassantRow = color == Color.WHITE ? 3 : 4;
+        // Check that the pawn is on the correct rank for en-passant
+        int enPassantRow = color == Color.WHITE ? 3 : 4;
 
-            if (fromRow == enPassantRow && fromRow + direction == targetRow && Math.abs(fromCol - targetCol) == 1) {
-                int capturedPawnRow = targetRow - direction;
-                Piece capturedPawn = board.getPieceAt(capturedPawnRow, targetCol);
-                moves.add(new Move(fromRow, fromCol, targetRow, targetCol, MoveType.EN_PASSANT, capturedPawn));
-            }
+        if (fromRow == enPassantRow && fromRow + direction == targetRow && Math.abs(fromCol - targetCol) == 1) {
+            int capturedPawnRow = targetRow - direction;
+            Piece capturedPawn = board.getPieceAt(capturedPawnRow, targetCol);
+            moves.add(new Move(fromRow, fromCol, targetRow, targetCol, MoveType.EN_PASSANT, capturedPawn));
         }
     }
 
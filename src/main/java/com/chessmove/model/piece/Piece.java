@@ -1,6 +1,7 @@
 package com.chessmove.model.piece;
 
 import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MagicBitboards;
 import com.chessmove.model.game.Move;
 import com.chessmove.util.Color;
 import com.chessmove.util.MoveType;
@@ -9,15 +10,50 @@ import com.chessmove.util.PieceType;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.chessmove.model.game.Bitboards.PIECE_KINDS;
+import static com.chessmove.model.game.Bitboards.bit;
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.pieceIndex;
+import static com.chessmove.model.game.Bitboards.row;
+import static com.chessmove.model.game.Bitboards.square;
+
 public abstract class Piece {
-    protected PieceType type;
-    protected Color color;
+    protected final PieceType type;
+    protected final Color color;
 
     protected Piece(PieceType type, Color color) {
         this.type = type;
         this.color = color;
     }
 
+    /**
+     * Returns the shared instance of the piece of the given type and color. Pieces hold no state besides their type
+     * and color, so the twelve instances can be shared by every board and every move.
+     *
+     * @param type  The type of the piece
+     * @param color The color of the piece
+     * @return The shared piece
+     */
+    public static Piece of(PieceType type, Color color) {
+        return Flyweights.PIECES[pieceIndex(color, type)];
+    }
+
+    // Holder class, so that the subclasses are not instantiated while Piece itself is being initialized
+    private static final class Flyweights {
+        private static final Piece[] PIECES = new Piece[PIECE_KINDS];
+
+        static {
+            for (Color color : Color.values()) {
+                PIECES[pieceIndex(color, PieceType.KING)] = new King(color);
+                PIECES[pieceIndex(color, PieceType.QUEEN)] = new Queen(color);
+                PIECES[pieceIndex(color, PieceType.ROOK)] = new Rook(color);
+                PIECES[pieceIndex(color, PieceType.BISHOP)] = new Bishop(color);
+                PIECES[pieceIndex(color, PieceType.KNIGHT)] = new Knight(color);
+                PIECES[pieceIndex(color, PieceType.PAWN)] = new Pawn(color);
+            }
+        }
+    }
+
     public Color getColor() {
         return color;
     }
@@ -30,33 +66,45 @@ public abstract class Piece {
 
     public abstract boolean canAttackSquare(int fromRow, int fromCol, int toRow, int toCol, Board board);
 
-    protected List<Move> generateSlidingMoves(int fromRow, int fromCol, Board board, int[][] directions) {
+    /**
+     * Turns a precomputed attack set into moves: every attacked square that is empty or holds an enemy piece
+     * other than the king becomes a move.
+     *
+     * @param fromRow The row of the sliding piece
+     * @param fromCol The column of the sliding piece
+     * @param board   The current board
+     * @param attacks The squares the piece attacks, as returned by {@link MagicBitboards}
+     * @return The list of moves
+     */
+    protected List<Move> generateSlidingMoves(int fromRow, int fromCol, Board board, long attacks) {
         List<Move> moves = new ArrayList<>();
-        for (int[] dir : directions) {
-            int newRow = fromRow;
-            int newCol = fromCol;
-            do {
-                newRow += dir[0];
-                newCol += dir[1];
-            } while (isLegalSlidingMove(fromRow, fromCol, board, newRow, newCol, moves));
+        long targets = attacks & ~board.getOccupancy(color) & ~board.getPieces(PieceType.KING, Color.getOppositeColor(color));
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            Piece targetPiece = board.getPieceAt(row(to), col(to));
+            if (targetPiece == null) {
+                moves.add(new Move(fromRow, fromCol, row(to), col(to)));
+            } else {
+                moves.add(new Move(fromRow, fromCol, row(to), col(to), MoveType.NORMAL, targetPiece));
+            }
         }
         return moves;
     }
 
-    boolean isLegalSlidingMove(int fromRow, int fromCol, Board board, int newRow, int newCol, List<Move> moves) {
-        if (!board.isInBounds(newRow, newCol)) return false;
-        if (board.isEmpty(newRow, newCol)) {
-            moves.add(new Move(fromRow, fromCol, newRow, newCol));
-        } else {
-            if (board.isEnemyPiece(newRow, newCol, color)) {
-                Piece targetPiece = board.getPieceAt(newRow, newCol);
-                if (null != targetPiece && targetPiece.getType() != PieceType.KING) {
-                    moves.add(new Move(fromRow, fromCol, newRow, newCol, MoveType.NORMAL, targetPiece));
-                }
-            }
-            return false;
-        }
-        return true;
+    /**
+     * Checks whether a sliding piece attacks the target square, given its attack set on the current board.
+     *
+     * @param toRow   The row of the target square
+     * @param toCol   The column of the target square
+     * @param board   The current board
+     * @param attacks The squares the piece attacks, as returned by {@link MagicBitboards}
+     * @return True if the target is attacked and not occupied by a friendly piece
+     */
+    boolean isSlidingAttack(int toRow, int toCol, Board board, long attacks) {
+        return board.isInBounds(toRow, toCol)
+                && (attacks & bit(square(toRow, toCol))) != 0
+                && board.isAttackerPiece(toRow, toCol, color);
     }
 
     boolean isOccupiedByKing(int toRow, int toCol, Board board) {
@@ -7,6 +7,9 @@ import com.chessmove.util.PieceType;
 
 import java.util.List;
 
+import static com.chessmove.model.game.Bitboards.square;
+import static com.chessmove.model.game.MagicBitboards.rookAttacks;
+
 public class Rook extends Piece {
     public Rook(Color color) {
         super(PieceType.ROOK, color);
@@ -14,35 +17,14 @@ public class Rook extends Piece {
 
     @Override
     public List<Move> generateMoves(int fromRow, int fromCol, Board board) {
-        return generateSlidingMoves(fromRow, fromCol, board, new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}});
+        return generateSlidingMoves(fromRow, fromCol, board, rookAttacks(square(fromRow, fromCol), board.getOccupied()));
     }
 
     @Override
     public boolean canAttackSquare(int fromRow, int fromCol, int toRow, int toCol, Board board) {
-        if (fromRow == toRow) {
-            int colDirection = Integer.compare(toCol, fromCol);
-            int currentCol = fromCol + colDirection;
-            while (currentCol != toCol) {
-                if (!board.isEmpty(fromRow, currentCol)) {
-                    return false;
-                }
-                currentCol += colDirection;
-            }
-        } else if (fromCol == toCol) {
-            int rowDirection = Integer.compare(toRow, fromRow);
-            int currentRow = fromRow + rowDirection;
-            while (currentRow != toRow) {
-                if (!board.isEmpty(currentRow, fromCol)) {
-                    return false;
-                }
-                currentRow += rowDirection;
-            }
-        } else {
-            return false; // Not in the same row or column
+        if (!board.isInBounds(fromRow, fromCol)) {
+            return false;
         }
-        // Check if the target square is occupied by a friendly piece
-        return board.isAttackerPiece(toRow, toCol, color);
+        return isSlidingAttack(toRow, toCol, board, rookAttacks(square(fromRow, fromCol), board.getOccupied()));
     }
-
-
 }
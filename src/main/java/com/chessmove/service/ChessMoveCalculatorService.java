@@ -2,14 +2,55 @@ package com.chessmove.service;
 
 import com.chessmove.model.game.Board;
 import com.chessmove.model.game.Move;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.model.game.StaticExchange;
 import com.chessmove.model.piece.Piece;
+import com.chessmove.service.batch.BatchProcessor;
+import com.chessmove.service.batch.BatchResult;
+import com.chessmove.service.book.BookMove;
+import com.chessmove.service.book.PolyglotBook;
+import com.chessmove.service.mate.MateResult;
+import com.chessmove.service.mate.MateSolver;
+import com.chessmove.service.perft.ParallelPerft;
+import com.chessmove.service.perft.Perft;
+import com.chessmove.service.perft.PerftHashTable;
+import com.chessmove.service.perft.PerftResult;
+import com.chessmove.service.search.LazySmpSearch;
+import com.chessmove.service.search.SearchFeature;
+import com.chessmove.service.search.SearchLimits;
+import com.chessmove.service.search.SearchResult;
+import com.chessmove.service.search.TranspositionTable;
+import com.chessmove.service.tablebase.Material;
+import com.chessmove.service.tablebase.Tablebase;
+import com.chessmove.service.tablebase.TablebaseGenerator;
+import com.chessmove.service.tablebase.TablebaseResult;
 import com.chessmove.util.*;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
 import java.util.*;
 
 import static com.chessmove.model.game.Board.formatMoveDescription;
 import static com.chessmove.util.CalculationConstants.*;
+import static com.chessmove.util.CalculationMessage.INVALID_HASH_SIZE;
+import static com.chessmove.util.CalculationMessage.INVALID_MATERIAL;
+import static com.chessmove.util.CalculationMessage.INVALID_MATE_LENGTH;
+import static com.chessmove.util.CalculationMessage.INVALID_PERFT_DEPTH;
+import static com.chessmove.util.CalculationMessage.INVALID_SEARCH_LIMIT;
+import static com.chessmove.util.CalculationMessage.INVALID_THREAD_COUNT;
 import static com.chessmove.util.FENValidator.isKingInCheck;
+import static com.chessmove.util.FENValidator.parseClock;
 import static com.chessmove.util.LoggerUtility.*;
 
 public class ChessMoveCalculatorService {
@@ -24,6 +65,11 @@ public class ChessMoveCalculatorService {
     private final String fullmoveNumber;
     private final Set<String> whiteCastlingRights = new HashSet<>();
     private final Set<String> blackCastlingRights = new HashSet<>();
+    // Scratch list for counting queries, so that they do not allocate
+    private final MoveList moveList = new MoveList();
+    // Kept between searches, so that they share what they found and need not allocate it again
+    private TranspositionTable transpositionTable;
+    private int transpositionTableMegabytes;
 
     public ChessMoveCalculatorService(String fen) throws InvalidFENException {
 
@@ -51,7 +97,8 @@ public class ChessMoveCalculatorService {
      * @return A list of move descriptions
      */
     public List<String> getMoves(Piece[][] squares, Color color) {
-        this.board = new Board(squares, enPassantTarget, whiteCastlingRights, blackCastlingRights);
+        this.board = new Board(squares, color, enPassantTarget, whiteCastlingRights, blackCastlingRights,
+                parseClock(halfmoveClock, 0), parseClock(fullmoveNumber, 1));
         return getMoveDescriptions(color);
     }
 
@@ -156,13 +203,9 @@ public class ChessMoveCalculatorService {
     }
 
     private void generateMoveDescriptions(Color color, List<String> moveDescriptions) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPieceAt(row, col);
-                if (piece != null && piece.getColor() == color) {
-                    getTotalMoves(piece, color, row, col, moveDescriptions);
-                }
-            }
+        for (Move move : MoveGenerator.generateLegalMoves(board, color)) {
+            Piece piece = board.getPieceAt(move.fromRow(), move.fromCol());
+            moveDescriptions.add(formatMoveDescription(piece, move));
         }
     }
 
@@ -191,29 +234,264 @@ public class ChessMoveCalculatorService {
         return pieceCount;
     }
 
-    private void getTotalMoves(Piece piece, Color color, int row, int col, List<String> moveDescriptions) {
-        if (piece != null && piece.getColor() == color) {
-            List<Move> moves = piece.generateMoves(row, col, board);
-            for (Move move : moves) {
-                if (!moveLeavesKingInCheck(move, color)) {
-                    String moveDescription = formatMoveDescription(piece, move);
-                    moveDescriptions.add(moveDescription);
-                }
+    /**
+     * Counts the legal moves of the given color in the current position, without formatting descriptions or
+     * creating move objects. Unlike {@link #getMoves(Piece[][], Color)}, no draw rules are applied.
+     *
+     * @param color The color of the player to move
+     * @return The number of legal moves
+     */
+    public int countLegalMoves(Color color) {
+        MoveGenerator.generateLegalMoves(board, color, moveList);
+        return moveList.size();
+    }
+
+    /**
+     * Tells whether the given color has any legal move in the current position. Generation stops at the first
+     * piece found with a legal move.
+     *
+     * @param color The color of the player to move
+     * @return True if there is at least one legal move
+     */
+    public boolean hasAnyLegalMove(Color color) {
+        return MoveGenerator.hasLegalMove(board, color, moveList);
+    }
+
+    /**
+     * Evaluates every legal capture and promotion of the given color with {@link StaticExchange static exchange
+     * evaluation}, without searching: a positive value means the capture wins material once all recaptures on its
+     * square are played out, a negative one that it loses material, and 0 an even trade.
+     *
+     * @param color The color of the player to move
+     * @return The material balance of each capture in centipawns, by move in UCI notation, in generation order
+     */
+    public Map<String, Integer> evaluateCaptures(Color color) {
+        MoveGenerator.generateLegalCaptures(board, color, moveList);
+        Map<String, Integer> exchanges = new LinkedHashMap<>();
+        for (int i = 0; i < moveList.size(); i++) {
+            int move = moveList.get(i);
+            exchanges.put(PackedMove.toUci(move), StaticExchange.evaluate(board, move));
+        }
+        return exchanges;
+    }
+
+    /**
+     * Decides the state of the game in the current position for the given side to move. The cheap material and
+     * clock checks come first, and the move generator only runs until it finds one legal move.
+     * <ul>
+     *     <li>{@link PositionStatus#INSUFFICIENT_MATERIAL}: only kings, each with at most one bishop or knight</li>
+     *     <li>{@link PositionStatus#CHECKMATE} or {@link PositionStatus#STALEMATE}: no legal move</li>
+     *     <li>{@link PositionStatus#FIFTY_MOVE_RULE}: a hundred plies without a capture or pawn move; a checkmate
+     *     delivered on the last of them still counts as checkmate</li>
+     *     <li>{@link PositionStatus#ONGOING}: otherwise</li>
+     * </ul>
+     *
+     * @param color The color of the player to move
+     * @return The status of the position
+     */
+    public PositionStatus status(Color color) {
+        if (hasInsufficientMaterial()) {
+            return PositionStatus.INSUFFICIENT_MATERIAL;
+        }
+        if (!hasAnyLegalMove(color)) {
+            return isKingInCheck(board, color) ? PositionStatus.CHECKMATE : PositionStatus.STALEMATE;
+        }
+        if (board.getHalfmoveClock() >= FIFTY_MOVE_RULE_PLIES) {
+            return PositionStatus.FIFTY_MOVE_RULE;
+        }
+        return PositionStatus.ONGOING;
+    }
+
+    private boolean hasInsufficientMaterial() {
+        for (Color color : Color.values()) {
+            long heavyPieces = board.getPieces(PieceType.PAWN, color) | board.getPieces(PieceType.ROOK, color)
+                    | board.getPieces(PieceType.QUEEN, color);
+            long minorPieces = board.getPieces(PieceType.BISHOP, color) | board.getPieces(PieceType.KNIGHT, color);
+            if (heavyPieces != 0 || Long.bitCount(minorPieces) > 1) {
+                return false;
             }
         }
+        return true;
     }
 
     public boolean moveLeavesKingInCheck(Move move, Color color) {
-        Board copy = board.copy();
-        Piece[][] grid = copy.getSquares();
-        Piece movingPiece = grid[move.fromRow()][move.fromCol()];
+        // Make the move in place, probe the king and take it back
+        board.makeMove(move);
+        boolean kingInCheck = isKingInCheck(board, color);
+        board.unmakeMove(move);
+        return kingInCheck;
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree of the current position to the given depth, for the side to
+     * move (white when the FEN does not say). The board itself is not changed.
+     *
+     * @param depth The depth in plies, at least 0
+     * @return The node count, the count below each root move and the elapsed time
+     */
+    public PerftResult perft(int depth) {
+        return perft(depth, 1);
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree like {@link #perft(int)}, splitting the work between the given
+     * number of threads. The result, including the order of the root moves, is the same for any thread count.
+     *
+     * @param depth   The depth in plies, at least 0
+     * @param threads The number of worker threads, at least 1
+     * @return The node count, the count below each root move and the elapsed time
+     */
+    public PerftResult perft(int depth, int threads) {
+        return perft(depth, threads, 0);
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree like {@link #perft(int, int)}, reusing the node counts of
+     * transposed subtrees from a hash table of the given size that all threads share.
+     *
+     * @param depth         The depth in plies, at least 0
+     * @param threads       The number of worker threads, at least 1
+     * @param hashMegabytes The size of the hash table in megabytes, at most {@value PerftHashTable#MAX_MEGABYTES}, or 0
+     *                      to count every subtree
+     * @return The node count, the count below each root move, the elapsed time and the hash hits and misses
+     */
+    public PerftResult perft(int depth, int threads, int hashMegabytes) {
+        if (depth < 0) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_PERFT_DEPTH, depth));
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_THREAD_COUNT, threads));
+        }
+        if (hashMegabytes < 0 || hashMegabytes > PerftHashTable.MAX_MEGABYTES) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_HASH_SIZE, hashMegabytes));
+        }
+        PerftHashTable table = hashMegabytes > 0 ? new PerftHashTable(hashMegabytes) : null;
+        return threads == 1
+                ? Perft.run(board.copy(), depth, table)
+                : ParallelPerft.run(board.copy(), depth, threads, table);
+    }
 
-        // Make the move
-        grid[move.toRow()][move.toCol()] = movingPiece;
-        grid[move.fromRow()][move.fromCol()] = null;
+    /**
+     * Searches the current position for the best move of the side to move (white when the FEN does not say),
+     * deepening one ply at a time until a limit is reached. The board itself is not changed.
+     *
+     * @param limits The depth, node and time limits of the search
+     * @return The best move, its score, the principal variation and the search statistics
+     */
+    public SearchResult search(SearchLimits limits) {
+        return search(limits, SearchFeature.defaults());
+    }
 
-        // Find the king's position
-        return isKingInCheck(copy, color);
+    /**
+     * Searches the current position like {@link #search(SearchLimits)}, with only the given pruning and move
+     * ordering techniques enabled. Mostly useful to measure what each of them is worth.
+     *
+     * @param limits   The depth, node and time limits of the search
+     * @param features The search features to enable; an empty set gives a plain alpha-beta search (still with a
+     *                 transposition table)
+     * @return The best move, its score, the principal variation and the search statistics
+     */
+    public SearchResult search(SearchLimits limits, Set<SearchFeature> features) {
+        return search(limits, features, DEFAULT_SEARCH_HASH_MEGABYTES);
+    }
+
+    /**
+     * Searches the current position like {@link #search(SearchLimits, Set)}, with a transposition table of the
+     * given size. The table lives outside the Java heap and is kept for the following searches of the service,
+     * which reuse it as long as they ask for the same size; the entries of earlier searches are replaced first.
+     *
+     * @param limits        The depth, node and time limits of the search
+     * @param features      The search features to enable
+     * @param hashMegabytes The size of the transposition table in megabytes, or 0 to search without one
+     * @return The best move, its score, the principal variation and the search statistics
+     */
+    public SearchResult search(SearchLimits limits, Set<SearchFeature> features, int hashMegabytes) {
+        return search(limits, features, hashMegabytes, 1);
+    }
+
+    /**
+     * Searches the current position like {@link #search(SearchLimits, Set, int)}, with the given number of threads
+     * sharing the transposition table (Lazy SMP). The node limit counts the nodes of all threads.
+     *
+     * @param limits        The depth, node and time limits of the search
+     * @param features      The search features to enable
+     * @param hashMegabytes The size of the transposition table in megabytes, or 0 to search without one
+     * @param threads       The number of search threads, at least 1
+     * @return The best move, its score, the principal variation and the search statistics of all threads
+     */
+    public SearchResult search(SearchLimits limits, Set<SearchFeature> features, int hashMegabytes, int threads) {
+        if (hashMegabytes < 0 || hashMegabytes > TranspositionTable.MAX_MEGABYTES) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_HASH_SIZE, hashMegabytes));
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_THREAD_COUNT, threads));
+        }
+        TranspositionTable table = hashMegabytes > 0 ? transpositionTable(hashMegabytes) : null;
+        return LazySmpSearch.run(board, limits, features, table, threads);
+    }
+
+    // Reuses the table of the previous search if it has the requested size, and starts a new search in it
+    private TranspositionTable transpositionTable(int megabytes) {
+        if (transpositionTable == null || transpositionTableMegabytes != megabytes) {
+            // Dropped first, so that a collection set off by the new allocation can free the old table
+            transpositionTable = null;
+            transpositionTable = new TranspositionTable(megabytes);
+            transpositionTableMegabytes = megabytes;
+        }
+        transpositionTable.newSearch();
+        return transpositionTable;
+    }
+
+    /**
+     * Searches the current position for a forced mate by the side to move (white when the FEN does not say) in at
+     * most the given number of moves, or proves that there is none. The board itself is not changed.
+     *
+     * @param moves The maximum number of moves of the mate, between 1 and {@value MateSolver#MAX_MOVES}
+     * @return The shortest mate and its line, or a result without mate
+     */
+    public MateResult solveMate(int moves) {
+        return solveMate(moves, 1);
+    }
+
+    /**
+     * Searches for a forced mate like {@link #solveMate(int)}, proving the root moves in parallel with the given
+     * number of threads. The result is the same for any thread count.
+     *
+     * @param moves   The maximum number of moves of the mate, between 1 and {@value MateSolver#MAX_MOVES}
+     * @param threads The number of threads, at least 1
+     * @return The shortest mate and its line, or a result without mate
+     */
+    public MateResult solveMate(int moves, int threads) {
+        if (moves < 1 || moves > MateSolver.MAX_MOVES) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_MATE_LENGTH, moves));
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_THREAD_COUNT, threads));
+        }
+        return MateSolver.run(board, moves, threads);
+    }
+
+    /**
+     * Reads the exact result of the current position for the side to move (white when the FEN does not say) from
+     * the endgame tables, with the moves that keep it. The board itself is not changed.
+     *
+     * @param tablebase The endgame tables
+     * @return The win, draw or loss with the distance to mate and the best moves, or null if the tables do not
+     * cover the position
+     */
+    public TablebaseResult probeTablebase(Tablebase tablebase) {
+        return tablebase.probe(board);
+    }
+
+    /**
+     * Looks up the moves of the current position for the side to move (white when the FEN does not say) in an
+     * opening book. The board itself is not changed.
+     *
+     * @param book The opening book
+     * @return The book moves by decreasing weight, or an empty list if the position is not in the book
+     */
+    public List<BookMove> probeBook(PolyglotBook book) {
+        return book.lookup(board);
     }
 
     public static void calculateMovesForBothColors(ChessMoveCalculatorService service, Piece[][] squares) {
@@ -248,6 +526,23 @@ public class ChessMoveCalculatorService {
         return args[0];
     }
 
+    /**
+     * Returns the colors whose moves are calculated for this position: the active player if the FEN gives one,
+     * otherwise the player whose king is in check, otherwise both colors.
+     *
+     * @return The colors, white first
+     * @throws InvalidFENException if the active color is not valid
+     */
+    public List<Color> getCalculatedColors() throws InvalidFENException {
+        if (!getActiveColor().equals(EMPTY_INPUT)) {
+            // Active player given
+            return List.of(Color.fromName(getActiveColor()));
+        }
+        // Active player not given: only the defending player, or both colors if neither king is in check
+        Color inferredActiveColor = inferActiveColorBasedOnCheck();
+        return inferredActiveColor != null ? List.of(inferredActiveColor) : List.of(Color.WHITE, Color.BLACK);
+    }
+
     public Color inferActiveColorBasedOnCheck() {
         boolean whiteKingInCheck = isKingInCheck(board, Color.WHITE);
         boolean blackKingInCheck = isKingInCheck(board, Color.BLACK);
@@ -273,6 +568,34 @@ public class ChessMoveCalculatorService {
      *             Additional arguments will be ignored.
      */
     public static void runCalculation(String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase(PERFT_SWITCH)) {
+            runPerft(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase(SEARCH_SWITCH)) {
+            runSearch(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase(MATE_SWITCH)) {
+            runMate(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase(TABLEBASE_SWITCH)) {
+            runTablebase(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase(GENERATE_TABLEBASE_SWITCH)) {
+            runGenerateTablebase(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase(BOOK_SWITCH)) {
+            runBook(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase(BATCH_SWITCH)) {
+            runBatch(args);
+            return;
+        }
         try {
             String fen = parseFEN(args);
             ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
@@ -297,21 +620,322 @@ public class ChessMoveCalculatorService {
         }
     }
 
-    private static void calculateMoves(ChessMoveCalculatorService service, Board board) throws InvalidFENException {
-        if (service.getActiveColor().equals(EMPTY_INPUT)) {
-            // Active player not given
-            Color inferredActiveColor = service.inferActiveColorBasedOnCheck();
-            if (inferredActiveColor != null) {
-                // Only display moves for the defending player
-                calculateMovesForColor(service, board.getSquares(), inferredActiveColor);
+    /**
+     * Executes perft on the position given as
+     * {@code --perft <DEPTH> "<FEN_STRING>" [--threads <THREADS>] [--hash <MEGABYTES>]}: displays the board, the
+     * node count below each root move, the total node count, the elapsed time and the nodes per second, and the
+     * hash table hits and misses when a hash table is used.
+     *
+     * @param args Command-line arguments, starting with the perft switch
+     */
+    public static void runPerft(String[] args) {
+        if (args.length < 3 || args.length % 2 == 0) {
+            displayInvalidPerftArguments();
+            System.exit(1);
+        }
+        int depth = parseNumber(args[1], 0, INVALID_PERFT_DEPTH);
+        int threads = 1;
+        int hashMegabytes = 0;
+        for (int i = 3; i < args.length; i += 2) {
+            if (args[i].equalsIgnoreCase(THREADS_SWITCH)) {
+                threads = parseNumber(args[i + 1], 1, INVALID_THREAD_COUNT);
+            } else if (args[i].equalsIgnoreCase(HASH_SWITCH)) {
+                hashMegabytes = parseNumber(args[i + 1], 1, INVALID_HASH_SIZE);
             } else {
-                // Neither king is in check, display moves for both colors
-                calculateMovesForBothColors(service, board.getSquares());
+                displayInvalidPerftArguments();
+                System.exit(1);
             }
-        } else {
-            // Active player given, display moves for that player
-            Color activeColor = Color.fromName(service.getActiveColor());
-            calculateMovesForColor(service, board.getSquares(), activeColor);
+        }
+        try {
+            ChessMoveCalculatorService service = new ChessMoveCalculatorService(args[2]);
+
+            displayStandardSettings(service.getFen());
+            displayBoard(service.getBoard().drawBoard());
+
+            PerftResult result = service.perft(depth, threads, hashMegabytes);
+            displayPerftDivide(result.getDivide());
+            displayPerftResult(result.getDepth(), result.getNodes(), result.getElapsedMillis(),
+                    result.getNodesPerSecond(), result.getThreads());
+            if (result.isHashed()) {
+                displayPerftHashUsage(result.getHashHits(), result.getHashMisses());
+            }
+
+        } catch (InvalidFENException e) {
+            displayError(e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Executes a best-move search on the position given as
+     * {@code --search "<FEN_STRING>" [--depth <DEPTH>] [--nodes <NODES>] [--time <MILLISECONDS>] [--hash <MEGABYTES>]
+     * [--threads <THREADS>]},
+     * and displays the best move, its score, the principal variation and the search statistics. Without any limit,
+     * the search goes {@value CalculationConstants#DEFAULT_SEARCH_DEPTH} plies deep.
+     *
+     * @param args Command-line arguments, starting with the search switch
+     */
+    public static void runSearch(String[] args) {
+        if (args.length < 2 || args.length % 2 == 1) {
+            displayInvalidSearchArguments();
+            System.exit(1);
+        }
+        int depth = 0;
+        long nodes = 0;
+        long timeMillis = 0;
+        int hashMegabytes = DEFAULT_SEARCH_HASH_MEGABYTES;
+        int threads = 1;
+        for (int i = 2; i < args.length; i += 2) {
+            if (args[i].equalsIgnoreCase(DEPTH_SWITCH)) {
+                depth = parseNumber(args[i + 1], 1, INVALID_SEARCH_LIMIT);
+            } else if (args[i].equalsIgnoreCase(NODES_SWITCH)) {
+                nodes = parseNumber(args[i + 1], 1, INVALID_SEARCH_LIMIT);
+            } else if (args[i].equalsIgnoreCase(TIME_SWITCH)) {
+                timeMillis = parseNumber(args[i + 1], 1, INVALID_SEARCH_LIMIT);
+            } else if (args[i].equalsIgnoreCase(HASH_SWITCH)) {
+                hashMegabytes = parseNumber(args[i + 1], 1, INVALID_HASH_SIZE);
+            } else if (args[i].equalsIgnoreCase(THREADS_SWITCH)) {
+                threads = parseNumber(args[i + 1], 1, INVALID_THREAD_COUNT);
+            } else {
+                displayInvalidSearchArguments();
+                System.exit(1);
+            }
+        }
+        if (depth == 0 && nodes == 0 && timeMillis == 0) {
+            depth = DEFAULT_SEARCH_DEPTH;
+        }
+        try {
+            ChessMoveCalculatorService service = new ChessMoveCalculatorService(args[1]);
+
+            displayStandardSettings(service.getFen());
+            displayBoard(service.getBoard().drawBoard());
+
+            SearchResult result = service.search(new SearchLimits(depth, nodes, timeMillis), SearchFeature.defaults(),
+                    hashMegabytes, threads);
+            displaySearchResult(result.getBestMoveUci(), result.getScoreText(), result.getDepth(),
+                    result.getPrincipalVariationUci(), result.getNodes(), result.getElapsedMillis(),
+                    result.getNodesPerSecond(), result.getThreads());
+
+        } catch (InvalidFENException e) {
+            displayError(e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Executes the mate solver on the position given as {@code --mate <MOVES> "<FEN_STRING>" [--threads <THREADS>]},
+     * and displays the shortest forced mate and its line, or that there is none within the given number of moves,
+     * with the search statistics.
+     *
+     * @param args Command-line arguments, starting with the mate switch
+     */
+    public static void runMate(String[] args) {
+        if (args.length < 3 || args.length % 2 == 0) {
+            displayInvalidMateArguments();
+            System.exit(1);
+        }
+        int moves = parseNumber(args[1], 1, INVALID_MATE_LENGTH);
+        if (moves > MateSolver.MAX_MOVES) {
+            displayInvalidNumber(INVALID_MATE_LENGTH, args[1]);
+            System.exit(1);
+        }
+        int threads = 1;
+        for (int i = 3; i < args.length; i += 2) {
+            if (args[i].equalsIgnoreCase(THREADS_SWITCH)) {
+                threads = parseNumber(args[i + 1], 1, INVALID_THREAD_COUNT);
+            } else {
+                displayInvalidMateArguments();
+                System.exit(1);
+            }
+        }
+        try {
+            ChessMoveCalculatorService service = new ChessMoveCalculatorService(args[2]);
+
+            displayStandardSettings(service.getFen());
+            displayBoard(service.getBoard().drawBoard());
+
+            MateResult result = service.solveMate(moves, threads);
+            if (result.isMate()) {
+                displayMateLine(result.getMateIn(), result.getLineUci());
+            } else {
+                displayNoMate(result.getMaxMoves());
+            }
+            displayMateStatistics(result.getNodes(), result.getElapsedMillis(), result.getNodesPerSecond(),
+                    result.getThreads());
+
+        } catch (InvalidFENException e) {
+            displayError(e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Probes the endgame tables of a directory for the position given as
+     * {@code --tablebase <DIRECTORY> "<FEN_STRING>"}, and displays the exact result for the active player (white
+     * if not given) with the distance to mate and the best moves, or that the tables do not cover the position.
+     *
+     * @param args Command-line arguments, starting with the tablebase switch
+     */
+    public static void runTablebase(String[] args) {
+        if (args.length != 3) {
+            displayInvalidTablebaseArguments();
+            System.exit(1);
+        }
+        try {
+            ChessMoveCalculatorService service = new ChessMoveCalculatorService(args[2]);
+
+            displayStandardSettings(service.getFen());
+            displayBoard(service.getBoard().drawBoard());
+
+            TablebaseResult result = service.probeTablebase(new Tablebase(Path.of(args[1])));
+            if (result == null) {
+                displayTablebaseNotCovered(args[1]);
+            } else if (result.getOutcome() == TablebaseResult.Outcome.WIN) {
+                displayTablebaseWin(result.getMovesToMate(), result.getPliesToMate(), result.getBestMovesUci());
+            } else if (result.getOutcome() == TablebaseResult.Outcome.LOSS) {
+                displayTablebaseLoss(result.getMovesToMate(), result.getPliesToMate(), result.getBestMovesUci());
+            } else {
+                displayTablebaseDraw(result.getBestMovesUci());
+            }
+
+        } catch (InvalidFENException e) {
+            displayError(e);
+            System.exit(1);
+        } catch (UncheckedIOException e) {
+            displayInvalidTablebaseFile(e.getCause().getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Builds the endgame tables of the material sets given as
+     * {@code --generate-tablebase <DIRECTORY> <MATERIAL>...}, with the tables they depend on, writes them to the
+     * directory and displays the files written and the elapsed time.
+     *
+     * @param args Command-line arguments, starting with the generate tablebase switch
+     */
+    public static void runGenerateTablebase(String[] args) {
+        if (args.length < 3) {
+            displayInvalidTablebaseArguments();
+            System.exit(1);
+        }
+        List<Material> materials = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            try {
+                materials.add(Material.parse(args[i]));
+            } catch (IllegalArgumentException e) {
+                displayInvalidNumber(INVALID_MATERIAL, args[i]);
+                System.exit(1);
+            }
+        }
+        long start = System.nanoTime();
+        int written = 0;
+        try {
+            for (Material material : materials) {
+                for (Path file : TablebaseGenerator.generate(material, Path.of(args[1]))) {
+                    displayTablebaseWritten(file.toString());
+                    written++;
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            displayInvalidTablebaseFile(e.getMessage());
+            System.exit(1);
+        }
+        displayTablebaseGeneration(written, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Looks up the position given as {@code --book <BOOK_FILE> "<FEN_STRING>"} in a Polyglot opening book, and
+     * displays its book moves with their weights and shares, or that the book has none.
+     *
+     * @param args Command-line arguments, starting with the book switch
+     */
+    public static void runBook(String[] args) {
+        if (args.length != 3) {
+            displayInvalidBookArguments();
+            System.exit(1);
+        }
+        try {
+            ChessMoveCalculatorService service = new ChessMoveCalculatorService(args[2]);
+            PolyglotBook book = new PolyglotBook(Path.of(args[1]));
+
+            displayStandardSettings(service.getFen());
+            displayBoard(service.getBoard().drawBoard());
+
+            List<BookMove> moves = service.probeBook(book);
+            if (moves.isEmpty()) {
+                displayNoBookMoves(args[1]);
+            } else {
+                displayBookMoves(moves.stream().map(BookMove::getUci).toList(),
+                        moves.stream().map(BookMove::getWeight).toList());
+            }
+
+        } catch (InvalidFENException e) {
+            displayError(e);
+            System.exit(1);
+        } catch (IOException e) {
+            displayInvalidBookFile(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Calculates the moves of every position of a file given as {@code --batch [<FEN_FILE>] [--threads <THREADS>]},
+     * or of standard input without a file or with {@code -}, one FEN string per line. Writes one record per
+     * position to standard output in input order (see {@link BatchProcessor}), reporting invalid positions in their
+     * records instead of stopping, then displays the number of positions and errors and the throughput.
+     *
+     * @param args Command-line arguments, starting with the batch switch
+     */
+    public static void runBatch(String[] args) {
+        boolean fileGiven = args.length > 1 && !args[1].equalsIgnoreCase(THREADS_SWITCH);
+        int first = fileGiven ? 2 : 1;
+        if ((args.length - first) % 2 != 0) {
+            displayInvalidBatchArguments();
+            System.exit(1);
+        }
+        int threads = 1;
+        for (int i = first; i < args.length; i += 2) {
+            if (args[i].equalsIgnoreCase(THREADS_SWITCH)) {
+                threads = parseNumber(args[i + 1], 1, INVALID_THREAD_COUNT);
+            } else {
+                displayInvalidBatchArguments();
+                System.exit(1);
+            }
+        }
+        boolean standardInput = !fileGiven || args[1].equals(EMPTY_INPUT);
+        try (BufferedReader input = standardInput
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            // Standard output is flushed but left open
+            Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            BatchResult result = BatchProcessor.run(input, output, threads);
+            displayBatchResult(result.getPositions(), result.getErrors(), result.getElapsedMillis(),
+                    result.getPositionsPerSecond(), result.getThreads());
+
+        } catch (IOException e) {
+            displayInvalidBatchFile(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static int parseNumber(String number, int minimum, String errorMessage) {
+        try {
+            int parsed = Integer.parseInt(number);
+            if (parsed >= minimum) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        displayInvalidNumber(errorMessage, number);
+        System.exit(1);
+        return -1;
+    }
+
+    private static void calculateMoves(ChessMoveCalculatorService service, Board board) throws InvalidFENException {
+        for (Color color : service.getCalculatedColors()) {
+            calculateMovesForColor(service, board.getSquares(), color);
         }
     }
 
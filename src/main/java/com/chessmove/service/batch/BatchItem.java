@@ -0,0 +1,53 @@
+package com.chessmove.service.batch;
+
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One input line on its way through the stages of a batch run: the parsed position, then the moves of each
+ * calculated color, then the record. An item is handed from stage to stage and only touched by one thread at a
+ * time.
+ */
+final class BatchItem {
+
+    final long sequence;
+    final int lineNumber;
+    final String line;
+    String fen;
+    ChessMoveCalculatorService service;
+    final List<Color> colors = new ArrayList<>(2);
+    final List<List<String>> moves = new ArrayList<>(2);
+    String error;
+    String record;
+    // What a stage threw for this item, or on the end marker, what ended the input early
+    Throwable failure;
+
+    BatchItem(long sequence, int lineNumber, String line) {
+        this.sequence = sequence;
+        this.lineNumber = lineNumber;
+        this.line = line;
+    }
+
+    /**
+     * Creates the marker that follows the last line of the input.
+     *
+     * @param sequence The sequence number after the one of the last line
+     * @param failure  What ended the input early, or null
+     */
+    static BatchItem end(long sequence, Throwable failure) {
+        BatchItem end = new BatchItem(sequence, 0, null);
+        end.failure = failure;
+        return end;
+    }
+
+    boolean isEnd() {
+        return line == null;
+    }
+
+    boolean isError() {
+        return error != null;
+    }
+}
@@ -0,0 +1,200 @@
+package com.chessmove.service.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Runs the stages of a batch in parallel while keeping the records in input order.
+ * <p>
+ * A reader thread numbers the non-blank input lines and puts them into the parse queue. One pool of worker threads
+ * is split between the two costly stages by what they cost: parsing takes about a fifth of the time of a position
+ * and move generation the rest, so one worker in {@value #WORKERS_PER_PARSER} parses and the others generate
+ * moves. Formatting costs a few percent and is done by the calling thread, which takes the items with their moves
+ * and writes their records. Every queue is bounded, so a slow stage or a slow output holds the stages before it
+ * back instead of letting items pile up. Since workers finish items out of order, the writer keeps the items that
+ * come early in a reorder buffer until all items before them are written; the reader stops once {@link #window}
+ * items are read but not written, which bounds the buffer as well.
+ * <p>
+ * The end of the input is marked by an item that the reader puts straight into the output queue, numbered after
+ * the last line: the writer reaches it only once every record is written. A failure anywhere, a read error or
+ * anything thrown by a stage, is carried to the writer in its item and thrown there once the records before it are
+ * written, as on the calling thread.
+ */
+final class BatchPipeline {
+
+    // The parse, move generation and output queues
+    private static final int QUEUES = 3;
+    // One worker in this many parses, the others generate moves
+    private static final int WORKERS_PER_PARSER = 5;
+
+    private final int parsers;
+    private final int generators;
+    private final int capacity;
+    private final int window;
+    private final Consumer<BatchItem> generator;
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param threads   The number of worker threads, at least 2
+     * @param capacity  The capacity of each queue, at least 1
+     * @param generator The move generation stage
+     */
+    BatchPipeline(int threads, int capacity, Consumer<BatchItem> generator) {
+        this.parsers = Math.max(1, (threads + WORKERS_PER_PARSER / 2) / WORKERS_PER_PARSER);
+        this.generators = threads - parsers;
+        this.capacity = capacity;
+        // Room for every queue to fill up, and for the items the workers are holding
+        this.window = QUEUES * capacity + threads;
+        this.generator = generator;
+    }
+
+    /**
+     * Calculates the position of every line of the input and writes their records to the output, in input order.
+     * The output is flushed at the end but not closed.
+     *
+     * @param input  The FEN strings, one per line
+     * @param output The destination of the records
+     * @return The number of positions and errors, and the elapsed time
+     * @throws IOException if the input cannot be read or the output cannot be written
+     */
+    BatchResult run(BufferedReader input, Writer output) throws IOException {
+        long start = System.nanoTime();
+        BlockingQueue<BatchItem> parseQueue = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<BatchItem> generateQueue = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<BatchItem> outputQueue = new ArrayBlockingQueue<>(capacity);
+        Semaphore inFlight = new Semaphore(window);
+
+        // Daemon threads, so that a reader blocked on standard input does not keep the JVM alive after a failure
+        ExecutorService executor = Executors.newFixedThreadPool(parsers + generators + 1, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            executor.execute(() -> read(input, parseQueue, outputQueue, inFlight));
+            for (int i = 0; i < parsers; i++) {
+                executor.execute(() -> work(parseQueue, BatchProcessor::parse, generateQueue));
+            }
+            for (int i = 0; i < generators; i++) {
+                executor.execute(() -> work(generateQueue, generator, outputQueue));
+            }
+            return write(output, outputQueue, inFlight, start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing the batch records");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void read(BufferedReader input, BlockingQueue<BatchItem> parseQueue,
+                             BlockingQueue<BatchItem> outputQueue, Semaphore inFlight) {
+        long sequence = 0;
+        Throwable failure = null;
+        try {
+            int lineNumber = 0;
+            String line;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                inFlight.acquire();
+                parseQueue.put(new BatchItem(sequence++, lineNumber, line));
+            }
+        } catch (InterruptedException e) {
+            // The writer gave up and is no longer waiting for the end marker
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Throwable e) {
+            failure = e;
+        }
+        try {
+            outputQueue.put(BatchItem.end(sequence, failure));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void work(BlockingQueue<BatchItem> from, Consumer<BatchItem> stage, BlockingQueue<BatchItem> to) {
+        try {
+            while (true) {
+                BatchItem item = from.take();
+                if (item.failure == null) {
+                    try {
+                        stage.accept(item);
+                    } catch (Throwable e) {
+                        // Passed on rather than dropped, since the writer would otherwise wait for the item forever
+                        item.failure = e;
+                    }
+                }
+                to.put(item);
+            }
+        } catch (InterruptedException e) {
+            // The run is over
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BatchResult write(Writer output, BlockingQueue<BatchItem> outputQueue, Semaphore inFlight, long start)
+            throws IOException, InterruptedException {
+        Map<Long, BatchItem> reorderBuffer = new HashMap<>();
+        long next = 0;
+        int errors = 0;
+        while (true) {
+            BatchItem item = reorderBuffer.remove(next);
+            if (item == null) {
+                item = outputQueue.take();
+                if (item.sequence != next) {
+                    reorderBuffer.put(item.sequence, item);
+                    continue;
+                }
+            }
+            if (!item.isEnd() && item.failure == null) {
+                try {
+                    BatchProcessor.format(item);
+                } catch (Throwable e) {
+                    item.failure = e;
+                }
+            }
+            if (item.isEnd() || item.failure != null) {
+                output.flush();
+                if (item.failure != null) {
+                    rethrow(item.failure);
+                }
+                return new BatchResult((int) next, errors, System.nanoTime() - start, parsers + generators);
+            }
+            output.write(item.record);
+            if (item.isError()) {
+                errors++;
+            }
+            inFlight.release();
+            next++;
+        }
+    }
+
+    private static void rethrow(Throwable failure) throws IOException {
+        if (failure instanceof IOException e) {
+            throw e;
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure instanceof Error e) {
+            throw e;
+        }
+        // Neither the reader nor the stages throw other checked exceptions
+        throw new IllegalStateException(failure);
+    }
+}
@@ -0,0 +1,191 @@
+package com.chessmove.service.batch;
+
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.Color;
+import com.chessmove.util.InvalidFENException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.chessmove.util.CalculationConstants.AUTOMATIC_DRAW;
+import static com.chessmove.util.CalculationConstants.BATCH_ERROR;
+import static com.chessmove.util.CalculationConstants.BATCH_FIELD_SEPARATOR;
+import static com.chessmove.util.CalculationConstants.BATCH_MOVE_SEPARATOR;
+import static com.chessmove.util.CalculationConstants.BATCH_OK;
+import static com.chessmove.util.CalculationConstants.CHECKMATE;
+import static com.chessmove.util.CalculationConstants.DELIMITER;
+import static com.chessmove.util.CalculationConstants.LINE_BREAK;
+import static com.chessmove.util.CalculationConstants.STALEMATE;
+import static com.chessmove.util.CalculationConstants.WHITE_SPACE;
+import static com.chessmove.util.CalculationMessage.INVALID_THREAD_COUNT;
+
+/**
+ * Calculates the moves of many positions in one run, reading one FEN string per line and writing one record per
+ * position, so that a whole file pays for the start-up and warm-up of the JVM only once.
+ * <p>
+ * Records are tab-separated and end with a line break. A valid position gives
+ * {@code <LINE> ok <FEN> <COLOR> <COUNT> <MOVES>}, with the color, move count and move list repeated when the moves
+ * of both colors are calculated; the moves are those of the single-position mode, separated by {@code ", "}, or the
+ * reason there are none (checkmate, stalemate or an automatic draw) with a count of 0. An invalid position gives
+ * {@code <LINE> error <FEN> <REASON>} and the run goes on with the next line. Line numbers start at 1 and count
+ * every input line; blank lines give no record.
+ * <p>
+ * Each position goes through three stages: {@link #parse(BatchItem) parsing}, {@link #generate(BatchItem) move
+ * generation} and {@link #format(BatchItem) formatting}. With one thread they run one after the other on the
+ * calling thread; with more, they run in a {@link BatchPipeline}, and the records are the same and in the same
+ * order. Anything a stage throws, unlike an invalid position, ends the run in either case: the records of the lines
+ * before are written and flushed, then the exception is thrown on the calling thread.
+ */
+public final class BatchProcessor {
+
+    // The capacity of each queue of the pipeline, in positions
+    static final int QUEUE_CAPACITY = 1024;
+
+    private BatchProcessor() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Calculates the position of every line of the input on the calling thread, and writes their records to the
+     * output in input order. The output is flushed at the end but not closed.
+     *
+     * @param input  The FEN strings, one per line
+     * @param output The destination of the records
+     * @return The number of positions and errors, and the elapsed time
+     * @throws IOException if the input cannot be read or the output cannot be written
+     */
+    public static BatchResult run(BufferedReader input, Writer output) throws IOException {
+        return run(input, output, 1);
+    }
+
+    /**
+     * Calculates the position of every line of the input like {@link #run(BufferedReader, Writer)}, with the given
+     * number of worker threads. The records are the same, in input order, for any thread count.
+     *
+     * @param input   The FEN strings, one per line
+     * @param output  The destination of the records
+     * @param threads The number of worker threads, at least 1
+     * @return The number of positions and errors, and the elapsed time
+     * @throws IOException if the input cannot be read or the output cannot be written
+     */
+    public static BatchResult run(BufferedReader input, Writer output, int threads) throws IOException {
+        return run(input, output, threads, BatchProcessor::generate);
+    }
+
+    /**
+     * Runs a batch with the given move generation stage, so that tests can make it fail.
+     */
+    static BatchResult run(BufferedReader input, Writer output, int threads, Consumer<BatchItem> generator)
+            throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_THREAD_COUNT, threads));
+        }
+        if (threads > 1) {
+            return new BatchPipeline(threads, QUEUE_CAPACITY, generator).run(input, output);
+        }
+        long start = System.nanoTime();
+        int positions = 0;
+        int errors = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = input.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            BatchItem item = new BatchItem(positions, lineNumber, line);
+            try {
+                parse(item);
+                generator.accept(item);
+                format(item);
+            } catch (Throwable e) {
+                // The run ends after the records before the item, as in the pipeline
+                output.flush();
+                throw e;
+            }
+            positions++;
+            if (item.isError()) {
+                errors++;
+            }
+            output.write(item.record);
+        }
+        output.flush();
+        return new BatchResult(positions, errors, System.nanoTime() - start, 1);
+    }
+
+    /**
+     * Calculates one position and formats its record.
+     *
+     * @param lineNumber The number of the input line, from 1
+     * @param line       The input line, a FEN string with any surrounding white space
+     * @return The record, ending with a line break
+     */
+    public static String calculate(int lineNumber, String line) {
+        BatchItem item = new BatchItem(0, lineNumber, line);
+        parse(item);
+        generate(item);
+        format(item);
+        return item.record;
+    }
+
+    /**
+     * Validates the FEN string of an item and sets up its position, or records why it is invalid.
+     */
+    static void parse(BatchItem item) {
+        // White space runs, tabs included, become single spaces so that the FEN stays one field
+        item.fen = String.join(DELIMITER, item.line.trim().split(WHITE_SPACE));
+        try {
+            item.service = new ChessMoveCalculatorService(item.fen);
+        } catch (InvalidFENException e) {
+            item.error = e.getMessage();
+        }
+    }
+
+    /**
+     * Generates the moves of each color calculated for a parsed item, as in the single-position mode.
+     */
+    static void generate(BatchItem item) {
+        if (item.isError()) {
+            return;
+        }
+        try {
+            for (Color color : item.service.getCalculatedColors()) {
+                item.colors.add(color);
+                item.moves.add(item.service.getMoves(item.service.getBoard().getSquares(), color));
+            }
+        } catch (InvalidFENException e) {
+            item.error = e.getMessage();
+        }
+        // The position is no longer needed, only its moves
+        item.service = null;
+    }
+
+    /**
+     * Formats the record of an item from its moves or its error.
+     */
+    static void format(BatchItem item) {
+        StringBuilder record = new StringBuilder().append(item.lineNumber).append(BATCH_FIELD_SEPARATOR);
+        if (item.isError()) {
+            record.append(BATCH_ERROR).append(BATCH_FIELD_SEPARATOR).append(item.fen)
+                    .append(BATCH_FIELD_SEPARATOR).append(item.error);
+        } else {
+            record.append(BATCH_OK).append(BATCH_FIELD_SEPARATOR).append(item.fen);
+            for (int i = 0; i < item.colors.size(); i++) {
+                List<String> moves = item.moves.get(i);
+                record.append(BATCH_FIELD_SEPARATOR).append(item.colors.get(i).getColorName())
+                        .append(BATCH_FIELD_SEPARATOR).append(hasNoMoves(moves) ? 0 : moves.size())
+                        .append(BATCH_FIELD_SEPARATOR).append(String.join(BATCH_MOVE_SEPARATOR, moves));
+            }
+        }
+        item.record = record.append(LINE_BREAK).toString();
+    }
+
+    private static boolean hasNoMoves(List<String> moves) {
+        return moves.size() == 1 && (moves.get(0).equals(CHECKMATE) || moves.get(0).equals(STALEMATE)
+                || moves.get(0).equals(AUTOMATIC_DRAW));
+    }
+}
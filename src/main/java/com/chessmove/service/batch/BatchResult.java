@@ -0,0 +1,59 @@
+package com.chessmove.service.batch;
+
+/**
+ * The outcome of a batch run: how many positions were read, how many of them could not be calculated, and the
+ * time it took.
+ */
+public class BatchResult {
+
+    private final int positions;
+    private final int errors;
+    private final long elapsedNanos;
+    private final int threads;
+
+    public BatchResult(int positions, int errors, long elapsedNanos, int threads) {
+        this.positions = positions;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the number of non-blank input lines, each of which got a record.
+     *
+     * @return The number of positions
+     */
+    public int getPositions() {
+        return positions;
+    }
+
+    /**
+     * Returns the number of positions whose record is an error record.
+     *
+     * @return The number of invalid positions
+     */
+    public int getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Returns the number of worker threads of each stage.
+     *
+     * @return The thread count
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getPositionsPerSecond() {
+        return elapsedNanos == 0 ? 0 : (long) (positions * 1_000_000_000.0 / elapsedNanos);
+    }
+}
@@ -0,0 +1,35 @@
+package com.chessmove.service.book;
+
+import com.chessmove.model.game.PackedMove;
+
+/**
+ * A move of an opening book with its weight. Moves of the same position are played in proportion to their
+ * weights; a move of weight 0 is in the book but never played.
+ */
+public class BookMove {
+
+    private final int move;
+    private final int weight;
+
+    public BookMove(int move, int weight) {
+        this.move = move;
+        this.weight = weight;
+    }
+
+    /**
+     * Returns the move as a {@link PackedMove packed move} of the position it was looked up for.
+     *
+     * @return The packed move
+     */
+    public int getMove() {
+        return move;
+    }
+
+    public String getUci() {
+        return PackedMove.toUci(move);
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,164 @@
+package com.chessmove.service.book;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
+import static com.chessmove.model.game.Bitboards.square;
+
+/**
+ * Reads the moves of a position from an opening book in the Polyglot {@code .bin} format.
+ * <p>
+ * A book is a sequence of 16-byte big-endian entries sorted by position key (see {@link PolyglotKey}): the key (8
+ * bytes), the move (2 bytes), the weight (2 bytes) and learning data (4 bytes, not used here). The file is mapped
+ * into memory read-only instead of being loaded onto the heap, and the entries of a position are found by binary
+ * search, so a lookup reads about log2(entries) entries however large the book is. Lookups are thread-safe.
+ */
+public class PolyglotBook {
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 10;
+    // Polyglot promotion pieces, from 1: knight, bishop, rook, queen
+    private static final PieceType[] PROMOTIONS = {null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK,
+            PieceType.QUEEN};
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    /**
+     * Maps a book file into memory. The mapping stays valid after the file channel is closed.
+     *
+     * @param file The book file
+     * @throws IOException if the file cannot be read, is larger than 2 GB or is not a whole number of entries
+     */
+    public PolyglotBook(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes % ENTRY_BYTES != 0 || bytes > Integer.MAX_VALUE) {
+                throw new IOException("Not a valid Polyglot book: " + file);
+            }
+            this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            this.size = (int) (bytes / ENTRY_BYTES);
+        }
+    }
+
+    /**
+     * Returns the number of entries of the book.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up the book moves of a position. Entries that are no legal move of the position, as after a key
+     * collision, are left out. The board is left unchanged.
+     *
+     * @param board The position
+     * @return The book moves, by decreasing weight and in file order for equal weights, or an empty list
+     */
+    public List<BookMove> lookup(Board board) {
+        long key = PolyglotKey.compute(board);
+        int first = firstEntry(key);
+        if (first == size || entries.getLong(first * ENTRY_BYTES) != key) {
+            return List.of();
+        }
+        MoveList legalMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), legalMoves);
+        List<BookMove> moves = new ArrayList<>();
+        for (int entry = first; entry < size && entries.getLong(entry * ENTRY_BYTES) == key; entry++) {
+            int move = toPackedMove(entries.getShort(entry * ENTRY_BYTES + MOVE_OFFSET) & 0xFFFF, legalMoves);
+            if (move != PackedMove.NONE) {
+                moves.add(new BookMove(move, entries.getShort(entry * ENTRY_BYTES + WEIGHT_OFFSET) & 0xFFFF));
+            }
+        }
+        moves.sort(Comparator.comparingInt(BookMove::getWeight).reversed());
+        return moves;
+    }
+
+    /**
+     * Picks a book move of a position at random, in proportion to the weights.
+     *
+     * @param board  The position
+     * @param random The source of randomness
+     * @return The packed move, or {@link PackedMove#NONE} if the book has no move of positive weight for it
+     */
+    public int pick(Board board, Random random) {
+        List<BookMove> moves = lookup(board);
+        int totalWeight = moves.stream().mapToInt(BookMove::getWeight).sum();
+        if (totalWeight == 0) {
+            return PackedMove.NONE;
+        }
+        int choice = random.nextInt(totalWeight);
+        for (BookMove move : moves) {
+            choice -= move.getWeight();
+            if (choice < 0) {
+                return move.getMove();
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking a book move");
+    }
+
+    // Returns the first entry whose key is not below the given key, comparing keys as unsigned numbers
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(middle * ENTRY_BYTES), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the legal move a Polyglot move stands for. Polyglot moves hold the to-file in bits 0-2, the to-rank in
+     * bits 3-5, the from-file and from-rank in bits 6-11 and the promotion piece in bits 12-14, and write castling
+     * as the king taking its own rook.
+     */
+    private static int toPackedMove(int polyglotMove, MoveList legalMoves) {
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (toPolyglot(move) == polyglotMove) {
+                return move;
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    private static int toPolyglot(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (PackedMove.moveType(move) == MoveType.CASTLING) {
+            to = square(row(to), col(to) > col(from) ? 7 : 0);
+        }
+        PieceType promotion = PackedMove.promotion(move);
+        int promotionIndex = 0;
+        for (int i = 1; i < PROMOTIONS.length; i++) {
+            if (PROMOTIONS[i] == promotion) {
+                promotionIndex = i;
+            }
+        }
+        return PolyglotKey.square(to) | PolyglotKey.square(from) << 6 | promotionIndex << 12;
+    }
+}
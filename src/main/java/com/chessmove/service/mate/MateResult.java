@@ -0,0 +1,94 @@
+package com.chessmove.service.mate;
+
+import com.chessmove.model.game.PackedMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The outcome of a mate search: the length of the shortest forced mate and a mating line, or the proof that the
+ * side to move cannot force mate within the given number of moves, with the search statistics.
+ */
+public class MateResult {
+
+    private final int maxMoves;
+    private final int mateIn;
+    private final int[] line;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final int threads;
+
+    public MateResult(int maxMoves, int mateIn, int[] line, long nodes, long elapsedNanos, int threads) {
+        this.maxMoves = maxMoves;
+        this.mateIn = mateIn;
+        this.line = Arrays.copyOf(line, line.length);
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    /**
+     * Tells whether a forced mate was found. When it was not, there is none within {@link #getMaxMoves()} moves.
+     *
+     * @return True if the side to move mates by force
+     */
+    public boolean isMate() {
+        return mateIn > 0;
+    }
+
+    public int getMaxMoves() {
+        return maxMoves;
+    }
+
+    /**
+     * Returns the number of moves of the shortest forced mate, or 0 if there is none within the searched length.
+     *
+     * @return The moves to mate
+     */
+    public int getMateIn() {
+        return mateIn;
+    }
+
+    /**
+     * Returns the mating line as {@link PackedMove packed moves}, starting with the move of the side to move and
+     * ending with the mating move. The defending moves are the ones that hold out the longest.
+     *
+     * @return The mating line, empty if there is no mate
+     */
+    public int[] getLine() {
+        return Arrays.copyOf(line, line.length);
+    }
+
+    public List<String> getLineUci() {
+        List<String> moves = new ArrayList<>(line.length);
+        for (int move : line) {
+            moves.add(PackedMove.toUci(move));
+        }
+        return moves;
+    }
+
+    public String getBestMoveUci() {
+        return line.length == 0 ? "-" : PackedMove.toUci(line[0]);
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (long) (nodes * 1_000_000_000.0 / elapsedNanos);
+    }
+}
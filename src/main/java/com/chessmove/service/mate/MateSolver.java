@@ -0,0 +1,351 @@
+package com.chessmove.service.mate;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.util.Color;
+import com.chessmove.util.MoveType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
+
+/**
+ * Solves mate-in-N problems: finds the shortest forced mate of the side to move (the attacker) within a given
+ * number of moves, or proves that there is none.
+ * <p>
+ * Unlike a best-move search, the solver does not evaluate positions: it proves. Positions with the attacker to
+ * move are OR nodes, won as soon as one move forces mate, and positions with the defender to move are AND nodes,
+ * lost for the attacker as soon as one reply escapes, so every node stops at its first decisive child. The
+ * attacker's checks are tried first, then captures, and with one move left only checks are tried at all; the
+ * defender's last chance is answered with a test for any legal move instead of the full list. Proven facts are
+ * kept in a {@link MateTable} shared by all threads, so transpositions and the later, longer iterations reuse
+ * them.
+ * <p>
+ * The length grows from one move up to N, so the first mate found is the shortest. In each iteration the root
+ * moves are proven in parallel, one task per move; when a move is proven, the tasks of the moves ordered after it
+ * give up, and the first proven move in root order is chosen, so the result does not depend on the number of
+ * threads. Draws by repetition and by the fifty-move rule are not considered.
+ */
+public final class MateSolver {
+
+    public static final int MAX_MOVES = 15;
+
+    private static final int TABLE_BITS = 20;
+    private static final int ABORT_CHECK_MASK = 1023;
+    private static final int CHECK_ORDER = 2;
+    private static final int CAPTURE_ORDER = 1;
+
+    private MateSolver() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Searches the board for a forced mate by its side to move. The board is left unchanged.
+     *
+     * @param board   The position to solve
+     * @param moves   The maximum number of moves of the mate, between 1 and {@value #MAX_MOVES}
+     * @param threads The number of threads, at least 1
+     * @return The shortest mate and its line, or a result without mate if there is none within the given length
+     */
+    public static MateResult run(Board board, int moves, int threads) {
+        long start = System.nanoTime();
+        MateTable table = new MateTable(TABLE_BITS);
+        Prover main = new Prover(board.copy(), table, null, 0);
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(main.board, main.board.getSideToMove(), rootMoves);
+        main.orderAttacks(rootMoves, false);
+
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            long nodes = 0;
+            for (int length = 1; length <= moves; length++) {
+                int solved;
+                if (pool == null) {
+                    solved = main.solveRoot(rootMoves, length);
+                } else {
+                    AtomicInteger firstSolved = new AtomicInteger(Integer.MAX_VALUE);
+                    List<RootTask> tasks = new ArrayList<>(rootMoves.size());
+                    for (int i = 0; i < rootMoves.size(); i++) {
+                        tasks.add(new RootTask(board, rootMoves.get(i), i, length, table, firstSolved));
+                    }
+                    pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+                    for (RootTask task : tasks) {
+                        nodes += task.nodes;
+                    }
+                    solved = firstSolved.get() < Integer.MAX_VALUE ? firstSolved.get() : -1;
+                }
+                if (solved >= 0) {
+                    int[] line = main.line(rootMoves.get(solved), length);
+                    return new MateResult(moves, length, line, nodes + main.nodes, System.nanoTime() - start,
+                            threads);
+                }
+            }
+            return new MateResult(moves, 0, new int[0], nodes + main.nodes, System.nanoTime() - start, threads);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static final class RootTask extends RecursiveTask<Boolean> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Board board;
+        private final int move;
+        private final int index;
+        private final int length;
+        private final transient MateTable table;
+        private final AtomicInteger firstSolved;
+        private long nodes;
+
+        RootTask(Board board, int move, int index, int length, MateTable table, AtomicInteger firstSolved) {
+            this.board = board;
+            this.move = move;
+            this.index = index;
+            this.length = length;
+            this.table = table;
+            this.firstSolved = firstSolved;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (firstSolved.get() < index) {
+                return false;
+            }
+            Board child = board.copy();
+            child.makeMove(move);
+            Prover prover = new Prover(child, table, firstSolved, index);
+            boolean mate = prover.defend(length, 0);
+            nodes = prover.nodes;
+            if (mate && !prover.aborted) {
+                firstSolved.accumulateAndGet(index, Math::min);
+            }
+            return mate;
+        }
+    }
+
+    /**
+     * The AND/OR search of one thread, on its own board.
+     */
+    private static final class Prover {
+
+        private final Board board;
+        private final MateTable table;
+        // The root task proving a move ordered after an already proven one gives up
+        private final AtomicInteger firstSolved;
+        private final int index;
+        private final MoveList[] moveLists = new MoveList[2 * MAX_MOVES + 1];
+        private final int[] order = new int[MoveList.MAX_MOVES];
+        private long nodes;
+        private boolean aborted;
+
+        Prover(Board board, MateTable table, AtomicInteger firstSolved, int index) {
+            this.board = board;
+            this.table = table;
+            this.firstSolved = firstSolved;
+            this.index = index;
+            for (int i = 0; i < moveLists.length; i++) {
+                moveLists[i] = new MoveList();
+            }
+        }
+
+        // Proves the root moves in order, returning the index of the first that forces mate, or -1
+        int solveRoot(MoveList rootMoves, int length) {
+            for (int i = 0; i < rootMoves.size(); i++) {
+                board.makeMove(rootMoves.get(i));
+                boolean mate = defend(length, 0);
+                board.unmakeMove(rootMoves.get(i));
+                if (mate) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Tells whether the attacker, to move, mates within the given number of moves.
+         */
+        boolean attack(int moves, int ply) {
+            if (countNode()) {
+                return false;
+            }
+            long key = board.getZobristKey();
+            long entry = table.probe(key);
+            int mateWithin = table.mateWithin(entry);
+            if (mateWithin != 0 && mateWithin <= moves) {
+                return true;
+            }
+            if (table.noMateWithin(entry) >= moves) {
+                return false;
+            }
+
+            MoveList moveList = moveLists[ply];
+            MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moveList);
+            // With one move left, only a check can mate
+            orderAttacks(moveList, moves == 1);
+            boolean mate = false;
+            for (int i = 0; i < moveList.size() && !mate; i++) {
+                int move = moveList.get(i);
+                board.makeMove(move);
+                mate = defend(moves, ply + 1);
+                board.unmakeMove(move);
+            }
+            if (aborted) {
+                return false;
+            }
+            if (mate) {
+                table.storeMate(key, moves);
+            } else {
+                table.storeNoMate(key, moves);
+            }
+            return mate;
+        }
+
+        /**
+         * Tells whether every reply of the defender, to move, runs into a mate within the given number of moves,
+         * counting the attacker's move just made.
+         */
+        boolean defend(int moves, int ply) {
+            if (countNode()) {
+                return false;
+            }
+            Color color = board.getSideToMove();
+            MoveList moveList = moveLists[ply];
+            if (moves == 1) {
+                return !MoveGenerator.hasLegalMove(board, color, moveList) && isInCheck(color);
+            }
+            MoveGenerator.generateLegalMoves(board, color, moveList);
+            if (moveList.isEmpty()) {
+                return isInCheck(color);
+            }
+            for (int i = 0; i < moveList.size(); i++) {
+                int move = moveList.get(i);
+                board.makeMove(move);
+                boolean mate = attack(moves - 1, ply + 1);
+                board.unmakeMove(move);
+                if (!mate) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Builds the line of a proven mate: the defender always picks the reply that delays mate the longest, and
+         * the attacker answers with the first move that mates in time. The board is left unchanged.
+         */
+        int[] line(int firstMove, int length) {
+            int[] line = new int[2 * length - 1];
+            int plies = 0;
+            line[plies++] = firstMove;
+            board.makeMove(firstMove);
+            int movesLeft = length - 1;
+            while (movesLeft > 0) {
+                MoveList replies = new MoveList();
+                MoveGenerator.generateLegalMoves(board, board.getSideToMove(), replies);
+                int reply = replies.get(0);
+                int replyMoves = 0;
+                for (int i = 0; i < replies.size(); i++) {
+                    board.makeMove(replies.get(i));
+                    int mateMoves = shortestMate(movesLeft);
+                    board.unmakeMove(replies.get(i));
+                    if (mateMoves > replyMoves) {
+                        reply = replies.get(i);
+                        replyMoves = mateMoves;
+                    }
+                }
+                line[plies++] = reply;
+                board.makeMove(reply);
+
+                MoveList attacks = new MoveList();
+                MoveGenerator.generateLegalMoves(board, board.getSideToMove(), attacks);
+                orderAttacks(attacks, replyMoves == 1);
+                int attack = PackedMove.NONE;
+                for (int i = 0; i < attacks.size() && attack == PackedMove.NONE; i++) {
+                    board.makeMove(attacks.get(i));
+                    if (defend(replyMoves, 0)) {
+                        attack = attacks.get(i);
+                    }
+                    board.unmakeMove(attacks.get(i));
+                }
+                line[plies++] = attack;
+                board.makeMove(attack);
+                movesLeft = replyMoves - 1;
+            }
+            for (int i = plies - 1; i >= 0; i--) {
+                board.unmakeMove(line[i]);
+            }
+            return Arrays.copyOf(line, plies);
+        }
+
+        private int shortestMate(int maxMoves) {
+            for (int moves = 1; moves <= maxMoves; moves++) {
+                if (attack(moves, 0)) {
+                    return moves;
+                }
+            }
+            throw new IllegalStateException("No mate within " + maxMoves + " moves in a proven line");
+        }
+
+        /**
+         * Sorts the attacker's moves: checks first, then captures and promotions, then the rest, each group in
+         * generation order. Only the checks are kept when asked.
+         */
+        void orderAttacks(MoveList moves, boolean checksOnly) {
+            Color defender = Color.getOppositeColor(board.getSideToMove());
+            int count = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                int moveOrder = isCapture(move) ? CAPTURE_ORDER : 0;
+                board.makeMove(move);
+                if (isInCheck(defender)) {
+                    moveOrder = CHECK_ORDER;
+                }
+                board.unmakeMove(move);
+                if (checksOnly && moveOrder != CHECK_ORDER) {
+                    continue;
+                }
+                // Insertion sort, stable for equal order
+                int j = count++;
+                while (j > 0 && order[j - 1] < moveOrder) {
+                    moves.set(j, moves.get(j - 1));
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                moves.set(j, move);
+                order[j] = moveOrder;
+            }
+            moves.truncate(count);
+        }
+
+        private boolean isCapture(int move) {
+            int to = PackedMove.to(move);
+            return board.getPieceAt(row(to), col(to)) != null || PackedMove.promotion(move) != null
+                    || PackedMove.moveType(move) == MoveType.EN_PASSANT;
+        }
+
+        private boolean isInCheck(Color color) {
+            return board.isSquareAttacked(board.getKingSquare(color), Color.getOppositeColor(color));
+        }
+
+        // Counts a node and tells whether the search has to give up
+        private boolean countNode() {
+            nodes++;
+            if (firstSolved != null && (nodes & ABORT_CHECK_MASK) == 0 && firstSolved.get() < index) {
+                aborted = true;
+            }
+            return aborted;
+        }
+    }
+}
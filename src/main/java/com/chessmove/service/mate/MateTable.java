@@ -0,0 +1,59 @@
+package com.chessmove.service.mate;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * What the mate search has proven about positions with the attacker to move, shared by all solver threads.
+ * <p>
+ * Each entry is a single long: the upper 48 bits of the Zobrist key, the number of moves within which a mate was
+ * proven (bits 8-15, 0 if none) and the number of moves within which mate was proven impossible (bits 0-7). Both
+ * facts stay true for longer and shorter searches respectively, so they can be reused across the iterations of
+ * the solver. A single long is written atomically, so threads never see a half-written entry; when two threads
+ * store the same position at once, one of the two facts may be lost, which only costs a search.
+ */
+class MateTable {
+
+    private static final long KEY_MASK = ~0xFFFFL;
+
+    private final AtomicLongArray entries;
+    private final int indexMask;
+
+    MateTable(int bits) {
+        this.entries = new AtomicLongArray(1 << bits);
+        this.indexMask = (1 << bits) - 1;
+    }
+
+    /**
+     * Returns the number of moves within which the position was proven to be mate, or 0 if unknown.
+     */
+    int mateWithin(long entry) {
+        return (int) (entry >>> 8) & 0xFF;
+    }
+
+    /**
+     * Returns the number of moves within which the position was proven not to be mate, or 0 if unknown.
+     */
+    int noMateWithin(long entry) {
+        return (int) entry & 0xFF;
+    }
+
+    long probe(long key) {
+        long entry = entries.getOpaque((int) key & indexMask);
+        return (entry & KEY_MASK) == (key & KEY_MASK) ? entry : 0;
+    }
+
+    void storeMate(long key, int moves) {
+        long entry = probe(key);
+        int mateWithin = mateWithin(entry);
+        if (mateWithin == 0 || moves < mateWithin) {
+            entries.setOpaque((int) key & indexMask, key & KEY_MASK | (long) moves << 8 | noMateWithin(entry));
+        }
+    }
+
+    void storeNoMate(long key, int moves) {
+        long entry = probe(key);
+        if (moves > noMateWithin(entry)) {
+            entries.setOpaque((int) key & indexMask, key & KEY_MASK | (long) mateWithin(entry) << 8 | moves);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.chessmove.service.perft;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs perft on a {@link ForkJoinPool}.
+ * <p>
+ * The tree is split into one task per root move, and each root task splits again into one task per second-ply
+ * move when enough depth remains below it, so there are enough tasks for idle workers to steal even when a few
+ * root moves own most of the tree. Every task works on its own copy of the board, so no board state is shared
+ * between threads. Results are joined in move generation order, which makes the divide output identical to the
+ * single-threaded {@link Perft}. A {@link PerftHashTable} passed in is shared by all workers.
+ */
+public final class ParallelPerft {
+
+    // Second-ply subtrees are only split off when at least this many plies remain below them
+    private static final int SPLIT_DEPTH = 3;
+
+    private ParallelPerft() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Runs perft on the board for its side to move using the given number of worker threads.
+     * The board is left unchanged.
+     *
+     * @param board   The position to count from
+     * @param depth   The depth in plies, at least 0
+     * @param threads The number of worker threads, at least 1
+     * @param table   The table of subtree counts shared by the workers, or null to count every subtree
+     * @return The perft result
+     */
+    public static PerftResult run(Board board, int depth, int threads, PerftHashTable table) {
+        if (depth < 2 || threads == 1) {
+            return Perft.run(board, depth, threads, table);
+        }
+        long start = System.nanoTime();
+
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), rootMoves);
+        List<SubtreeTask> tasks = new ArrayList<>(rootMoves.size());
+        for (int i = 0; i < rootMoves.size(); i++) {
+            tasks.add(new SubtreeTask(afterMove(board, rootMoves.get(i)), depth - 1, true, table));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        } finally {
+            pool.shutdown();
+        }
+
+        Map<String, Long> divide = new LinkedHashMap<>();
+        long nodes = 0;
+        for (int i = 0; i < rootMoves.size(); i++) {
+            long moveNodes = tasks.get(i).join();
+            divide.put(PackedMove.toUci(rootMoves.get(i)), moveNodes);
+            nodes += moveNodes;
+        }
+        return new PerftResult(depth, nodes, divide, System.nanoTime() - start, threads, table);
+    }
+
+    private static Board afterMove(Board board, int move) {
+        Board child = board.copy();
+        child.makeMove(move);
+        return child;
+    }
+
+    private static final class SubtreeTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Board board;
+        private final int depth;
+        private final boolean split;
+        private final transient PerftHashTable table;
+
+        SubtreeTask(Board board, int depth, boolean split, PerftHashTable table) {
+            this.board = board;
+            this.depth = depth;
+            this.split = split;
+            this.table = table;
+        }
+
+        @Override
+        protected Long compute() {
+            if (!split || depth < SPLIT_DEPTH) {
+                return Perft.countNodes(board, board.getSideToMove(), depth, Perft.createMoveLists(depth), table);
+            }
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+            List<SubtreeTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                children.add(new SubtreeTask(afterMove(board, moves.get(i)), depth - 1, false, table));
+            }
+            long nodes = 0;
+            for (SubtreeTask child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+}
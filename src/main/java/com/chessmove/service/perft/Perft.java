@@ -0,0 +1,122 @@
+package com.chessmove.service.perft;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.util.Color;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree of a position to a fixed depth ("perft"). The counts of the
+ * standard test positions are well known, so perft verifies the move generator and measures its speed.
+ * <p>
+ * Moves are made and taken back on the board in place, with one reusable move list per ply. At the last ply the
+ * legal moves are counted without being made ("bulk counting").
+ */
+public final class Perft {
+
+    private Perft() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Runs perft on the board for its side to move, also recording the node count below each root move.
+     * The board is left unchanged.
+     *
+     * @param board The position to count from
+     * @param depth The depth in plies, at least 0
+     * @return The perft result
+     */
+    public static PerftResult run(Board board, int depth) {
+        return run(board, depth, null);
+    }
+
+    /**
+     * Runs perft like {@link #run(Board, int)}, reusing the node counts of transposed subtrees from the hash table.
+     *
+     * @param board The position to count from
+     * @param depth The depth in plies, at least 0
+     * @param table The table of subtree counts, or null to count every subtree
+     * @return The perft result
+     */
+    public static PerftResult run(Board board, int depth, PerftHashTable table) {
+        return run(board, depth, 1, table);
+    }
+
+    // The thread count is only recorded, for the parallel runner falling back to a single thread
+    static PerftResult run(Board board, int depth, int threads, PerftHashTable table) {
+        long start = System.nanoTime();
+        Map<String, Long> divide = new LinkedHashMap<>();
+        long nodes;
+        if (depth == 0) {
+            nodes = 1;
+        } else {
+            MoveList[] lists = createMoveLists(depth);
+            MoveList rootMoves = lists[depth - 1];
+            Color color = board.getSideToMove();
+            MoveGenerator.generateLegalMoves(board, color, rootMoves);
+            nodes = 0;
+            for (int i = 0; i < rootMoves.size(); i++) {
+                int move = rootMoves.get(i);
+                board.makeMove(move);
+                long moveNodes = countNodes(board, Color.getOppositeColor(color), depth - 1, lists, table);
+                board.unmakeMove(move);
+                divide.put(PackedMove.toUci(move), moveNodes);
+                nodes += moveNodes;
+            }
+        }
+        return new PerftResult(depth, nodes, divide, System.nanoTime() - start, threads, table);
+    }
+
+    /**
+     * Counts the leaf nodes below the position for the given side to move. Subtrees of at least two plies are
+     * looked up in and stored to the hash table, if there is one; shallower ones are cheaper to count again.
+     *
+     * @param board The position to count from; it is restored before returning
+     * @param color The color to move
+     * @param depth The remaining depth in plies
+     * @param lists One move list per remaining ply, indexed by {@code depth - 1}
+     * @param table The table of subtree counts, or null
+     * @return The number of leaf nodes
+     */
+    static long countNodes(Board board, Color color, int depth, MoveList[] lists, PerftHashTable table) {
+        if (depth == 0) {
+            return 1;
+        }
+        boolean hashed = table != null && depth > 1;
+        if (hashed) {
+            long cached = table.probe(board.getZobristKey(), depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+        MoveList moves = lists[depth - 1];
+        MoveGenerator.generateLegalMoves(board, color, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        Color opponent = Color.getOppositeColor(color);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            nodes += countNodes(board, opponent, depth - 1, lists, table);
+            board.unmakeMove(move);
+        }
+        if (hashed) {
+            table.store(board.getZobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    static MoveList[] createMoveLists(int depth) {
+        MoveList[] lists = new MoveList[depth];
+        for (int i = 0; i < depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+}
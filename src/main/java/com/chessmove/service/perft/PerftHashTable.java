@@ -0,0 +1,89 @@
+package com.chessmove.service.perft;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of subtree node counts, keyed by the Zobrist key of a position and the remaining depth.
+ * <p>
+ * The table can be shared by several threads without locks. Each entry is two longs: the data (the node count and
+ * the depth) and the key XOR-ed with the data. An entry only matches when the stored key XOR the stored data gives
+ * back the probed key, so an entry torn by two threads writing at once reads as a miss instead of a wrong count.
+ * A new entry always replaces the old one in its slot.
+ */
+public class PerftHashTable {
+
+    // 2^29 entries of two longs fill the largest power-of-two long array
+    public static final int MAX_MEGABYTES = 1 << 13;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int DEPTH_BITS = 8;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+    // Spreads the depths of the same position over different slots
+    private static final long DEPTH_MIX = 0x9E3779B97F4A7C15L;
+
+    private final long[] entries;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a table of at most the given size. The number of entries is rounded down to a power of two.
+     *
+     * @param megabytes The size of the table in megabytes, between 1 and {@value #MAX_MEGABYTES}
+     */
+    public PerftHashTable(int megabytes) {
+        if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+            throw new IllegalArgumentException("The table size must be between 1 and " + MAX_MEGABYTES + " MB");
+        }
+        int size = Integer.highestOneBit((int) ((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY));
+        this.entries = new long[size * 2];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Looks up the node count of a subtree.
+     *
+     * @param key   The Zobrist key of the position
+     * @param depth The remaining depth below the position
+     * @return The node count, or -1 if it is not in the table
+     */
+    public long probe(long key, int depth) {
+        long hash = key + depth * DEPTH_MIX;
+        int slot = (int) (hash & mask) << 1;
+        long storedKey = entries[slot];
+        long data = entries[slot + 1];
+        if ((storedKey ^ data) == hash && (data & DEPTH_MASK) == depth) {
+            hits.increment();
+            return data >>> DEPTH_BITS;
+        }
+        misses.increment();
+        return -1;
+    }
+
+    /**
+     * Stores the node count of a subtree.
+     *
+     * @param key   The Zobrist key of the position
+     * @param depth The remaining depth below the position, below 256
+     * @param nodes The node count, below 2^56
+     */
+    public void store(long key, int depth, long nodes) {
+        long hash = key + depth * DEPTH_MIX;
+        int slot = (int) (hash & mask) << 1;
+        long data = nodes << DEPTH_BITS | depth;
+        entries[slot] = hash ^ data;
+        entries[slot + 1] = data;
+    }
+
+    public int size() {
+        return mask + 1;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,79 @@
+package com.chessmove.service.perft;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The outcome of a perft run: the number of leaf nodes of the legal move tree, the node count below each root
+ * move (the "divide") and the time it took.
+ */
+public class PerftResult {
+
+    private final int depth;
+    private final long nodes;
+    private final Map<String, Long> divide;
+    private final long elapsedNanos;
+    private final int threads;
+    private final boolean hashed;
+    private final long hashHits;
+    private final long hashMisses;
+
+    public PerftResult(int depth, long nodes, Map<String, Long> divide, long elapsedNanos, int threads,
+                       PerftHashTable table) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.divide = Collections.unmodifiableMap(new LinkedHashMap<>(divide));
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+        this.hashed = table != null;
+        this.hashHits = hashed ? table.getHits() : 0;
+        this.hashMisses = hashed ? table.getMisses() : 0;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the node count below each root move, keyed by the move in UCI notation (e.g. {@code e2e4}),
+     * in generation order.
+     *
+     * @return The divide counts
+     */
+    public Map<String, Long> getDivide() {
+        return divide;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isHashed() {
+        return hashed;
+    }
+
+    public long getHashHits() {
+        return hashHits;
+    }
+
+    public long getHashMisses() {
+        return hashMisses;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (long) (nodes * 1_000_000_000.0 / elapsedNanos);
+    }
+}
@@ -0,0 +1,24 @@
+package com.chessmove.service.search;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.PieceSquareTables;
+import com.chessmove.util.Color;
+
+/**
+ * Static evaluation of a position, in centipawns from the point of view of the side to move.
+ * <p>
+ * The evaluation is material and piece placement, tapered from middlegame to endgame values as pieces are
+ * traded (see {@link PieceSquareTables}). The board keeps the sums up to date as moves are made and unmade, so
+ * evaluating a leaf does not scan the board.
+ */
+public final class Evaluator {
+
+    private Evaluator() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static int evaluate(Board board) {
+        int score = board.getPieceSquareScore();
+        return board.getSideToMove() == Color.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,76 @@
+package com.chessmove.service.search;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.PackedMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Searches with several threads using Lazy SMP.
+ * <p>
+ * Every thread runs its own {@link Searcher} on its own copy of the board, from the same root, and they cooperate only
+ * through the shared {@link TranspositionTable}: what one thread stores, the others find, so they soon spread over
+ * different parts of the tree. To desynchronise them further, helpers with an odd index search one ply deeper than the
+ * main searcher in each iteration, and every helper tries the quiet moves of the root in a different order, rotated by
+ * its index, so that no two threads walk the same tree in the same order. The node limit counts the nodes of all
+ * threads, and the first thread to reach a limit stops the others. The result is that of the thread with the deepest
+ * completed iteration, the main thread winning ties.
+ */
+public final class LazySmpSearch {
+
+    private LazySmpSearch() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Searches the board for its side to move with the given number of threads. The board is left unchanged.
+     *
+     * @param board    The position to search
+     * @param limits   The depth, node and time limits of the search
+     * @param features The pruning and move ordering techniques to use
+     * @param table    The transposition table shared by the threads, or null to search without one
+     * @param threads  The number of threads, at least 1
+     * @return The chosen result, with the nodes of all threads
+     */
+    public static SearchResult run(Board board, SearchLimits limits, Set<SearchFeature> features,
+                                   TranspositionTable table, int threads) {
+        if (threads == 1) {
+            return new Searcher(board.copy(), limits, features, table).search();
+        }
+        long start = System.nanoTime();
+        AtomicBoolean stopSignal = new AtomicBoolean();
+        AtomicLong groupNodes = new AtomicLong();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<ForkJoinTask<SearchResult>> tasks = new ArrayList<>(threads);
+        try {
+            for (int helper = 0; helper < threads; helper++) {
+                Searcher searcher = new Searcher(board.copy(), limits, features, table, helper, stopSignal, groupNodes);
+                tasks.add(pool.submit(searcher::search));
+            }
+            // The helpers keep searching until the main searcher is done
+            SearchResult best = tasks.get(0).join();
+            stopSignal.set(true);
+
+            long nodes = best.getNodes();
+            for (int helper = 1; helper < threads; helper++) {
+                SearchResult result = tasks.get(helper).join();
+                nodes += result.getNodes();
+                if (result.getDepth() > best.getDepth() && result.getBestMove() != PackedMove.NONE) {
+                    best = result;
+                }
+            }
+            return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(),
+                    best.getPrincipalVariation(), nodes, System.nanoTime() - start, threads);
+        } finally {
+            stopSignal.set(true);
+            pool.shutdown();
+        }
+    }
+}
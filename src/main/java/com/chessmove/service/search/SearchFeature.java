@@ -0,0 +1,67 @@
+package com.chessmove.service.search;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The pruning and move ordering techniques of the {@link Searcher}, each of which can be switched off to measure
+ * what it contributes. With none of them, the searcher is a plain alpha-beta search with captures ordered first.
+ */
+public enum SearchFeature {
+
+    /**
+     * Principal variation search: after the first move, the others are only tested with a null window to prove
+     * they are not better, and searched again with the full window when they are.
+     */
+    PRINCIPAL_VARIATION_SEARCH,
+
+    /**
+     * Aspiration windows: from the fourth iteration on, the root is searched with a narrow window around the
+     * previous score, widened only when the score falls outside. Not one of the {@link #defaults()}: it saves at
+     * most a few percent of the nodes at the depths this search reaches, which the re-searches eat up in time.
+     */
+    ASPIRATION_WINDOWS,
+
+    /**
+     * Null-move pruning: when passing the turn still leaves the side to move above beta in a reduced search, the
+     * node is cut off without trying any move. Skipped in check and without pieces other than pawns (zugzwang).
+     */
+    NULL_MOVE_PRUNING,
+
+    /**
+     * Late-move reductions: quiet moves late in the move order are searched less deep, and again at full depth
+     * only when they turn out to be better than expected.
+     */
+    LATE_MOVE_REDUCTIONS,
+
+    /**
+     * Killer moves: the two most recent quiet moves that caused a cutoff at the same ply are tried right after
+     * the captures.
+     */
+    KILLER_MOVES,
+
+    /**
+     * History heuristic: the remaining quiet moves are ordered by how often the same from and to squares caused
+     * a cutoff anywhere in the tree, weighted by the depth.
+     */
+    HISTORY_HEURISTIC;
+
+    /**
+     * Returns the features the search uses unless told otherwise: all of them but aspiration windows.
+     *
+     * @return A new, modifiable set
+     */
+    public static Set<SearchFeature> defaults() {
+        Set<SearchFeature> features = all();
+        features.remove(ASPIRATION_WINDOWS);
+        return features;
+    }
+
+    public static Set<SearchFeature> all() {
+        return EnumSet.allOf(SearchFeature.class);
+    }
+
+    public static Set<SearchFeature> none() {
+        return EnumSet.noneOf(SearchFeature.class);
+    }
+}
@@ -0,0 +1,39 @@
+package com.chessmove.service.search;
+
+/**
+ * Limits of a search. The search stops at whichever limit is reached first; a limit of 0 means no limit on that
+ * resource. Iterative deepening never goes beyond {@link #MAX_DEPTH}.
+ */
+public class SearchLimits {
+
+    public static final int MAX_DEPTH = 64;
+
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+
+    public SearchLimits(int depth, long nodes, long timeMillis) {
+        if (depth < 0 || nodes < 0 || timeMillis < 0) {
+            throw new IllegalArgumentException("Search limits must not be negative");
+        }
+        this.depth = depth == 0 || depth > MAX_DEPTH ? MAX_DEPTH : depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+}
@@ -0,0 +1,131 @@
+package com.chessmove.service.search;
+
+import com.chessmove.model.game.PackedMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.chessmove.service.search.Searcher.MATE_SCORE;
+import static com.chessmove.service.search.Searcher.MAX_PLY;
+
+/**
+ * The outcome of a search: the best move and its score from the point of view of the side to move, the principal
+ * variation, the deepest completed iteration and the search statistics.
+ */
+public class SearchResult {
+
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final int[] principalVariation;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final int threads;
+
+    public SearchResult(int bestMove, int score, int depth, int[] principalVariation, long nodes, long elapsedNanos) {
+        this(bestMove, score, depth, principalVariation, nodes, elapsedNanos, 1);
+    }
+
+    public SearchResult(int bestMove, int score, int depth, int[] principalVariation, long nodes, long elapsedNanos,
+                        int threads) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = Arrays.copyOf(principalVariation, principalVariation.length);
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the best move as a {@link PackedMove packed move}, or {@link PackedMove#NONE} when the side to move
+     * has no legal move.
+     *
+     * @return The best move
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public String getBestMoveUci() {
+        return bestMove == PackedMove.NONE ? "-" : PackedMove.toUci(bestMove);
+    }
+
+    /**
+     * Returns the score in centipawns from the point of view of the side to move. Mate scores are close to
+     * {@code ±MATE_SCORE}, see {@link #isMate()}.
+     *
+     * @return The score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= MATE_SCORE - MAX_PLY;
+    }
+
+    /**
+     * Returns the number of moves to mate, negative when the side to move is getting mated, or 0 if the score is
+     * not a mate score.
+     *
+     * @return The moves to mate
+     */
+    public int getMateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        return score > 0 ? (MATE_SCORE - score + 1) / 2 : -(MATE_SCORE + score) / 2;
+    }
+
+    /**
+     * Returns the score in the usual engine notation, e.g. {@code cp 35} or {@code mate 3}.
+     *
+     * @return The score text
+     */
+    public String getScoreText() {
+        return isMate() ? "mate " + getMateIn() : "cp " + score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int[] getPrincipalVariation() {
+        return Arrays.copyOf(principalVariation, principalVariation.length);
+    }
+
+    public List<String> getPrincipalVariationUci() {
+        List<String> moves = new ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) {
+            moves.add(PackedMove.toUci(move));
+        }
+        return moves;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Returns the number of threads that searched, see {@link LazySmpSearch}. The node count is their total.
+     *
+     * @return The thread count
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (long) (nodes * 1_000_000_000.0 / elapsedNanos);
+    }
+}
@@ -0,0 +1,528 @@
+package com.chessmove.service.search;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.model.game.StaticExchange;
+import com.chessmove.model.piece.Piece;
+import com.chessmove.util.Color;
+import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
+import static com.chessmove.util.CalculationConstants.FIFTY_MOVE_RULE_PLIES;
+
+/**
+ * Negamax alpha-beta search with iterative deepening.
+ * <p>
+ * Each iteration searches one ply deeper than the previous one and starts with the previous best move, which both
+ * improves move ordering and leaves a complete result to fall back on when a limit stops the search halfway
+ * through an iteration. Captures are tried first, most valuable victim first, except those that lose material
+ * according to {@link StaticExchange static exchange evaluation}, which come last. At the horizon, a quiescence
+ * search goes on with captures and promotions only, until the position is quiet: the side to move may stand pat
+ * on the static evaluation instead of capturing, losing captures are not searched at all, and in check every
+ * evasion is searched. The principal variation is collected in a triangular table. On top of this, the
+ * {@link SearchFeature search features} prune and reorder the tree; the {@link SearchFeature#defaults() default
+ * ones} are enabled unless another set is given.
+ * <p>
+ * With a {@link TranspositionTable transposition table}, every node stores its score and best move, positions
+ * reached again with a sufficient depth return the stored score when its bound allows it, and the stored best move
+ * is tried first. The table may be shared with other searchers; its owner calls
+ * {@link TranspositionTable#newSearch()} between searches. A searcher works on its own board and is not
+ * thread-safe.
+ */
+public class Searcher {
+
+    public static final int MATE_SCORE = 32_000;
+    public static final int MAX_PLY = 128;
+
+    private static final int INFINITY = 32_500;
+    private static final int DRAW_SCORE = 0;
+    // The clock and the node limit are checked every this many nodes (minus one, as a mask)
+    private static final int LIMIT_CHECK_MASK = 1023;
+
+    // Move ordering: the previous best move, the stored best move, captures and promotions, killers, then quiet
+    // moves by history
+    private static final int CAPTURE_BONUS = 2_000_000;
+    private static final int FIRST_KILLER_BONUS = 1_000_000;
+    private static final int SECOND_KILLER_BONUS = 900_000;
+    private static final int HISTORY_LIMIT = 800_000;
+    private static final int LOSING_CAPTURE_BONUS = -1_000_000;
+
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int LATE_MOVE_MIN_DEPTH = 3;
+    private static final int LATE_MOVE_INDEX = 3;
+
+    private final Board board;
+    private final SearchLimits limits;
+    private final TranspositionTable table;
+    // Lazy SMP: the index of this searcher in its group (0 for the main one), the stop signal and node count of
+    // the group
+    private final int helper;
+    private final AtomicBoolean stopSignal;
+    private final AtomicLong groupNodes;
+    private final EnumSet<SearchFeature> features;
+    private final boolean principalVariationSearch;
+    private final boolean aspirationWindows;
+    private final boolean nullMovePruning;
+    private final boolean lateMoveReductions;
+    private final boolean killerMoves;
+    private final boolean historyHeuristic;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] moveScores = new int[MAX_PLY][MoveList.MAX_MOVES];
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final int[][] killers = new int[MAX_PLY][2];
+    // Cutoff counts of quiet moves, by color, from-square and to-square
+    private final int[][][] history = new int[2][64][64];
+
+    private long nodes;
+    private long reportedNodes;
+    private long deadline;
+    private boolean stopped;
+    private int rootBestMove;
+
+    public Searcher(Board board, SearchLimits limits) {
+        this(board, limits, SearchFeature.defaults());
+    }
+
+    public Searcher(Board board, SearchLimits limits, Set<SearchFeature> features) {
+        this(board, limits, features, null);
+    }
+
+    /**
+     * Creates a searcher.
+     *
+     * @param board    The board to search; it is changed during the search and restored at the end
+     * @param limits   The depth, node and time limits of the search
+     * @param features The pruning and move ordering techniques to use
+     * @param table    The transposition table to use, or null to search without one
+     */
+    public Searcher(Board board, SearchLimits limits, Set<SearchFeature> features, TranspositionTable table) {
+        this(board, limits, features, table, 0, new AtomicBoolean(), null);
+    }
+
+    // A searcher of a Lazy SMP group; helpers with an odd index search one ply deeper than the main searcher, and
+    // every helper tries the quiet root moves in an order of its own
+    Searcher(Board board, SearchLimits limits, Set<SearchFeature> features, TranspositionTable table, int helper,
+             AtomicBoolean stopSignal, AtomicLong groupNodes) {
+        this.board = board;
+        this.limits = limits;
+        this.table = table;
+        this.helper = helper;
+        this.stopSignal = stopSignal;
+        this.groupNodes = groupNodes;
+        this.features = EnumSet.noneOf(SearchFeature.class);
+        this.features.addAll(features);
+        this.principalVariationSearch = features.contains(SearchFeature.PRINCIPAL_VARIATION_SEARCH);
+        this.aspirationWindows = features.contains(SearchFeature.ASPIRATION_WINDOWS);
+        this.nullMovePruning = features.contains(SearchFeature.NULL_MOVE_PRUNING);
+        this.lateMoveReductions = features.contains(SearchFeature.LATE_MOVE_REDUCTIONS);
+        this.killerMoves = features.contains(SearchFeature.KILLER_MOVES);
+        this.historyHeuristic = features.contains(SearchFeature.HISTORY_HEURISTIC);
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    public Set<SearchFeature> getFeatures() {
+        return EnumSet.copyOf(features);
+    }
+
+    /**
+     * Searches the board for its side to move until the depth limit is completed or another limit is reached.
+     *
+     * @return The result of the deepest completed iteration
+     */
+    public SearchResult search() {
+        long start = System.nanoTime();
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000 : Long.MAX_VALUE;
+        nodes = 0;
+        reportedNodes = 0;
+        stopped = false;
+        rootBestMove = PackedMove.NONE;
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, PackedMove.NONE);
+        }
+        for (int[][] colorHistory : history) {
+            for (int[] fromHistory : colorHistory) {
+                Arrays.fill(fromHistory, 0);
+            }
+        }
+
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] principalVariation = new int[0];
+        for (int depth = 1 + (helper & 1); depth <= limits.getDepth(); depth++) {
+            int score = searchRoot(depth, bestScore);
+            if (stopped) {
+                break;
+            }
+            bestScore = score;
+            completedDepth = depth;
+            principalVariation = Arrays.copyOf(pvTable[0], pvLength[0]);
+            rootBestMove = principalVariation.length > 0 ? principalVariation[0] : PackedMove.NONE;
+            // A forced mate found at this depth will not get shorter at a deeper one
+            if (Math.abs(score) >= MATE_SCORE - depth) {
+                break;
+            }
+        }
+        if (rootBestMove == PackedMove.NONE && stopped && !moveLists[0].isEmpty()) {
+            // Stopped before the first iteration completed: any legal move is better than none
+            rootBestMove = moveLists[0].get(0);
+            principalVariation = new int[]{rootBestMove};
+        }
+        return new SearchResult(rootBestMove, bestScore, completedDepth, principalVariation, nodes,
+                System.nanoTime() - start);
+    }
+
+    // Searches the root with a window around the previous score, widening it on each side it fails on
+    private int searchRoot(int depth, int previousScore) {
+        if (!aspirationWindows || depth < ASPIRATION_MIN_DEPTH || isMateScore(previousScore)) {
+            return negamax(depth, -INFINITY, INFINITY, 0, true);
+        }
+        int delta = ASPIRATION_WINDOW;
+        int alpha = previousScore - delta;
+        int beta = previousScore + delta;
+        while (true) {
+            int score = negamax(depth, alpha, beta, 0, true);
+            if (stopped || (score > alpha && score < beta)) {
+                return score;
+            }
+            delta *= 2;
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else {
+                beta = Math.min(score + delta, INFINITY);
+            }
+        }
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply, boolean allowNullMove) {
+        pvLength[ply] = 0;
+        if ((nodes & LIMIT_CHECK_MASK) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        nodes++;
+
+        if (ply > 0 && (board.getHalfmoveClock() >= FIFTY_MOVE_RULE_PLIES || board.isRepetition())) {
+            return DRAW_SCORE;
+        }
+        if (ply == MAX_PLY - 1) {
+            return Evaluator.evaluate(board);
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        long key = board.getZobristKey();
+        long entry = table != null ? table.probe(key) : 0;
+        int hashMove = PackedMove.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        Color color = board.getSideToMove();
+        boolean inCheck = isInCheck(color);
+        if (nullMovePruning && allowNullMove && ply > 0 && !inCheck && depth >= NULL_MOVE_MIN_DEPTH
+                && !isMateScore(beta) && hasPiecesOtherThanPawns(color) && Evaluator.evaluate(board) >= beta) {
+            int reduction = depth > 6 ? 3 : 2;
+            board.makeNullMove();
+            int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+            board.unmakeNullMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                // An unproven mate from a null move is not trusted
+                return isMateScore(score) ? beta : score;
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        MoveGenerator.generateLegalMoves(board, color, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE_SCORE + ply : DRAW_SCORE;
+        }
+        scoreMoves(moves, ply, color, hashMove);
+
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        int originalAlpha = alpha;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNextMove(moves, ply, i);
+            boolean quiet = isQuiet(move);
+            boolean killer = move == killers[ply][0] || move == killers[ply][1];
+
+            board.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+            } else {
+                int reduction = lateMoveReductions && quiet && !killer && !inCheck && depth >= LATE_MOVE_MIN_DEPTH
+                        && i >= LATE_MOVE_INDEX && !isInCheck(board.getSideToMove()) ? lateMoveReduction(depth, i) : 0;
+                int windowBeta = principalVariationSearch ? alpha + 1 : beta;
+                score = -negamax(depth - 1 - reduction, -windowBeta, -alpha, ply + 1, true);
+                if (reduction > 0 && score > alpha) {
+                    score = -negamax(depth - 1, -windowBeta, -alpha, ply + 1, true);
+                }
+                if (principalVariationSearch && score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            board.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    updatePrincipalVariation(move, ply);
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            recordCutoff(move, depth, ply, color);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (table != null) {
+            int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                    : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+            table.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        }
+        return bestScore;
+    }
+
+    private int quiescence(int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if ((nodes & LIMIT_CHECK_MASK) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        nodes++;
+        if (ply == MAX_PLY - 1) {
+            return Evaluator.evaluate(board);
+        }
+
+        Color color = board.getSideToMove();
+        boolean inCheck = isInCheck(color);
+        MoveList moves = moveLists[ply];
+        int bestScore;
+        if (inCheck) {
+            // Standing pat is no option in check
+            MoveGenerator.generateLegalMoves(board, color, moves);
+            if (moves.isEmpty()) {
+                return -MATE_SCORE + ply;
+            }
+            bestScore = -INFINITY;
+        } else {
+            bestScore = Evaluator.evaluate(board);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+            MoveGenerator.generateLegalCaptures(board, color, moves);
+        }
+        scoreMoves(moves, ply, color, PackedMove.NONE);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNextMove(moves, ply, i);
+            if (!inCheck && moveScores[ply][i] < 0) {
+                // Only captures that lose material are left
+                break;
+            }
+            board.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            board.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(move, ply);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    // Mate scores are stored relative to the node, as the same position can be reached at different plies
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        return score <= -MATE_SCORE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        return score <= -MATE_SCORE + MAX_PLY ? score + ply : score;
+    }
+
+    private static int lateMoveReduction(int depth, int moveIndex) {
+        return depth >= 6 && moveIndex >= 6 ? 2 : 1;
+    }
+
+    private static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE_SCORE - MAX_PLY;
+    }
+
+    private boolean isInCheck(Color color) {
+        return board.isSquareAttacked(board.getKingSquare(color), Color.getOppositeColor(color));
+    }
+
+    private boolean hasPiecesOtherThanPawns(Color color) {
+        return (board.getPieces(PieceType.QUEEN, color) | board.getPieces(PieceType.ROOK, color)
+                | board.getPieces(PieceType.BISHOP, color) | board.getPieces(PieceType.KNIGHT, color)) != 0;
+    }
+
+    private boolean isQuiet(int move) {
+        return capturedPiece(move) == null && PackedMove.promotion(move) == null;
+    }
+
+    private void checkLimits() {
+        long searchedNodes = nodes;
+        if (groupNodes != null) {
+            searchedNodes = groupNodes.addAndGet(nodes - reportedNodes);
+            reportedNodes = nodes;
+        }
+        if (stopSignal.get() || (limits.getNodes() > 0 && searchedNodes >= limits.getNodes())
+                || System.nanoTime() >= deadline) {
+            stopped = true;
+            stopSignal.set(true);
+        }
+    }
+
+    private void updatePrincipalVariation(int move, int ply) {
+        pvTable[ply][0] = move;
+        System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    private void recordCutoff(int move, int depth, int ply, Color color) {
+        if (killerMoves && killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        if (historyHeuristic) {
+            int[] fromHistory = history[color.ordinal()][PackedMove.from(move)];
+            fromHistory[PackedMove.to(move)] += depth * depth;
+            if (fromHistory[PackedMove.to(move)] >= HISTORY_LIMIT) {
+                ageHistory();
+            }
+        }
+    }
+
+    // Halves every history score, so that they stay below the killer bonus and recent cutoffs weigh more
+    private void ageHistory() {
+        for (int[][] colorHistory : history) {
+            for (int[] fromHistory : colorHistory) {
+                for (int to = 0; to < 64; to++) {
+                    fromHistory[to] /= 2;
+                }
+            }
+        }
+    }
+
+    private void scoreMoves(MoveList moves, int ply, Color color, int hashMove) {
+        int[] scores = moveScores[ply];
+        int[][] colorHistory = history[color.ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = 0;
+            Piece victim = capturedPiece(move);
+            PieceType promotion = PackedMove.promotion(move);
+            if (ply == 0 && move == rootBestMove) {
+                score = Integer.MAX_VALUE;
+            } else if (move == hashMove) {
+                score = Integer.MAX_VALUE - 1;
+            } else if (victim != null || promotion != null) {
+                PieceType attacker = board.getPieceAt(row(PackedMove.from(move)), col(PackedMove.from(move))).getType();
+                int victimValue = victim != null ? StaticExchange.value(victim.getType()) : 0;
+                score = 10 * victimValue - StaticExchange.value(attacker) / 10
+                        + (promotion != null ? StaticExchange.value(promotion) : 0);
+                // Taking a piece worth at least the attacker cannot lose material
+                boolean losing = StaticExchange.value(attacker) > victimValue
+                        && StaticExchange.evaluate(board, move) < 0;
+                score += losing ? LOSING_CAPTURE_BONUS : CAPTURE_BONUS;
+            } else if (ply == 0 && helper > 0) {
+                // Rotated by the helper index, so that each helper starts on a different quiet move
+                score = moves.size() - Math.floorMod(i - helper, moves.size());
+            } else if (killerMoves && move == killers[ply][0]) {
+                score = FIRST_KILLER_BONUS;
+            } else if (killerMoves && move == killers[ply][1]) {
+                score = SECOND_KILLER_BONUS;
+            } else if (historyHeuristic) {
+                score = colorHistory[PackedMove.from(move)][PackedMove.to(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    private Piece capturedPiece(int move) {
+        int to = PackedMove.to(move);
+        if (PackedMove.moveType(move) == MoveType.EN_PASSANT) {
+            return board.getPieceAt(row(PackedMove.from(move)), col(to));
+        }
+        return board.getPieceAt(row(to), col(to));
+    }
+
+    // Selection sort, one step at a time: most nodes cut off after the first few moves
+    private int pickNextMove(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+}
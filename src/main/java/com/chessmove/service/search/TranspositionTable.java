@@ -0,0 +1,220 @@
+package com.chessmove.service.search;
+
+import com.chessmove.model.game.PackedMove;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A transposition table of search results, stored outside the Java heap so that its size does not weigh on the
+ * garbage collector.
+ * <p>
+ * The table is made of direct {@link ByteBuffer byte buffers} holding buckets of two 16-byte entries. An entry is
+ * two longs: the packed data (best move, score, depth, bound and the age of the search that stored it) and the
+ * Zobrist key XOR-ed with the data. An entry only matches when the stored key XOR the stored data gives back the
+ * probed key, so an entry torn by two threads writing at once reads as a miss instead of a wrong result, and the
+ * table can be shared by several search threads without locks. Each long is read and written atomically.
+ * <p>
+ * A position always replaces its own older entry. Otherwise the entry of its bucket to give up is the one with
+ * the lowest depth, entries of earlier searches counting as eight plies shallower per search. Probes return the
+ * packed data, which the static methods of this class decode; 0 means a miss.
+ */
+public class TranspositionTable {
+
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_UPPER = 3;
+    public static final int MAX_MEGABYTES = 1 << 16;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_BYTES = 2 * ENTRY_BYTES;
+    private static final int DEFAULT_SEGMENT_BYTES = 1 << 30;
+    private static final int AGE_WEIGHT = 8;
+
+    // Bit layout of the data: move (17 bits), score (16), depth (8), bound (2), age (8)
+    private static final int MOVE_BITS = 17;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + 16;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + 8;
+    private static final int AGE_SHIFT = BOUND_SHIFT + 2;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer[] segments;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final long bucketMask;
+    private volatile int age;
+
+    /**
+     * Creates a table of at most the given size. The number of entries is rounded down to a power of two.
+     *
+     * @param megabytes The size of the table in megabytes, between 1 and {@value #MAX_MEGABYTES}
+     */
+    public TranspositionTable(int megabytes) {
+        this(megabytes, DEFAULT_SEGMENT_BYTES);
+    }
+
+    // The segment size is a parameter so that tests can spread a small table over several buffers
+    TranspositionTable(int megabytes, int segmentBytes) {
+        if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+            throw new IllegalArgumentException("The table size must be between 1 and " + MAX_MEGABYTES + " MB");
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / BUCKET_BYTES);
+        long bucketsPerSegment = Math.min(buckets, Integer.highestOneBit(segmentBytes) / BUCKET_BYTES);
+        this.segmentShift = Long.numberOfTrailingZeros(bucketsPerSegment);
+        this.segmentMask = bucketsPerSegment - 1;
+        this.bucketMask = buckets - 1;
+        this.segments = new ByteBuffer[(int) (buckets / bucketsPerSegment)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) (bucketsPerSegment * BUCKET_BYTES))
+                    .order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The Zobrist key of the position
+     * @return The packed data of the entry, or 0 if the position is not in the table
+     */
+    public long probe(long key) {
+        ByteBuffer segment = segment(key);
+        int offset = offset(key);
+        for (int entry = offset; entry < offset + BUCKET_BYTES; entry += ENTRY_BYTES) {
+            long data = (long) LONGS.getOpaque(segment, entry + Long.BYTES);
+            if (data != 0 && ((long) LONGS.getOpaque(segment, entry) ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of searching a position. When the move is {@link PackedMove#NONE}, the best move already
+     * stored for the same position is kept.
+     *
+     * @param key   The Zobrist key of the position
+     * @param move  The best move found, or {@link PackedMove#NONE}
+     * @param score The score, between -32768 and 32767
+     * @param depth The depth searched, between 0 and 255
+     * @param bound {@link #BOUND_EXACT}, or {@link #BOUND_LOWER} or {@link #BOUND_UPPER} when the score is only a
+     *              lower or an upper bound
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        ByteBuffer segment = segment(key);
+        int offset = offset(key);
+        int currentAge = age;
+        int victim = offset;
+        int victimValue = Integer.MAX_VALUE;
+        for (int entry = offset; entry < offset + BUCKET_BYTES; entry += ENTRY_BYTES) {
+            long data = (long) LONGS.getOpaque(segment, entry + Long.BYTES);
+            if (data == 0) {
+                if (victimValue > Integer.MIN_VALUE) {
+                    victim = entry;
+                    victimValue = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if (((long) LONGS.getOpaque(segment, entry) ^ data) == key) {
+                if (move == PackedMove.NONE) {
+                    move = move(data);
+                }
+                victim = entry;
+                break;
+            }
+            int value = depth(data) - AGE_WEIGHT * ((currentAge - age(data)) & 0xFF);
+            if (value < victimValue) {
+                victim = entry;
+                victimValue = value;
+            }
+        }
+        long data = move & MOVE_MASK
+                | (long) (score & 0xFFFF) << SCORE_SHIFT
+                | (long) (depth & 0xFF) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) currentAge << AGE_SHIFT;
+        LONGS.setOpaque(segment, victim, key ^ data);
+        LONGS.setOpaque(segment, victim + Long.BYTES, data);
+    }
+
+    /**
+     * Starts a new search: the entries stored so far grow older and are replaced more easily.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        for (ByteBuffer segment : segments) {
+            for (int i = 0; i < segment.capacity(); i += Long.BYTES) {
+                segment.putLong(i, 0);
+            }
+        }
+        age = 0;
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return The capacity in entries
+     */
+    public long capacity() {
+        return (bucketMask + 1) * 2;
+    }
+
+    /**
+     * Estimates how full the table is with entries of the current search, from a sample of its first buckets.
+     *
+     * @return The number of used entries per thousand
+     */
+    public int getUsagePermille() {
+        long sample = Math.min(500, bucketMask + 1);
+        int used = 0;
+        for (long bucket = 0; bucket < sample; bucket++) {
+            ByteBuffer segment = segments[(int) (bucket >>> segmentShift)];
+            int offset = (int) (bucket & segmentMask) * BUCKET_BYTES;
+            for (int entry = offset; entry < offset + BUCKET_BYTES; entry += ENTRY_BYTES) {
+                long data = (long) LONGS.getOpaque(segment, entry + Long.BYTES);
+                if (data != 0 && age(data) == age) {
+                    used++;
+                }
+            }
+        }
+        return (int) (used * 1000 / (sample * 2));
+    }
+
+    public static int move(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    static int age(long data) {
+        return (int) (data >>> AGE_SHIFT) & 0xFF;
+    }
+
+    private ByteBuffer segment(long key) {
+        return segments[(int) ((key & bucketMask) >>> segmentShift)];
+    }
+
+    private int offset(long key) {
+        return (int) (key & bucketMask & segmentMask) * BUCKET_BYTES;
+    }
+}
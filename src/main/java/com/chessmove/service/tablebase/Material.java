@@ -0,0 +1,237 @@
+package com.chessmove.service.tablebase;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.util.Color;
+import com.chessmove.util.PieceType;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.chessmove.util.CalculationMessage.INVALID_MATERIAL;
+
+/**
+ * A material set of an endgame, such as KQKR: the pieces of each side besides the kings.
+ * <p>
+ * A table is only built for the canonical orientation of a material set, in which white is the stronger side; a
+ * position with the colors the other way round is looked up with the board mirrored and the colors swapped. Pieces
+ * are kept in {@link PieceType} order (queen, rook, bishop, knight, pawn), which is also the order of their letters
+ * in the name.
+ */
+public final class Material {
+
+    public static final int MAX_PIECES = 4;
+
+    static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    private static final String PIECE_LETTERS = "KQRBNP";
+    private static final int[] STRENGTH = {0, 9, 5, 3, 3, 1};
+
+    private final PieceType[] white;
+    private final PieceType[] black;
+
+    private Material(PieceType[] white, PieceType[] black) {
+        this.white = sorted(white);
+        this.black = sorted(black);
+    }
+
+    /**
+     * Parses a material set written as the pieces of white then black, each starting with the king, e.g.
+     * {@code KQKR} or {@code KPK}.
+     *
+     * @param name The material set
+     * @return The material set, in the orientation given
+     * @throws IllegalArgumentException if the name is malformed or has more than {@value #MAX_PIECES} pieces
+     */
+    public static Material parse(String name) {
+        String upper = name.toUpperCase();
+        int secondKing = upper.indexOf('K', 1);
+        if (!upper.matches("K[QRBNP]*K[QRBNP]*") || upper.length() > MAX_PIECES) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_MATERIAL, name));
+        }
+        return new Material(types(upper.substring(1, secondKing)), types(upper.substring(secondKing + 1)));
+    }
+
+    /**
+     * Returns the material set of the pieces on a board, in the board's orientation.
+     *
+     * @param board The board
+     * @return The material set
+     */
+    public static Material of(Board board) {
+        return new Material(types(board, Color.WHITE), types(board, Color.BLACK));
+    }
+
+    public PieceType[] getPieces(Color color) {
+        return (color == Color.WHITE ? white : black).clone();
+    }
+
+    public int pieceCount() {
+        return 2 + white.length + black.length;
+    }
+
+    public boolean hasPawns() {
+        return contains(white, PieceType.PAWN) || contains(black, PieceType.PAWN);
+    }
+
+    /**
+     * Tells whether white is at least as strong as black, so that the material set has a table of its own.
+     *
+     * @return True if this is the orientation tables are built for
+     */
+    public boolean isCanonical() {
+        int difference = strength(white) - strength(black);
+        if (difference != 0) {
+            return difference > 0;
+        }
+        return name(white).compareTo(name(black)) <= 0;
+    }
+
+    /**
+     * Returns the material set with the colors swapped.
+     *
+     * @return The mirrored material set
+     */
+    public Material flipped() {
+        return new Material(black, white);
+    }
+
+    public Material canonical() {
+        return isCanonical() ? this : flipped();
+    }
+
+    /**
+     * Returns the material set without one piece, as after a capture.
+     *
+     * @param color The color of the captured piece
+     * @param type  The type of the captured piece
+     * @return The remaining material set
+     */
+    public Material without(Color color, PieceType type) {
+        return color == Color.WHITE ? new Material(remove(white, type), black) : new Material(white, remove(black, type));
+    }
+
+    /**
+     * Returns the material set after a pawn of the given color has promoted.
+     *
+     * @param color     The color of the pawn
+     * @param promotion The promotion piece type
+     * @return The material set with the pawn replaced
+     */
+    public Material promoted(Color color, PieceType promotion) {
+        Material withoutPawn = without(color, PieceType.PAWN);
+        return color == Color.WHITE
+                ? new Material(add(withoutPawn.white, promotion), withoutPawn.black)
+                : new Material(withoutPawn.white, add(withoutPawn.black, promotion));
+    }
+
+    /**
+     * Returns the canonical material sets one capture or promotion away, whose tables the table of this one reads.
+     */
+    List<Material> successors() {
+        List<Material> successors = new ArrayList<>();
+        for (Color color : Color.values()) {
+            for (PieceType type : getPieces(color)) {
+                successors.add(without(color, type).canonical());
+                if (type == PieceType.PAWN) {
+                    for (PieceType promotion : PROMOTIONS) {
+                        successors.add(promoted(color, promotion).canonical());
+                    }
+                }
+            }
+        }
+        return successors;
+    }
+
+    public String getName() {
+        return "K" + name(white) + "K" + name(black);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Material material
+                && Arrays.equals(white, material.white) && Arrays.equals(black, material.black);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(white) + Arrays.hashCode(black);
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    private static PieceType[] types(String letters) {
+        PieceType[] types = new PieceType[letters.length()];
+        for (int i = 0; i < letters.length(); i++) {
+            types[i] = PieceType.values()[PIECE_LETTERS.indexOf(letters.charAt(i))];
+        }
+        return types;
+    }
+
+    private static PieceType[] types(Board board, Color color) {
+        PieceType[] types = new PieceType[0];
+        for (PieceType type : PieceType.values()) {
+            if (type != PieceType.KING) {
+                for (int i = Long.bitCount(board.getPieces(type, color)); i > 0; i--) {
+                    types = add(types, type);
+                }
+            }
+        }
+        return types;
+    }
+
+    private static String name(PieceType[] types) {
+        StringBuilder name = new StringBuilder();
+        for (PieceType type : types) {
+            name.append(PIECE_LETTERS.charAt(type.ordinal()));
+        }
+        return name.toString();
+    }
+
+    private static int strength(PieceType[] types) {
+        int strength = 0;
+        for (PieceType type : types) {
+            strength += STRENGTH[type.ordinal()];
+        }
+        return strength;
+    }
+
+    private static PieceType[] sorted(PieceType[] types) {
+        PieceType[] sorted = types.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static boolean contains(PieceType[] types, PieceType type) {
+        for (PieceType candidate : types) {
+            if (candidate == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static PieceType[] remove(PieceType[] types, PieceType type) {
+        PieceType[] remaining = new PieceType[types.length - 1];
+        int count = 0;
+        boolean removed = false;
+        for (PieceType candidate : types) {
+            if (candidate == type && !removed) {
+                removed = true;
+            } else {
+                remaining[count++] = candidate;
+            }
+        }
+        return remaining;
+    }
+
+    private static PieceType[] add(PieceType[] types, PieceType type) {
+        PieceType[] added = Arrays.copyOf(types, types.length + 1);
+        added[types.length] = type;
+        return sorted(added);
+    }
+}
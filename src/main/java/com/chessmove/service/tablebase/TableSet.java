@@ -0,0 +1,107 @@
+package com.chessmove.service.tablebase;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The tables of several material sets, looked up by position. Tables are either added from memory while they are
+ * generated, or mapped from a directory the first time they are needed.
+ */
+final class TableSet {
+
+    private final Path directory;
+    private final Map<Material, Table> tables = new ConcurrentHashMap<>();
+    private final Map<Material, TablebaseIndex> indexes = new ConcurrentHashMap<>();
+    private final Set<Material> covered = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a set that maps the tables found in a directory, or holds only the tables added to it.
+     *
+     * @param directory The directory of the table files, or null
+     */
+    TableSet(Path directory) {
+        this.directory = directory;
+    }
+
+    void add(Material material, ByteBuffer values) {
+        tables.put(material, new Table(index(material), values));
+    }
+
+    TablebaseIndex index(Material material) {
+        return indexes.computeIfAbsent(material, TablebaseIndex::new);
+    }
+
+    /**
+     * Tells whether the set has the table of a material set in either orientation, or needs none (bare kings).
+     */
+    boolean contains(Material material) {
+        Material canonical = material.canonical();
+        return canonical.pieceCount() == 2 || tables.containsKey(canonical)
+                || (directory != null && Files.isRegularFile(TablebaseFile.path(directory, canonical)));
+    }
+
+    /**
+     * Tells whether the set {@link #contains(Material) contains} the table of a material set and the tables of
+     * every material set it can turn into by captures and promotions, which probing its moves reads.
+     */
+    boolean covers(Material material) {
+        Material canonical = material.canonical();
+        if (covered.contains(canonical)) {
+            return true;
+        }
+        if (!contains(canonical)) {
+            return false;
+        }
+        for (Material successor : canonical.successors()) {
+            if (!covers(successor)) {
+                return false;
+            }
+        }
+        // Tables are never removed, so the answer stays true
+        covered.add(canonical);
+        return true;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param material The material set, in either orientation
+     * @param squares  The squares by slot
+     * @param white    True if white is to move
+     * @return The table value, see {@link TablebaseFile}
+     */
+    int value(Material material, int[] squares, boolean white) {
+        if (material.pieceCount() == 2) {
+            return TablebaseFile.DRAW;
+        }
+        if (!material.isCanonical()) {
+            squares = TablebaseIndex.flipped(material, squares);
+            material = material.flipped();
+            white = !white;
+        }
+        Table table = tables.computeIfAbsent(material, this::map);
+        int index = table.index.index(squares);
+        return index < 0 ? TablebaseFile.ILLEGAL : table.values.get((white ? 0 : table.index.size()) + index) & 0xFF;
+    }
+
+    private Table map(Material material) {
+        if (directory == null) {
+            throw new IllegalStateException("No table for " + material);
+        }
+        TablebaseIndex index = index(material);
+        try {
+            return new Table(index, TablebaseFile.map(TablebaseFile.path(directory, material), index.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Table(TablebaseIndex index, ByteBuffer values) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.chessmove.service.tablebase;
+
+import com.chessmove.model.game.Bitboards;
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.util.Color;
+import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.chessmove.model.game.Bitboards.bit;
+
+/**
+ * Probes the endgame tables of a directory, built by {@link TablebaseGenerator}. A table file is mapped into memory
+ * the first time a position of its material set is probed and stays mapped; a probe is then an index computation
+ * and one read per legal move. The tables hold no position with an en passant capture: such a position is worked
+ * out from its moves. Probing is thread-safe.
+ */
+public class Tablebase {
+
+    private final TableSet tables;
+
+    /**
+     * Opens the tables of a directory. No file is read before the first probe.
+     *
+     * @param directory The directory of the table files
+     */
+    public Tablebase(Path directory) {
+        this.tables = new TableSet(directory);
+    }
+
+    /**
+     * Tells whether a position can be probed: at most {@value Material#MAX_PIECES} pieces, kings included, no
+     * castling right, and a table for its material set (none is needed for bare kings) and for every material set it
+     * can turn into by captures and promotions.
+     *
+     * @param board The position
+     * @return True if {@link #probe(Board)} gives a result
+     */
+    public boolean covers(Board board) {
+        return Long.bitCount(board.getOccupied()) <= Material.MAX_PIECES && board.getCastlingRights() == 0
+                && tables.covers(Material.of(board));
+    }
+
+    /**
+     * Reads the exact result of a position for its side to move, and the moves that keep it. The board is left
+     * unchanged.
+     *
+     * @param board The position
+     * @return The result, or null if the position is not {@link #covers(Board) covered}
+     * @throws java.io.UncheckedIOException if a table file cannot be read
+     */
+    public TablebaseResult probe(Board board) {
+        if (!covers(board)) {
+            return null;
+        }
+        int value = value(board);
+        if (value == TablebaseFile.ILLEGAL) {
+            throw new IllegalArgumentException("The side not to move is in check");
+        }
+        Board position = board.copy();
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(position, position.getSideToMove(), moves);
+        int[] bestMoves = new int[moves.size()];
+        int count = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            int childValue = value(position);
+            position.unmakeMove(moves.get(i));
+            // A child one ply closer to mate, or a drawn child in a drawn position
+            if (value == TablebaseFile.DRAW ? childValue == TablebaseFile.DRAW : childValue == value - 1) {
+                bestMoves[count++] = moves.get(i);
+            }
+        }
+        bestMoves = Arrays.copyOf(bestMoves, count);
+        if (value == TablebaseFile.DRAW) {
+            return new TablebaseResult(TablebaseResult.Outcome.DRAW, 0, bestMoves);
+        }
+        TablebaseResult.Outcome outcome = TablebaseFile.isWin(value)
+                ? TablebaseResult.Outcome.WIN : TablebaseResult.Outcome.LOSS;
+        return new TablebaseResult(outcome, value - 1, bestMoves);
+    }
+
+    /**
+     * Gives the value of a position. Right after a double push that allows an en passant capture, the value is
+     * summarized from the moves the way the generator does: the fastest win, else a draw, else the slowest loss.
+     */
+    private int value(Board board) {
+        int value = lookUp(board);
+        if (value == TablebaseFile.ILLEGAL || board.getEnPassantSquare() == Bitboards.NO_SQUARE) {
+            return value;
+        }
+        Board position = board.copy();
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(position, position.getSideToMove(), moves);
+        boolean enPassant = false;
+        for (int i = 0; i < moves.size(); i++) {
+            enPassant |= PackedMove.moveType(moves.get(i)) == MoveType.EN_PASSANT;
+        }
+        if (!enPassant) {
+            return value;
+        }
+        int winValue = Integer.MAX_VALUE;
+        int lossValue = 0;
+        boolean draw = false;
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            int childValue = value(position);
+            position.unmakeMove(moves.get(i));
+            if (childValue == TablebaseFile.DRAW) {
+                draw = true;
+            } else if (TablebaseFile.isLoss(childValue)) {
+                winValue = Math.min(winValue, childValue + 1);
+            } else {
+                lossValue = Math.max(lossValue, childValue + 1);
+            }
+        }
+        if (winValue != Integer.MAX_VALUE) {
+            return winValue;
+        }
+        return draw ? TablebaseFile.DRAW : lossValue;
+    }
+
+    // Looks the position up as it stands, disregarding an en passant target left by the last move
+    private int lookUp(Board board) {
+        Material material = Material.of(board);
+        PieceType[] types = TablebaseIndex.slotTypes(material);
+        Color[] colors = TablebaseIndex.slotColors(material);
+        int[] squares = new int[types.length];
+        squares[0] = board.getKingSquare(Color.WHITE);
+        squares[1] = board.getKingSquare(Color.BLACK);
+        long taken = 0;
+        for (int slot = 2; slot < types.length; slot++) {
+            long pieces = board.getPieces(types[slot], colors[slot]) & ~taken;
+            squares[slot] = Long.numberOfTrailingZeros(pieces);
+            taken |= bit(squares[slot]);
+        }
+        return tables.value(material, squares, board.getSideToMove() == Color.WHITE);
+    }
+}
@@ -0,0 +1,80 @@
+package com.chessmove.service.tablebase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The file format of a table: a 16-byte header (magic number, version, number of positions per side to move),
+ * then one byte per position, first for white to move, then for black to move, in {@link TablebaseIndex} order.
+ * <p>
+ * A byte is 0 for a draw, {@value #ILLEGAL} for an index that is no legal position, and otherwise the distance to
+ * mate in plies plus one: the side to move is mated when the distance is even (0 meaning it is mated already), and
+ * mates when it is odd.
+ */
+final class TablebaseFile {
+
+    static final int DRAW = 0;
+    static final int ILLEGAL = 0xFF;
+    static final int MAX_PLIES = ILLEGAL - 2;
+    static final String EXTENSION = ".tb";
+
+    private static final int MAGIC = 0x434D5442;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+
+    private TablebaseFile() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static Path path(Path directory, Material material) {
+        return directory.resolve(material.getName() + EXTENSION);
+    }
+
+    /**
+     * Writes a table.
+     *
+     * @param file   The table file
+     * @param values The values of both sides to move, white first
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path file, byte[] values) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(values.length / 2);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(header.array());
+            out.write(values);
+        }
+    }
+
+    /**
+     * Maps a table into memory, read-only. The mapping stays valid after the file channel is closed.
+     *
+     * @param file The table file
+     * @param size The expected number of positions per side to move
+     * @return The mapped file, positioned at the first value
+     * @throws IOException if the file cannot be read or is not a table of the expected size
+     */
+    static ByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() != HEADER_BYTES + 2L * size || mapped.getInt(0) != MAGIC
+                    || mapped.getInt(4) != VERSION || mapped.getInt(8) != size) {
+                throw new IOException("Not a valid tablebase file: " + file);
+            }
+            return mapped.position(HEADER_BYTES).slice();
+        }
+    }
+
+    static boolean isWin(int value) {
+        return value != DRAW && value != ILLEGAL && (value - 1) % 2 == 1;
+    }
+
+    static boolean isLoss(int value) {
+        return value != DRAW && value != ILLEGAL && (value - 1) % 2 == 0;
+    }
+}
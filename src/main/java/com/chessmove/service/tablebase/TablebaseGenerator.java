@@ -0,0 +1,494 @@
+package com.chessmove.service.tablebase;
+
+import com.chessmove.util.Color;
+import com.chessmove.util.PieceType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static com.chessmove.model.game.Bitboards.KING_ATTACKS;
+import static com.chessmove.model.game.Bitboards.KNIGHT_ATTACKS;
+import static com.chessmove.model.game.Bitboards.PAWN_ATTACKS;
+import static com.chessmove.model.game.Bitboards.bit;
+import static com.chessmove.model.game.Bitboards.row;
+import static com.chessmove.model.game.MagicBitboards.bishopAttacks;
+import static com.chessmove.model.game.MagicBitboards.queenAttacks;
+import static com.chessmove.model.game.MagicBitboards.rookAttacks;
+
+/**
+ * Builds endgame tables by retrograde analysis.
+ * <p>
+ * Every position of a material set is first looked at once: mates and stalemates are found, and so are the moves
+ * that leave the table, captures and promotions, whose results are read from the tables of the smaller material
+ * sets built before. Then the positions are resolved in layers of increasing distance to mate. From each position
+ * resolved in the current layer, the moves are taken back: a predecessor of a lost position is won one ply later,
+ * and a predecessor of a won position is lost once all its moves are known to lose. Whatever is still unresolved
+ * when the layers run out is a draw.
+ * <p>
+ * When both sides have pawns, a double push next to an enemy pawn leads to a position in which the en passant
+ * capture is still possible. Such positions are resolved alongside the others, with the moves of the same position
+ * without the capture and the capture itself, but only the positions without an en passant capture are written:
+ * probing works the others out from their moves. Castling is not part of the tables, nor are the fifty-move rule
+ * and repetitions.
+ */
+public final class TablebaseGenerator {
+
+    private TablebaseGenerator() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Builds the table of a material set, and first the tables of all the material sets it can turn into by
+     * captures and promotions, and writes them to a directory. Tables already in the directory are used as they
+     * are.
+     *
+     * @param material  The material set, in either orientation
+     * @param directory The directory of the table files, created if missing
+     * @return The files written, smaller material sets first
+     * @throws IOException if a table cannot be read or written
+     */
+    public static List<Path> generate(Material material, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> written = new ArrayList<>();
+        build(material.canonical(), new TableSet(directory), directory, written);
+        return written;
+    }
+
+    private static void build(Material material, TableSet tables, Path directory, List<Path> written)
+            throws IOException {
+        if (tables.contains(material)) {
+            return;
+        }
+        for (Material successor : material.successors()) {
+            build(successor, tables, directory, written);
+        }
+        byte[] values = new Builder(material, tables).run();
+        Path file = TablebaseFile.path(directory, material);
+        TablebaseFile.write(file, values);
+        tables.add(material, ByteBuffer.wrap(values));
+        written.add(file);
+    }
+
+    /**
+     * The retrograde analysis of one material set. Positions are numbered {@code side * size + index}, where side
+     * 0 is white to move; with pawns on both sides, {@code 2 * size} more numbers follow for the same positions right
+     * after a double push that allows an en passant capture.
+     */
+    private static final class Builder {
+
+        private static final int NONE = -1;
+
+        private final Material material;
+        private final TableSet tables;
+        private final TablebaseIndex index;
+        private final int size;
+        private final PieceType[] types;
+        private final Color[] colors;
+        private final Material[] captured;
+        private final boolean enPassant;
+        private final byte[] values;
+        // Distances found through moves that leave the table, resolved when their layer comes
+        private final byte[] pending;
+        private final BitSet stalemates = new BitSet();
+        private final int[] squares;
+        private final int[] child;
+        private final int[] predecessor;
+        private int maxPending;
+
+        // The summary of the moves of one position, see evaluate()
+        private int moves;
+        private int movesInTable;
+        private boolean open;
+        private int winValue;
+        private int lossValue;
+
+        Builder(Material material, TableSet tables) {
+            this.material = material;
+            this.tables = tables;
+            this.index = tables.index(material);
+            this.size = index.size();
+            this.types = TablebaseIndex.slotTypes(material);
+            this.colors = TablebaseIndex.slotColors(material);
+            this.captured = new Material[types.length];
+            for (int slot = 2; slot < types.length; slot++) {
+                captured[slot] = material.without(colors[slot], types[slot]);
+            }
+            this.enPassant = Arrays.asList(material.getPieces(Color.WHITE)).contains(PieceType.PAWN)
+                    && Arrays.asList(material.getPieces(Color.BLACK)).contains(PieceType.PAWN);
+            this.values = new byte[(enPassant ? 4 : 2) * size];
+            this.pending = new byte[values.length];
+            this.squares = new int[types.length];
+            this.child = new int[types.length];
+            this.predecessor = new int[types.length];
+        }
+
+        byte[] run() {
+            for (int position = 0; position < values.length; position++) {
+                initialize(position);
+            }
+            for (int value = 1; ; value++) {
+                boolean nextLayer = false;
+                for (int position = 0; position < values.length; position++) {
+                    if (values[position] == 0 && (pending[position] & 0xFF) == value) {
+                        values[position] = (byte) value;
+                    }
+                    if ((values[position] & 0xFF) == value) {
+                        nextLayer |= retract(position, value);
+                    }
+                }
+                if (!nextLayer && value >= maxPending) {
+                    return Arrays.copyOf(values, 2 * size);
+                }
+                if (value + 1 > TablebaseFile.MAX_PLIES + 1) {
+                    throw new IllegalStateException("Distance to mate too long for " + material);
+                }
+            }
+        }
+
+        // Marks illegal positions, mates and stalemates, and the results of captures and promotions
+        private void initialize(int position) {
+            int side = sideOf(position);
+            boolean afterDoublePush = position >= 2 * size;
+            index.squares(position % size, squares);
+            if (!isLegal(squares, side) || (afterDoublePush && enPassantPawn(squares, side) == NONE)) {
+                values[position] = (byte) TablebaseFile.ILLEGAL;
+                return;
+            }
+            evaluate(squares, side, false, afterDoublePush);
+            if (moves == 0) {
+                if (isAttacked(squares, squares[side], colorOf(1 - side), NONE, occupancy(squares))) {
+                    values[position] = 1;
+                } else {
+                    stalemates.set(position);
+                }
+            } else if (winValue != Integer.MAX_VALUE) {
+                setPending(position, winValue);
+            } else if (movesInTable == 0 && !open) {
+                setPending(position, lossValue);
+            }
+        }
+
+        // Takes back the moves into a position of the given layer, returning whether the next layer got positions
+        private boolean retract(int position, int value) {
+            int side = sideOf(position);
+            int previousSide = 1 - side;
+            index.squares(position % size, squares);
+            long occupied = occupancy(squares);
+            // A double push that allows en passant leads to the position with the capture, and only that move does
+            int pushedPawn = enPassant ? enPassantPawn(squares, side) : NONE;
+            if (position >= 2 * size) {
+                return resolvePredecessor(pushedPawn, squares[pushedPawn] + (previousSide == 0 ? 16 : -16),
+                        previousSide, value);
+            }
+            boolean resolved = false;
+            for (int slot = 0; slot < types.length; slot++) {
+                if (colors[slot] != colorOf(previousSide)) {
+                    continue;
+                }
+                int to = squares[slot];
+                if (types[slot] == PieceType.PAWN) {
+                    int back = previousSide == 0 ? 8 : -8;
+                    int from = to + back;
+                    int startRow = previousSide == 0 ? 6 : 1;
+                    if (from >= 8 && from < 56 && (occupied & bit(from)) == 0) {
+                        resolved |= resolvePredecessor(slot, from, previousSide, value);
+                        int doubleFrom = from + back;
+                        if (row(doubleFrom) == startRow && (occupied & bit(doubleFrom)) == 0 && slot != pushedPawn) {
+                            resolved |= resolvePredecessor(slot, doubleFrom, previousSide, value);
+                        }
+                    }
+                    continue;
+                }
+                long origins = attacks(types[slot], to, occupied) & ~occupied;
+                while (origins != 0) {
+                    resolved |= resolvePredecessor(slot, Long.numberOfTrailingZeros(origins), previousSide, value);
+                    origins &= origins - 1;
+                }
+            }
+            return resolved;
+        }
+
+        private boolean resolvePredecessor(int slot, int from, int side, int value) {
+            System.arraycopy(squares, 0, predecessor, 0, squares.length);
+            predecessor[slot] = from;
+            int predecessorIndex = index.index(predecessor);
+            if (predecessorIndex < 0) {
+                return false;
+            }
+            boolean resolved = resolve(side * size + predecessorIndex, side, value, false);
+            // Right after a double push of the opponent, the predecessor has the same move and an en passant capture
+            if (enPassant && enPassantPawn(predecessor, side) != NONE) {
+                resolved |= resolve((2 + side) * size + predecessorIndex, side, value, true);
+            }
+            return resolved;
+        }
+
+        private boolean resolve(int position, int side, int value, boolean afterDoublePush) {
+            if (values[position] != 0 || stalemates.get(position)) {
+                return false;
+            }
+            if (TablebaseFile.isLoss(value)) {
+                values[position] = (byte) (value + 1);
+                return true;
+            }
+            // A move into a won position: the predecessor is lost only if all its moves are
+            evaluate(predecessor, side, true, afterDoublePush);
+            if (open || winValue != Integer.MAX_VALUE) {
+                return false;
+            }
+            if (lossValue == value + 1) {
+                values[position] = (byte) lossValue;
+                return true;
+            }
+            setPending(position, lossValue);
+            return false;
+        }
+
+        private void setPending(int position, int value) {
+            pending[position] = (byte) value;
+            maxPending = Math.max(maxPending, value);
+        }
+
+        /**
+         * Summarizes the moves of a position: their number, the number that stay in the table, whether one of
+         * them leads to a draw or an unresolved position, and the values reached by the quickest win and the
+         * slowest loss. Moves that stay in the table are only looked up when asked, and then the summary stops at
+         * the first move that keeps the position from being lost. Right after a double push, the en passant captures
+         * of the pushed pawn are added.
+         */
+        private void evaluate(int[] position, int side, boolean lookUpTable, boolean afterDoublePush) {
+            moves = 0;
+            movesInTable = 0;
+            open = false;
+            winValue = Integer.MAX_VALUE;
+            lossValue = 0;
+            Color color = colorOf(side);
+            long occupied = occupancy(position);
+            long own = 0;
+            for (int slot = 0; slot < types.length; slot++) {
+                if (colors[slot] == color) {
+                    own |= bit(position[slot]);
+                }
+            }
+            for (int slot = 0; slot < types.length; slot++) {
+                if (colors[slot] != color) {
+                    continue;
+                }
+                int from = position[slot];
+                long targets;
+                if (types[slot] == PieceType.PAWN) {
+                    int forward = side == 0 ? -8 : 8;
+                    targets = PAWN_ATTACKS[color.ordinal()][from] & occupied & ~own;
+                    if ((occupied & bit(from + forward)) == 0) {
+                        targets |= bit(from + forward);
+                        int startRow = side == 0 ? 6 : 1;
+                        if (row(from) == startRow && (occupied & bit(from + 2 * forward)) == 0) {
+                            targets |= bit(from + 2 * forward);
+                        }
+                    }
+                } else {
+                    targets = attacks(types[slot], from, occupied) & ~own;
+                }
+                while (targets != 0) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    evaluateMove(position, side, slot, to, occupied, lookUpTable);
+                    if (lookUpTable && (open || winValue != Integer.MAX_VALUE)) {
+                        return;
+                    }
+                }
+            }
+            if (afterDoublePush) {
+                evaluateEnPassant(position, side);
+            }
+        }
+
+        // Adds the en passant captures, whose results are read from the table without the captured pawn
+        private void evaluateEnPassant(int[] position, int side) {
+            int pushed = enPassantPawn(position, side);
+            int target = position[pushed] + (side == 0 ? -8 : 8);
+            long occupied = occupancy(position);
+            for (int slot = 2; slot < types.length; slot++) {
+                if (isEnPassantCapture(position, side, slot, pushed, target, occupied)) {
+                    System.arraycopy(position, 0, child, 0, position.length);
+                    child[slot] = target;
+                    Material remaining = captured[pushed];
+                    count(tables.value(remaining, childSquares(remaining, pushed, NONE, null), side == 1));
+                }
+            }
+        }
+
+        /**
+         * Returns the slot of the opponent's pawn that a double push could just have brought next to a pawn of the
+         * side to move able to take it en passant, or {@link #NONE}.
+         */
+        private int enPassantPawn(int[] position, int side) {
+            int pushedRow = side == 0 ? 3 : 4;
+            int behind = side == 0 ? -8 : 8;
+            long occupied = occupancy(position);
+            for (int pushed = 2; pushed < types.length; pushed++) {
+                if (types[pushed] != PieceType.PAWN || colors[pushed] == colorOf(side)
+                        || row(position[pushed]) != pushedRow) {
+                    continue;
+                }
+                // The square passed and the square the pawn started from are empty
+                int target = position[pushed] + behind;
+                if ((occupied & (bit(target) | bit(target + behind))) != 0) {
+                    continue;
+                }
+                for (int slot = 2; slot < types.length; slot++) {
+                    if (isEnPassantCapture(position, side, slot, pushed, target, occupied)) {
+                        return pushed;
+                    }
+                }
+            }
+            return NONE;
+        }
+
+        // Whether the piece in the slot is a pawn of the side to move that can take the pushed pawn en passant
+        private boolean isEnPassantCapture(int[] position, int side, int slot, int pushed, int target,
+                                           long occupied) {
+            if (types[slot] != PieceType.PAWN || colors[slot] != colorOf(side)
+                    || (PAWN_ATTACKS[colorOf(side).ordinal()][position[slot]] & bit(target)) == 0) {
+                return false;
+            }
+            long childOccupied = occupied & ~bit(position[slot]) & ~bit(position[pushed]) | bit(target);
+            return !isAttacked(position, position[side], colorOf(1 - side), pushed, childOccupied);
+        }
+
+        private void evaluateMove(int[] position, int side, int slot, int to, long occupied, boolean lookUpTable) {
+            int capturedSlot = slotAt(position, to);
+            System.arraycopy(position, 0, child, 0, position.length);
+            child[slot] = to;
+            long childOccupied = occupied & ~bit(position[slot]) | bit(to);
+            if (isAttacked(child, child[side], colorOf(1 - side), capturedSlot, childOccupied)) {
+                return;
+            }
+            boolean whiteToMove = side == 1;
+            if (types[slot] == PieceType.PAWN && (row(to) == 0 || row(to) == 7)) {
+                Material remaining = capturedSlot == NONE ? material : captured[capturedSlot];
+                for (PieceType promotion : Material.PROMOTIONS) {
+                    Material promoted = remaining.promoted(colors[slot], promotion);
+                    count(tables.value(promoted, childSquares(promoted, capturedSlot, slot, promotion),
+                            whiteToMove));
+                }
+            } else if (capturedSlot != NONE) {
+                Material remaining = captured[capturedSlot];
+                count(tables.value(remaining, childSquares(remaining, capturedSlot, NONE, null), whiteToMove));
+            } else {
+                movesInTable++;
+                if (lookUpTable) {
+                    int childPosition = (1 - side) * size + index.index(child);
+                    if (enPassant && types[slot] == PieceType.PAWN && Math.abs(to - position[slot]) == 16
+                            && enPassantPawn(child, 1 - side) == slot) {
+                        childPosition += 2 * size;
+                    }
+                    count(stalemates.get(childPosition) ? TablebaseFile.DRAW : values[childPosition] & 0xFF);
+                } else {
+                    moves++;
+                }
+            }
+        }
+
+        // Adds a move leading to a position of the given value, seen from the opponent's side
+        private void count(int value) {
+            moves++;
+            if (value == TablebaseFile.DRAW) {
+                open = true;
+            } else if (TablebaseFile.isLoss(value)) {
+                winValue = Math.min(winValue, value + 1);
+            } else {
+                lossValue = Math.max(lossValue, value + 1);
+            }
+        }
+
+        // Orders the squares of the child position as the slots of the smaller material set
+        private int[] childSquares(Material childMaterial, int capturedSlot, int promotedSlot, PieceType promotion) {
+            PieceType[] childTypes = TablebaseIndex.slotTypes(childMaterial);
+            Color[] childColors = TablebaseIndex.slotColors(childMaterial);
+            int[] childSquares = new int[childTypes.length];
+            boolean[] used = new boolean[types.length];
+            for (int childSlot = 0; childSlot < childTypes.length; childSlot++) {
+                for (int slot = 0; slot < types.length; slot++) {
+                    PieceType type = slot == promotedSlot ? promotion : types[slot];
+                    if (!used[slot] && slot != capturedSlot && colors[slot] == childColors[childSlot]
+                            && type == childTypes[childSlot]) {
+                        used[slot] = true;
+                        childSquares[childSlot] = child[slot];
+                        break;
+                    }
+                }
+            }
+            return childSquares;
+        }
+
+        private boolean isLegal(int[] position, int side) {
+            long occupied = 0;
+            for (int square : position) {
+                if ((occupied & bit(square)) != 0) {
+                    return false;
+                }
+                occupied |= bit(square);
+            }
+            // The side that just moved cannot have left its king in check
+            return !isAttacked(position, position[1 - side], colorOf(side), NONE, occupied);
+        }
+
+        private boolean isAttacked(int[] position, int square, Color attacker, int skippedSlot, long occupied) {
+            for (int slot = 0; slot < types.length; slot++) {
+                if (slot == skippedSlot || colors[slot] != attacker) {
+                    continue;
+                }
+                long attacks = types[slot] == PieceType.PAWN
+                        ? PAWN_ATTACKS[attacker.ordinal()][position[slot]]
+                        : attacks(types[slot], position[slot], occupied);
+                if ((attacks & bit(square)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static long attacks(PieceType type, int square, long occupied) {
+            return switch (type) {
+                case KING -> KING_ATTACKS[square];
+                case QUEEN -> queenAttacks(square, occupied);
+                case ROOK -> rookAttacks(square, occupied);
+                case BISHOP -> bishopAttacks(square, occupied);
+                case KNIGHT -> KNIGHT_ATTACKS[square];
+                case PAWN -> throw new IllegalArgumentException("Pawn moves depend on their color");
+            };
+        }
+
+        private static int slotAt(int[] position, int square) {
+            for (int slot = 0; slot < position.length; slot++) {
+                if (position[slot] == square) {
+                    return slot;
+                }
+            }
+            return NONE;
+        }
+
+        private static long occupancy(int[] position) {
+            long occupied = 0;
+            for (int square : position) {
+                occupied |= bit(square);
+            }
+            return occupied;
+        }
+
+        private int sideOf(int position) {
+            return position % (2 * size) < size ? 0 : 1;
+        }
+
+        private static Color colorOf(int side) {
+            return side == 0 ? Color.WHITE : Color.BLACK;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.chessmove.service.tablebase;
+
+import com.chessmove.util.Color;
+import com.chessmove.util.PieceType;
+
+import java.util.Arrays;
+
+import static com.chessmove.model.game.Bitboards.KING_ATTACKS;
+import static com.chessmove.model.game.Bitboards.bit;
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
+
+/**
+ * Maps the positions of one material set to consecutive table indexes and back, one index per position.
+ * <p>
+ * A position is given as the squares of its pieces by slot: the white king, the black king, then the other white
+ * and black pieces in {@link Material} order. Positions that are mirror images of each other have the same
+ * index. Without pawns, the board is turned or reflected (eight symmetries) until the white king stands in the
+ * a1-d1-d4 triangle, and if it stands on the a1-h8 diagonal, until the black king is on or below it. With pawns,
+ * only the left-right reflection keeps the rules unchanged, so the white king is brought to the a-d files. The
+ * two kings together then take one of the 462 (without pawns) or 1806 (with pawns) placements in which they do
+ * not touch.
+ * <p>
+ * Each king placement owns a block of indexes, one for every way to put the other pieces (at most two) on the
+ * squares left free: a piece ranks its square among the squares it may stand on besides the kings, a pawn never
+ * standing on the first or last rank, and a second piece among those squares besides the first piece. Two pieces
+ * of a kind take an unordered pair of squares. When both kings stand on the a1-h8 diagonal, reflecting the board
+ * in it keeps the kings in place, so only the placement of the other pieces that ranks lower than its reflection
+ * gets an index; these blocks are numbered through a table.
+ */
+final class TablebaseIndex {
+
+    private static final int SYMMETRIES = 8;
+    private static final int MIRROR_FILE = 1;
+    private static final int MIRROR_RANK = 2;
+    private static final int SWAP_DIAGONAL = 4;
+    // Pawns stand on a7 (square 8) to h2 (square 55)
+    private static final long PAWN_SQUARES = 0x00FFFFFFFFFFFF00L;
+    private static final long ALL_SQUARES = -1L;
+
+    // Square images under each symmetry
+    private static final int[][] TRANSFORMS = new int[SYMMETRIES][64];
+
+    static {
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            for (int square = 0; square < 64; square++) {
+                int file = col(square);
+                int rank = 7 - row(square);
+                if ((symmetry & SWAP_DIAGONAL) != 0) {
+                    int swapped = file;
+                    file = rank;
+                    rank = swapped;
+                }
+                if ((symmetry & MIRROR_FILE) != 0) {
+                    file = 7 - file;
+                }
+                if ((symmetry & MIRROR_RANK) != 0) {
+                    rank = 7 - rank;
+                }
+                TRANSFORMS[symmetry][square] = (7 - rank) * 8 + file;
+            }
+        }
+    }
+
+    // Built from the symmetries above, so declared after them
+    private static final KingPairs PAWNLESS = new KingPairs(false);
+    private static final KingPairs WITH_PAWNS = new KingPairs(true);
+
+    private final KingPairs kings;
+    private final int slots;
+    // The squares each slot may stand on, kings aside
+    private final long[] slotDomains;
+    // Of two pieces, the one with fewer squares (a pawn) is ranked first
+    private final int first;
+    private final int second;
+    private final boolean twins;
+    // The first index of each king placement, and the size after the last
+    private final int[] offsets;
+    // For the king placements on the a1-h8 diagonal: the index in the block by raw rank (-1 for the placements
+    // whose reflection ranks lower), and the raw rank by index in the block; null for the other placements
+    private final int[][] diagonalIndexes;
+    private final int[][] diagonalRanks;
+
+    TablebaseIndex(Material material) {
+        this.kings = material.hasPawns() ? WITH_PAWNS : PAWNLESS;
+        PieceType[] types = slotTypes(material);
+        Color[] colors = slotColors(material);
+        this.slots = types.length;
+        this.slotDomains = new long[slots];
+        for (int slot = 2; slot < slots; slot++) {
+            slotDomains[slot] = types[slot] == PieceType.PAWN ? PAWN_SQUARES : ALL_SQUARES;
+        }
+        boolean pawnLast = slots == 4 && slotDomains[3] == PAWN_SQUARES && slotDomains[2] != PAWN_SQUARES;
+        this.first = pawnLast ? 3 : 2;
+        this.second = pawnLast ? 2 : 3;
+        this.twins = slots == 4 && types[2] == types[3] && colors[2] == colors[3];
+        this.offsets = new int[kings.count + 1];
+        this.diagonalIndexes = new int[kings.count][];
+        this.diagonalRanks = new int[kings.count][];
+        int[] squares = new int[slots];
+        for (int kingIndex = 0; kingIndex < kings.count; kingIndex++) {
+            squares[0] = kings.whiteKings[kingIndex];
+            squares[1] = kings.blackKings[kingIndex];
+            int count = rankCount(bit(squares[0]) | bit(squares[1]));
+            if (kings == PAWNLESS && isOnDiagonal(squares[0]) && isOnDiagonal(squares[1])) {
+                count = tabulateDiagonal(kingIndex, squares, count);
+            }
+            offsets[kingIndex + 1] = offsets[kingIndex] + count;
+        }
+    }
+
+    // Keeps the placements that rank no higher than their reflection, returning how many there are
+    private int tabulateDiagonal(int kingIndex, int[] squares, int rankCount) {
+        long kingSquares = bit(squares[0]) | bit(squares[1]);
+        int[] indexes = new int[rankCount];
+        int[] ranks = new int[rankCount];
+        int count = 0;
+        for (int rank = 0; rank < rankCount; rank++) {
+            placement(rank, kingSquares, squares);
+            for (int slot = 2; slot < slots; slot++) {
+                squares[slot] = TRANSFORMS[SWAP_DIAGONAL][squares[slot]];
+            }
+            if (rank <= rank(squares, kingSquares)) {
+                indexes[rank] = count;
+                ranks[count++] = rank;
+            } else {
+                indexes[rank] = -1;
+            }
+        }
+        diagonalIndexes[kingIndex] = indexes;
+        diagonalRanks[kingIndex] = Arrays.copyOf(ranks, count);
+        return count;
+    }
+
+    /**
+     * Returns the piece types by slot: the two kings, then the white and the black pieces.
+     */
+    static PieceType[] slotTypes(Material material) {
+        PieceType[] white = material.getPieces(Color.WHITE);
+        PieceType[] black = material.getPieces(Color.BLACK);
+        PieceType[] types = new PieceType[2 + white.length + black.length];
+        types[0] = PieceType.KING;
+        types[1] = PieceType.KING;
+        System.arraycopy(white, 0, types, 2, white.length);
+        System.arraycopy(black, 0, types, 2 + white.length, black.length);
+        return types;
+    }
+
+    /**
+     * Returns the colors by slot, see {@link #slotTypes(Material)}.
+     */
+    static Color[] slotColors(Material material) {
+        int whitePieces = material.getPieces(Color.WHITE).length;
+        Color[] colors = new Color[material.pieceCount()];
+        for (int slot = 0; slot < colors.length; slot++) {
+            colors[slot] = slot == 0 || (slot >= 2 && slot < 2 + whitePieces) ? Color.WHITE : Color.BLACK;
+        }
+        return colors;
+    }
+
+    /**
+     * Returns the squares by slot of the same position seen from the other side: the board turned upside down and
+     * the colors swapped, as the {@link Material#flipped() flipped} material set orders its slots.
+     *
+     * @param material The material set the squares belong to
+     * @param squares  The squares by slot
+     * @return The squares by slot for the flipped material set
+     */
+    static int[] flipped(Material material, int[] squares) {
+        int whitePieces = material.getPieces(Color.WHITE).length;
+        int blackPieces = squares.length - 2 - whitePieces;
+        int[] flipped = new int[squares.length];
+        flipped[0] = squares[1] ^ 56;
+        flipped[1] = squares[0] ^ 56;
+        for (int i = 0; i < blackPieces; i++) {
+            flipped[2 + i] = squares[2 + whitePieces + i] ^ 56;
+        }
+        for (int i = 0; i < whitePieces; i++) {
+            flipped[2 + blackPieces + i] = squares[2 + i] ^ 56;
+        }
+        return flipped;
+    }
+
+    /**
+     * Returns the number of indexes for each side to move.
+     */
+    int size() {
+        return offsets[kings.count];
+    }
+
+    /**
+     * Returns the index of a position, or -1 if two pieces share a square, the kings touch or a pawn stands on the
+     * first or last rank.
+     *
+     * @param squares The squares by slot
+     */
+    int index(int[] squares) {
+        int symmetry = kings.symmetries[squares[0] * 64 + squares[1]];
+        int[] transformed = new int[squares.length];
+        for (int slot = 0; slot < squares.length; slot++) {
+            transformed[slot] = TRANSFORMS[symmetry][squares[slot]];
+        }
+        int kingIndex = kings.indexes[transformed[0] * 64 + transformed[1]];
+        if (kingIndex < 0) {
+            return -1;
+        }
+        long kingSquares = bit(transformed[0]) | bit(transformed[1]);
+        int rank = rank(transformed, kingSquares);
+        if (rank < 0) {
+            return -1;
+        }
+        int[] indexes = diagonalIndexes[kingIndex];
+        if (indexes != null) {
+            for (int slot = 2; slot < transformed.length; slot++) {
+                transformed[slot] = TRANSFORMS[SWAP_DIAGONAL][transformed[slot]];
+            }
+            rank = indexes[Math.min(rank, rank(transformed, kingSquares))];
+        }
+        return offsets[kingIndex] + rank;
+    }
+
+    /**
+     * Fills in the squares of the canonical position with the given index.
+     *
+     * @param index   The index, between 0 and {@link #size()}
+     * @param squares The squares by slot, to fill
+     */
+    void squares(int index, int[] squares) {
+        int kingIndex = Arrays.binarySearch(offsets, index);
+        if (kingIndex < 0) {
+            // Inside the block of the placement before the insertion point
+            kingIndex = -kingIndex - 2;
+        }
+        squares[0] = kings.whiteKings[kingIndex];
+        squares[1] = kings.blackKings[kingIndex];
+        int rank = index - offsets[kingIndex];
+        int[] ranks = diagonalRanks[kingIndex];
+        placement(ranks == null ? rank : ranks[rank], bit(squares[0]) | bit(squares[1]), squares);
+    }
+
+    // The number of ways to place the other pieces next to the given kings
+    private int rankCount(long kingSquares) {
+        if (slots == 2) {
+            return 1;
+        }
+        int firstSquares = Long.bitCount(slotDomains[first] & ~kingSquares);
+        if (slots == 3) {
+            return firstSquares;
+        }
+        // The first piece always stands on one of the second piece's squares
+        int secondSquares = Long.bitCount(slotDomains[second] & ~kingSquares) - 1;
+        return twins ? pairRank(0, firstSquares) : firstSquares * secondSquares;
+    }
+
+    // Ranks the placement of the other pieces next to the given kings, -1 if a piece stands on no square of its own
+    private int rank(int[] squares, long kingSquares) {
+        if (slots == 2) {
+            return 0;
+        }
+        int firstRank = squareRank(slotDomains[first] & ~kingSquares, squares[first]);
+        if (slots == 3 || firstRank < 0) {
+            return firstRank;
+        }
+        if (twins) {
+            int secondRank = squareRank(slotDomains[second] & ~kingSquares, squares[second]);
+            if (secondRank < 0 || secondRank == firstRank) {
+                return -1;
+            }
+            return firstRank < secondRank ? pairRank(firstRank, secondRank) : pairRank(secondRank, firstRank);
+        }
+        int secondRank = squareRank(slotDomains[second] & ~kingSquares & ~bit(squares[first]), squares[second]);
+        if (secondRank < 0) {
+            return -1;
+        }
+        return firstRank * (Long.bitCount(slotDomains[second] & ~kingSquares) - 1) + secondRank;
+    }
+
+    // Fills in the squares of the other pieces from their rank
+    private void placement(int rank, long kingSquares, int[] squares) {
+        if (slots == 2) {
+            return;
+        }
+        if (slots == 3) {
+            squares[first] = rankedSquare(slotDomains[first] & ~kingSquares, rank);
+            return;
+        }
+        if (twins) {
+            // The highest square whose pairs with the lower squares start at or before the rank
+            int high = (int) ((1 + Math.sqrt(1 + 8.0 * rank)) / 2);
+            while (pairRank(0, high) > rank) {
+                high--;
+            }
+            while (pairRank(0, high + 1) <= rank) {
+                high++;
+            }
+            squares[first] = rankedSquare(slotDomains[first] & ~kingSquares, rank - pairRank(0, high));
+            squares[second] = rankedSquare(slotDomains[second] & ~kingSquares, high);
+            return;
+        }
+        int secondSquares = Long.bitCount(slotDomains[second] & ~kingSquares) - 1;
+        squares[first] = rankedSquare(slotDomains[first] & ~kingSquares, rank / secondSquares);
+        squares[second] = rankedSquare(slotDomains[second] & ~kingSquares & ~bit(squares[first]),
+                rank % secondSquares);
+    }
+
+    // The rank of an unordered pair of distinct squares, given by their ranks
+    private static int pairRank(int low, int high) {
+        return high * (high - 1) / 2 + low;
+    }
+
+    // The number of free squares below the square, -1 if the square is not free
+    private static int squareRank(long free, int square) {
+        long squareBit = bit(square);
+        return (free & squareBit) == 0 ? -1 : Long.bitCount(free & (squareBit - 1));
+    }
+
+    // The free square with the given number of free squares below it
+    private static int rankedSquare(long free, int rank) {
+        for (int i = 0; i < rank; i++) {
+            free &= free - 1;
+        }
+        return Long.numberOfTrailingZeros(free);
+    }
+
+    private static boolean isOnDiagonal(int square) {
+        return 7 - row(square) == col(square);
+    }
+
+    /**
+     * The placements of the two kings that are not mirror images of each other, with the symmetry that brings any
+     * placement to one of them.
+     */
+    private static final class KingPairs {
+
+        private final int[] indexes = new int[64 * 64];
+        private final int[] symmetries = new int[64 * 64];
+        private final int[] whiteKings = new int[64 * 64];
+        private final int[] blackKings = new int[64 * 64];
+        private final int count;
+
+        KingPairs(boolean pawns) {
+            int symmetryCount = pawns ? 2 : SYMMETRIES;
+            int pairs = 0;
+            for (int whiteKing = 0; whiteKing < 64; whiteKing++) {
+                for (int blackKing = 0; blackKing < 64; blackKing++) {
+                    int pair = whiteKing * 64 + blackKing;
+                    indexes[pair] = -1;
+                    if (isCanonical(whiteKing, blackKing, pawns)
+                            && whiteKing != blackKing && (KING_ATTACKS[whiteKing] & bit(blackKing)) == 0) {
+                        indexes[pair] = pairs;
+                        whiteKings[pairs] = whiteKing;
+                        blackKings[pairs] = blackKing;
+                        pairs++;
+                    }
+                    for (int symmetry = 0; symmetry < symmetryCount; symmetry++) {
+                        if (isCanonical(TRANSFORMS[symmetry][whiteKing], TRANSFORMS[symmetry][blackKing], pawns)) {
+                            symmetries[pair] = symmetry;
+                            break;
+                        }
+                    }
+                }
+            }
+            this.count = pairs;
+        }
+
+        private static boolean isCanonical(int whiteKing, int blackKing, boolean pawns) {
+            int file = col(whiteKing);
+            int rank = 7 - row(whiteKing);
+            if (pawns) {
+                return file < 4;
+            }
+            if (file >= 4 || rank > file) {
+                return false;
+            }
+            // On the diagonal, the black king decides between the two reflections
+            return rank < file || 7 - row(blackKing) <= col(blackKing);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.chessmove.service.tablebase;
+
+import com.chessmove.model.game.PackedMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The exact result of an endgame position read from a table, for the side to move, with the moves that keep it.
+ */
+public class TablebaseResult {
+
+    /**
+     * The result for the side to move with best play on both sides.
+     */
+    public enum Outcome {
+        WIN, DRAW, LOSS
+    }
+
+    private final Outcome outcome;
+    private final int pliesToMate;
+    private final int[] bestMoves;
+
+    public TablebaseResult(Outcome outcome, int pliesToMate, int[] bestMoves) {
+        this.outcome = outcome;
+        this.pliesToMate = pliesToMate;
+        this.bestMoves = Arrays.copyOf(bestMoves, bestMoves.length);
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns the number of plies until mate with best play, counting both sides' moves, or 0 for a draw. A side
+     * that is mated already has 0 plies to mate.
+     *
+     * @return The distance to mate in plies
+     */
+    public int getPliesToMate() {
+        return pliesToMate;
+    }
+
+    /**
+     * Returns the number of moves of the winning side until mate, as in "mate in N", or 0 for a draw.
+     *
+     * @return The distance to mate in moves
+     */
+    public int getMovesToMate() {
+        return (pliesToMate + 1) / 2;
+    }
+
+    /**
+     * Returns the moves that keep the result as {@link PackedMove packed moves}: the ones that mate the quickest
+     * when winning, that hold out the longest when losing, and that keep the draw when drawing.
+     *
+     * @return The best moves in generation order, empty if the side to move has no move
+     */
+    public int[] getBestMoves() {
+        return Arrays.copyOf(bestMoves, bestMoves.length);
+    }
+
+    public List<String> getBestMovesUci() {
+        List<String> moves = new ArrayList<>(bestMoves.length);
+        for (int move : bestMoves) {
+            moves.add(PackedMove.toUci(move));
+        }
+        return moves;
+    }
+
+    public String getBestMoveUci() {
+        return bestMoves.length == 0 ? "-" : PackedMove.toUci(bestMoves[0]);
+    }
+}
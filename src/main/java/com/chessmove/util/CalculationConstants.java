@@ -17,8 +17,27 @@ public class CalculationConstants {
     public static final String AUTOMATIC_DRAW = "Draw";
     public static final String HELP_ONE_SWITCH = "-h";
     public static final String HELP_TWO_SWITCH = "--help";
+    public static final String PERFT_SWITCH = "--perft";
+    public static final String THREADS_SWITCH = "--threads";
+    public static final String HASH_SWITCH = "--hash";
+    public static final String SEARCH_SWITCH = "--search";
+    public static final String DEPTH_SWITCH = "--depth";
+    public static final String NODES_SWITCH = "--nodes";
+    public static final String TIME_SWITCH = "--time";
+    public static final String MATE_SWITCH = "--mate";
+    public static final String TABLEBASE_SWITCH = "--tablebase";
+    public static final String GENERATE_TABLEBASE_SWITCH = "--generate-tablebase";
+    public static final String BOOK_SWITCH = "--book";
+    public static final String BATCH_SWITCH = "--batch";
+    public static final String BATCH_FIELD_SEPARATOR = "\t";
+    public static final String BATCH_MOVE_SEPARATOR = ", ";
+    public static final String BATCH_OK = "ok";
+    public static final String BATCH_ERROR = "error";
+    public static final int DEFAULT_SEARCH_DEPTH = 6;
+    public static final int DEFAULT_SEARCH_HASH_MEGABYTES = 16;
     public static final String EMPTY_INPUT = "-";
     public static final int FIFTY_RULE_THRESHOLD = 50;
+    public static final int FIFTY_MOVE_RULE_PLIES = 100;
     public static final int TOTAL_PIECES = 16;
     public static final String WHITE = "w";
     public static final String BLACK = "b";
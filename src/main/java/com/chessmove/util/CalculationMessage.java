@@ -23,6 +23,21 @@ public class CalculationMessage {
     public static final String INVALID_PIECE_TYPE = "Invalid piece type: ";
     public static final String INVALID_FEN_CODE = "Invalid FEN code: {0}";
     public static final String INVALID_NUMBER_OF_ARGUMENTS = "Invalid number of arguments. Use {0} or {1} for usage instructions.";
+    public static final String INVALID_PERFT_ARGUMENTS = "Invalid perft arguments. Usage: {0} <DEPTH> \"<FEN_STRING>\" [{1} <THREADS>] [{2} <MEGABYTES>]";
+    public static final String INVALID_PERFT_DEPTH = "Invalid perft depth: {0}. The depth must be a non-negative whole number.";
+    public static final String INVALID_SEARCH_ARGUMENTS = "Invalid search arguments. Usage: {0} \"<FEN_STRING>\" [{1} <DEPTH>] [{2} <NODES>] [{3} <MILLISECONDS>] [{4} <MEGABYTES>] [{5} <THREADS>]";
+    public static final String INVALID_SEARCH_LIMIT = "Invalid search limit: {0}. Limits must be positive whole numbers.";
+    public static final String INVALID_MATE_ARGUMENTS = "Invalid mate arguments. Usage: {0} <MOVES> \"<FEN_STRING>\" [{1} <THREADS>]";
+    public static final String INVALID_MATE_LENGTH = "Invalid number of moves to mate: {0}. The number must be a whole number between 1 and 15.";
+    public static final String INVALID_TABLEBASE_ARGUMENTS = "Invalid tablebase arguments. Usage: {0} <DIRECTORY> \"<FEN_STRING>\" or {1} <DIRECTORY> <MATERIAL>...";
+    public static final String INVALID_MATERIAL = "Invalid material set: {0}. Use up to 4 pieces written like KQKR, kings included.";
+    public static final String INVALID_TABLEBASE_FILE = "Could not read or write the tablebase: {0}";
+    public static final String INVALID_BOOK_ARGUMENTS = "Invalid book arguments. Usage: {0} <BOOK_FILE> \"<FEN_STRING>\"";
+    public static final String INVALID_BOOK_FILE = "Could not read the opening book: {0}";
+    public static final String INVALID_BATCH_ARGUMENTS = "Invalid batch arguments. Usage: {0} [<FEN_FILE>] [{1} <THREADS>], reading standard input without a file or with {2}";
+    public static final String INVALID_BATCH_FILE = "Could not read the FEN file: {0}";
+    public static final String INVALID_HASH_SIZE = "Invalid hash table size: {0}. The size must be a positive whole number of megabytes.";
+    public static final String INVALID_THREAD_COUNT = "Invalid number of threads: {0}. The number of threads must be a positive whole number.";
 
     public static final String TOO_MANY_PIECES = "Too many pieces for ";
     public static final String TOO_MANY_SQUARES_IN_RANK = "Too many squares in rank ";
@@ -52,6 +67,81 @@ public class CalculationMessage {
             Current Board:
 
             {0}""";
+    public static final String DISPLAY_PERFT_DIVIDE = "{0}: {1}";
+    public static final String DISPLAY_PERFT_RESULT = """
+
+            Depth: {0}
+            Nodes searched: {1}
+            Time: {2} ms
+            Nodes per second: {3}
+            Threads: {4}
+            """;
+    public static final String DISPLAY_PERFT_HASH_USAGE = """
+            Hash hits: {0}
+            Hash misses: {1}
+            """;
+    public static final String DISPLAY_SEARCH_RESULT = """
+
+            Best move: {0}
+            Score: {1}
+            Depth: {2}
+            Principal variation: {3}
+            Nodes searched: {4}
+            Time: {5} ms
+            Nodes per second: {6}
+            Threads: {7}
+            """;
+    public static final String DISPLAY_MATE_LINE = """
+
+            Mate in {0}: {1}""";
+    public static final String DISPLAY_NO_MATE = """
+
+            No forced mate in {0} moves or fewer""";
+    public static final String DISPLAY_MATE_STATISTICS = """
+            Nodes searched: {0}
+            Time: {1} ms
+            Nodes per second: {2}
+            Threads: {3}
+            """;
+    public static final String DISPLAY_TABLEBASE_WIN = """
+
+            Tablebase: win, mate in {0} ({1} plies)
+            Best moves: {2}
+            """;
+    public static final String DISPLAY_TABLEBASE_LOSS = """
+
+            Tablebase: loss, mated in {0} ({1} plies)
+            Best moves: {2}
+            """;
+    public static final String DISPLAY_TABLEBASE_DRAW = """
+
+            Tablebase: draw
+            Best moves: {0}
+            """;
+    public static final String DISPLAY_TABLEBASE_NOT_COVERED = """
+
+            The tablebase does not cover this position. Positions with at most 4 pieces, kings included, without castling rights or en passant target are covered when {0} holds the table of their material set.""";
+    public static final String DISPLAY_TABLEBASE_WRITTEN = "Table written: {0}";
+    public static final String DISPLAY_TABLEBASE_GENERATION = """
+
+            Tables written: {0}
+            Time: {1} ms
+            """;
+    public static final String DISPLAY_BOOK_HEADER = """
+
+            Book moves:""";
+    public static final String DISPLAY_BOOK_MOVE = "{0}: weight {1} ({2}%)";
+    public static final String DISPLAY_NO_BOOK_MOVES = """
+
+            No book moves in {0}""";
+    public static final String DISPLAY_BATCH_RESULT = """
+
+            Positions: {0}
+            Errors: {1}
+            Time: {2} ms
+            Positions per second: {3}
+            Threads: {4}
+            """;
     public static final String DISPLAY_MOVES = """
             Possible moves for {0}: {1}.
             Total moves: {2}
@@ -1,9 +1,12 @@
 package com.chessmove.util;
 
 import com.chessmove.model.game.Board;
-import com.chessmove.model.piece.*;
+import com.chessmove.model.piece.Piece;
 import java.util.*;
 
+import static com.chessmove.model.game.Bitboards.NO_SQUARE;
+import static com.chessmove.model.game.Bitboards.col;
+import static com.chessmove.model.game.Bitboards.row;
 import static com.chessmove.util.CalculationConstants.BLACK;
 import static com.chessmove.util.CalculationConstants.EMPTY_INPUT;
 import static com.chessmove.util.CalculationConstants.FEN_SEPARATOR;
@@ -79,7 +82,10 @@ public class FENValidator {
 
         this.setFullMode(isFullMode(parts, turn, castlingAvailability, enPassantSquare, halfMove, fullMove));
 
-        this.board = new Board(grid, this.getEnPassantTarget(), this.getWhiteCastlingRights(), this.getBlackCastlingRights());
+        Color sideToMove = EMPTY_INPUT.equals(this.getActiveColor()) ? Color.WHITE : Color.fromName(this.getActiveColor());
+        this.board = new Board(grid, sideToMove, this.getEnPassantTarget(), this.getWhiteCastlingRights(),
+                this.getBlackCastlingRights(), parseClock(this.getHalfmoveClock(), 0),
+                parseClock(this.getFullmoveNumber(), 1));
         this.setBoard(board);
 
         validateKingsNotInCheck(board);
@@ -111,6 +117,21 @@ public class FENValidator {
         return ret.toString().isEmpty() ? EMPTY_INPUT : ret.toString();
     }
 
+    /**
+     * Converts a parsed halfmove clock or fullmove number into an int.
+     *
+     * @param clock        The parsed value, or {@code -} when unknown
+     * @param defaultValue The value to use when the clock is unknown or out of range
+     * @return The clock value
+     */
+    public static int parseClock(String clock, int defaultValue) {
+        try {
+            return EMPTY_INPUT.equals(clock) ? defaultValue : Integer.parseInt(clock);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     private void parseActiveColor(String color) throws InvalidFENException {
         switch (color.toLowerCase()) {
             case WHITE -> this.setActiveColor(Color.WHITE.getColorName());
@@ -169,29 +190,21 @@ public class FENValidator {
     }
 
     public static boolean isKingInCheck(Board board, Color kingColor) {
-        int[] kingPosition = findKingPosition(board, kingColor);
-        if (kingPosition[0] == -1 && kingPosition[1] == -1) {
+        int kingSquare = board.getKingSquare(kingColor);
+        if (kingSquare == NO_SQUARE) {
             // King not found (should not happen)
             return true;
         }
 
-        int kingRow = kingPosition[0];
-        int kingCol = kingPosition[1];
-
-        return board.squareUnderAttack(kingRow, kingCol, Color.getOppositeColor(kingColor));
+        return board.isSquareAttacked(kingSquare, Color.getOppositeColor(kingColor));
     }
 
     public static int[] findKingPosition(Board board, Color kingColor) {
-        Piece[][] grid = board.getSquares();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = grid[row][col];
-                if (piece != null && piece.getColor() == kingColor && piece.getType() == PieceType.KING) {
-                    return new int[]{row, col}; // Return the position as an array [row, col]
-                }
-            }
+        int kingSquare = board.getKingSquare(kingColor);
+        if (kingSquare == NO_SQUARE) {
+            return new int[]{-1, -1}; // King not found
         }
-        return new int[]{-1, -1}; // King not found
+        return new int[]{row(kingSquare), col(kingSquare)}; // Return the position as an array [row, col]
     }
 
     private void validateBoard(String[] ranks, Map<Color, Map<PieceType, Integer>> pieceCounts, int[] totalPieces,
@@ -327,12 +340,12 @@ public class FENValidator {
     private Piece getPieceFromChar(char c) throws InvalidFENException {
         Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
         return switch (Character.toUpperCase(c)) {
-            case 'K' -> new King(color);
-            case 'Q' -> new Queen(color);
-            case 'R' -> new Rook(color);
-            case 'B' -> new Bishop(color);
-            case 'N' -> new Knight(color);
-            case 'P' -> new Pawn(color);
+            case 'K' -> Piece.of(PieceType.KING, color);
+            case 'Q' -> Piece.of(PieceType.QUEEN, color);
+            case 'R' -> Piece.of(PieceType.ROOK, color);
+            case 'B' -> Piece.of(PieceType.BISHOP, color);
+            case 'N' -> Piece.of(PieceType.KNIGHT, color);
+            case 'P' -> Piece.of(PieceType.PAWN, color);
             default -> throw new InvalidFENException(INVALID_PIECE_TYPE + c);
         };
     }
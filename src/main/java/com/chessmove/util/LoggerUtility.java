@@ -4,6 +4,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.logging.ConsoleHandler;
@@ -14,18 +15,57 @@ import java.util.logging.Level;
 import java.util.logging.SimpleFormatter;
 import java.util.stream.Collectors;
 
+import static com.chessmove.util.CalculationConstants.BATCH_SWITCH;
+import static com.chessmove.util.CalculationConstants.BOOK_SWITCH;
+import static com.chessmove.util.CalculationConstants.DEPTH_SWITCH;
+import static com.chessmove.util.CalculationConstants.EMPTY_INPUT;
+import static com.chessmove.util.CalculationConstants.GENERATE_TABLEBASE_SWITCH;
+import static com.chessmove.util.CalculationConstants.HASH_SWITCH;
 import static com.chessmove.util.CalculationConstants.HELP_ONE_SWITCH;
 import static com.chessmove.util.CalculationConstants.HELP_TWO_SWITCH;
 import static com.chessmove.util.CalculationConstants.LINE_BREAK;
+import static com.chessmove.util.CalculationConstants.MATE_SWITCH;
+import static com.chessmove.util.CalculationConstants.NODES_SWITCH;
+import static com.chessmove.util.CalculationConstants.PERFT_SWITCH;
+import static com.chessmove.util.CalculationConstants.SEARCH_SWITCH;
+import static com.chessmove.util.CalculationConstants.TABLEBASE_SWITCH;
+import static com.chessmove.util.CalculationConstants.THREADS_SWITCH;
+import static com.chessmove.util.CalculationConstants.TIME_SWITCH;
 import static com.chessmove.util.CalculationMessage.COULD_NOT_READ_HELP_MESSAGE_FROM_FILE;
 import static com.chessmove.util.CalculationMessage.DISPLAY_ADDITIONAL_SETTINGS;
+import static com.chessmove.util.CalculationMessage.DISPLAY_BATCH_RESULT;
 import static com.chessmove.util.CalculationMessage.DISPLAY_BOARD;
+import static com.chessmove.util.CalculationMessage.DISPLAY_BOOK_HEADER;
+import static com.chessmove.util.CalculationMessage.DISPLAY_BOOK_MOVE;
+import static com.chessmove.util.CalculationMessage.DISPLAY_MATE_LINE;
+import static com.chessmove.util.CalculationMessage.DISPLAY_MATE_STATISTICS;
 import static com.chessmove.util.CalculationMessage.DISPLAY_MOVES;
+import static com.chessmove.util.CalculationMessage.DISPLAY_NO_BOOK_MOVES;
+import static com.chessmove.util.CalculationMessage.DISPLAY_NO_MATE;
+import static com.chessmove.util.CalculationMessage.DISPLAY_PERFT_DIVIDE;
+import static com.chessmove.util.CalculationMessage.DISPLAY_PERFT_HASH_USAGE;
+import static com.chessmove.util.CalculationMessage.DISPLAY_PERFT_RESULT;
+import static com.chessmove.util.CalculationMessage.DISPLAY_SEARCH_RESULT;
 import static com.chessmove.util.CalculationMessage.DISPLAY_STANDARD_SETTINGS;
+import static com.chessmove.util.CalculationMessage.DISPLAY_TABLEBASE_DRAW;
+import static com.chessmove.util.CalculationMessage.DISPLAY_TABLEBASE_GENERATION;
+import static com.chessmove.util.CalculationMessage.DISPLAY_TABLEBASE_LOSS;
+import static com.chessmove.util.CalculationMessage.DISPLAY_TABLEBASE_NOT_COVERED;
+import static com.chessmove.util.CalculationMessage.DISPLAY_TABLEBASE_WIN;
+import static com.chessmove.util.CalculationMessage.DISPLAY_TABLEBASE_WRITTEN;
 import static com.chessmove.util.CalculationMessage.ERROR_LOADING_HELP_MESSAGE;
 import static com.chessmove.util.CalculationMessage.HELP_MESSAGE;
+import static com.chessmove.util.CalculationMessage.INVALID_BATCH_ARGUMENTS;
+import static com.chessmove.util.CalculationMessage.INVALID_BATCH_FILE;
+import static com.chessmove.util.CalculationMessage.INVALID_BOOK_ARGUMENTS;
+import static com.chessmove.util.CalculationMessage.INVALID_BOOK_FILE;
 import static com.chessmove.util.CalculationMessage.INVALID_FEN_CODE;
+import static com.chessmove.util.CalculationMessage.INVALID_MATE_ARGUMENTS;
 import static com.chessmove.util.CalculationMessage.INVALID_NUMBER_OF_ARGUMENTS;
+import static com.chessmove.util.CalculationMessage.INVALID_PERFT_ARGUMENTS;
+import static com.chessmove.util.CalculationMessage.INVALID_SEARCH_ARGUMENTS;
+import static com.chessmove.util.CalculationMessage.INVALID_TABLEBASE_ARGUMENTS;
+import static com.chessmove.util.CalculationMessage.INVALID_TABLEBASE_FILE;
 import static com.chessmove.util.CalculationMessage.NO_POSSIBLE_MOVES;
 
 public class LoggerUtility {
@@ -78,6 +118,48 @@ public class LoggerUtility {
         LOGGER.log(Level.WARNING, INVALID_NUMBER_OF_ARGUMENTS, new Object[]{HELP_ONE_SWITCH, HELP_TWO_SWITCH});
     }
 
+    public static void displayInvalidPerftArguments() {
+        LOGGER.log(Level.WARNING, INVALID_PERFT_ARGUMENTS, new Object[]{PERFT_SWITCH, THREADS_SWITCH, HASH_SWITCH});
+    }
+
+    public static void displayInvalidSearchArguments() {
+        LOGGER.log(Level.WARNING, INVALID_SEARCH_ARGUMENTS,
+                new Object[]{SEARCH_SWITCH, DEPTH_SWITCH, NODES_SWITCH, TIME_SWITCH, HASH_SWITCH, THREADS_SWITCH});
+    }
+
+    public static void displayInvalidMateArguments() {
+        LOGGER.log(Level.WARNING, INVALID_MATE_ARGUMENTS, new Object[]{MATE_SWITCH, THREADS_SWITCH});
+    }
+
+    public static void displayInvalidTablebaseArguments() {
+        LOGGER.log(Level.WARNING, INVALID_TABLEBASE_ARGUMENTS,
+                new Object[]{TABLEBASE_SWITCH, GENERATE_TABLEBASE_SWITCH});
+    }
+
+    public static void displayInvalidTablebaseFile(String reason) {
+        LOGGER.log(Level.WARNING, INVALID_TABLEBASE_FILE, reason);
+    }
+
+    public static void displayInvalidBookArguments() {
+        LOGGER.log(Level.WARNING, INVALID_BOOK_ARGUMENTS, BOOK_SWITCH);
+    }
+
+    public static void displayInvalidBookFile(String reason) {
+        LOGGER.log(Level.WARNING, INVALID_BOOK_FILE, reason);
+    }
+
+    public static void displayInvalidBatchArguments() {
+        LOGGER.log(Level.WARNING, INVALID_BATCH_ARGUMENTS, new Object[]{BATCH_SWITCH, THREADS_SWITCH, EMPTY_INPUT});
+    }
+
+    public static void displayInvalidBatchFile(String reason) {
+        LOGGER.log(Level.WARNING, INVALID_BATCH_FILE, reason);
+    }
+
+    public static void displayInvalidNumber(String message, String number) {
+        LOGGER.log(Level.WARNING, message, number);
+    }
+
     public static void displayBoard(String board) {
         SIMPLE_LOGGER.log(Level.INFO, DISPLAY_BOARD, board);
     }
@@ -110,6 +192,99 @@ public class LoggerUtility {
                 new Object[]{color.getColorName(), moveDescriptions.get(0)});
     }
 
+    public static void displayPerftDivide(Map<String, Long> divide) {
+        // Counts are passed as strings so that they are printed without grouping separators
+        divide.forEach((move, nodes) -> SIMPLE_LOGGER.log(Level.INFO, DISPLAY_PERFT_DIVIDE,
+                new Object[]{move, String.valueOf(nodes)}));
+    }
+
+    public static void displayPerftResult(int depth, long nodes, long elapsedMillis, long nodesPerSecond,
+                                          int threads) {
+        SIMPLE_LOGGER.log(Level.INFO,
+                DISPLAY_PERFT_RESULT,
+                new Object[]{String.valueOf(depth), String.valueOf(nodes), String.valueOf(elapsedMillis),
+                        String.valueOf(nodesPerSecond), String.valueOf(threads)});
+    }
+
+    public static void displayPerftHashUsage(long hits, long misses) {
+        SIMPLE_LOGGER.log(Level.INFO,
+                DISPLAY_PERFT_HASH_USAGE,
+                new Object[]{String.valueOf(hits), String.valueOf(misses)});
+    }
+
+    public static void displaySearchResult(String bestMove, String score, int depth, List<String> principalVariation,
+                                           long nodes, long elapsedMillis, long nodesPerSecond, int threads) {
+        SIMPLE_LOGGER.log(Level.INFO,
+                DISPLAY_SEARCH_RESULT,
+                new Object[]{bestMove, score, String.valueOf(depth), String.join(" ", principalVariation),
+                        String.valueOf(nodes), String.valueOf(elapsedMillis), String.valueOf(nodesPerSecond),
+                        String.valueOf(threads)});
+    }
+
+    public static void displayMateLine(int mateIn, List<String> line) {
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_MATE_LINE, new Object[]{String.valueOf(mateIn), String.join(" ", line)});
+    }
+
+    public static void displayNoMate(int maxMoves) {
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_NO_MATE, String.valueOf(maxMoves));
+    }
+
+    public static void displayMateStatistics(long nodes, long elapsedMillis, long nodesPerSecond, int threads) {
+        SIMPLE_LOGGER.log(Level.INFO,
+                DISPLAY_MATE_STATISTICS,
+                new Object[]{String.valueOf(nodes), String.valueOf(elapsedMillis), String.valueOf(nodesPerSecond),
+                        String.valueOf(threads)});
+    }
+
+    public static void displayTablebaseWin(int movesToMate, int pliesToMate, List<String> bestMoves) {
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_TABLEBASE_WIN,
+                new Object[]{String.valueOf(movesToMate), String.valueOf(pliesToMate), String.join(" ", bestMoves)});
+    }
+
+    public static void displayTablebaseLoss(int movesToMate, int pliesToMate, List<String> bestMoves) {
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_TABLEBASE_LOSS,
+                new Object[]{String.valueOf(movesToMate), String.valueOf(pliesToMate), String.join(" ", bestMoves)});
+    }
+
+    public static void displayTablebaseDraw(List<String> bestMoves) {
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_TABLEBASE_DRAW, String.join(" ", bestMoves));
+    }
+
+    public static void displayTablebaseNotCovered(String directory) {
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_TABLEBASE_NOT_COVERED, directory);
+    }
+
+    public static void displayTablebaseWritten(String file) {
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_TABLEBASE_WRITTEN, file);
+    }
+
+    public static void displayTablebaseGeneration(int tables, long elapsedMillis) {
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_TABLEBASE_GENERATION,
+                new Object[]{String.valueOf(tables), String.valueOf(elapsedMillis)});
+    }
+
+    public static void displayBookMoves(List<String> moves, List<Integer> weights) {
+        int totalWeight = weights.stream().mapToInt(Integer::intValue).sum();
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_BOOK_HEADER);
+        for (int i = 0; i < moves.size(); i++) {
+            long percent = totalWeight == 0 ? 0 : Math.round(100.0 * weights.get(i) / totalWeight);
+            SIMPLE_LOGGER.log(Level.INFO, DISPLAY_BOOK_MOVE,
+                    new Object[]{moves.get(i), String.valueOf(weights.get(i)), String.valueOf(percent)});
+        }
+    }
+
+    public static void displayNoBookMoves(String book) {
+        SIMPLE_LOGGER.log(Level.INFO, DISPLAY_NO_BOOK_MOVES, book);
+    }
+
+    public static void displayBatchResult(int positions, int errors, long elapsedMillis, long positionsPerSecond,
+                                          int threads) {
+        SIMPLE_LOGGER.log(Level.INFO,
+                DISPLAY_BATCH_RESULT,
+                new Object[]{String.valueOf(positions), String.valueOf(errors), String.valueOf(elapsedMillis),
+                        String.valueOf(positionsPerSecond), String.valueOf(threads)});
+    }
+
     public static void displayHelp() {
         LOGGER.info(LoggerUtility::logHelpMessage);
     }
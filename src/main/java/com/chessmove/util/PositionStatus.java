@@ -0,0 +1,9 @@
+package com.chessmove.util;
+
+public enum PositionStatus {
+    ONGOING,
+    CHECKMATE,
+    STALEMATE,
+    INSUFFICIENT_MATERIAL,
+    FIFTY_MOVE_RULE
+}
@@ -159,7 +159,7 @@ class ChessMoveCalculatorTest {
 
     @Test
     void testCaptureMoveWithDescription() throws InvalidFENException {
-        String fen = "rnbqkbnr/ppppppp1/8/8/8/4P3/PPP1PpP1/RNBQKBNR w KQkq - 0 1"; // White rook at h1 can capture black at h8
+        String fen = "rnbqkbnr/ppppppp1/8/8/8/4Pp2/PPP1P1P1/RNBQKBNR w KQkq - 0 1"; // White rook at h1 can capture black at h8
         ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
 
         // Run the logic
@@ -2,13 +2,20 @@ package com.chessmove.model;
 
 import com.chessmove.model.game.Board;
 import com.chessmove.model.game.Move;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.PieceSquareTables;
+import com.chessmove.model.game.Zobrist;
+import com.chessmove.model.piece.Piece;
 import com.chessmove.service.ChessMoveCalculatorService;
 import com.chessmove.util.Color;
 import com.chessmove.util.FENValidator;
 import com.chessmove.util.InvalidFENException;
+import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -98,6 +105,38 @@ class BoardTest {
         assertFalse(isUnderAttack, "Black queen's starting square should not be under attack initially");
     }
 
+    @Test
+    void testKnightAndPawnChecksAreDetected() throws InvalidFENException {
+        // Black king on e8 checked by a knight on d6
+        Board knightCheck = createBoardFromFEN("4k3/8/3N4/8/8/8/8/4K3 b - - 0 1");
+        assertTrue(knightCheck.squareUnderAttack(0, 4, Color.WHITE), "The knight on d6 should attack e8");
+        assertTrue(FENValidator.isKingInCheck(knightCheck, Color.BLACK), "Black should be in check from the knight");
+
+        // White king on e1 checked by a pawn on d2
+        Board pawnCheck = createBoardFromFEN("4k3/8/8/8/8/8/3p4/4K3 w - - 0 1");
+        assertTrue(pawnCheck.squareUnderAttack(7, 4, Color.BLACK), "The pawn on d2 should attack e1");
+        assertTrue(FENValidator.isKingInCheck(pawnCheck, Color.WHITE), "White should be in check from the pawn");
+
+        // With both checks on the board at once the position is rejected
+        assertThrows(InvalidFENException.class, () -> new FENValidator("4k3/8/3N4/8/8/8/3p4/4K3"),
+                "Both kings cannot be in check at the same time");
+    }
+
+    @Test
+    void testAttackersTo() throws InvalidFENException {
+        // The e5 square is attacked by the knight on f3, the pawn on d4, the rook on e1 and the bishop on b8
+        Board board = createBoardFromFEN("1B2k3/4p3/8/8/3P4/5N2/8/4R1K1 w - - 0 1");
+        int e5 = 3 * 8 + 4;
+
+        long attackers = board.attackersTo(e5, Color.WHITE);
+        assertEquals(4, Long.bitCount(attackers), "Four white pieces should attack e5");
+        assertTrue(board.isSquareAttacked(e5, Color.WHITE), "e5 should be attacked by white");
+        assertEquals(0, board.attackersTo(e5, Color.BLACK), "No black piece should attack e5");
+
+        // A defended piece counts as attacked: the rook on e1 protects the king's neighbour f1
+        assertTrue(board.isSquareAttacked(7 * 8 + 5, Color.WHITE), "f1 should be covered by the rook and the king");
+    }
+
     @Test
     void testIsEmpty() throws InvalidFENException {
         String fen = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR";
@@ -113,4 +152,216 @@ class BoardTest {
         assertTrue(board.isEnemyPiece(0, 0, Color.WHITE), "Black rook at a8 should be an enemy piece for white");
         assertFalse(board.isEnemyPiece(7, 0, Color.WHITE), "White rook at a1 should not be an enemy piece for white");
     }
+
+    @Test
+    void testBitboardsMatchSquares() throws InvalidFENException {
+        String fen = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR";
+        Board board = createBoardFromFEN(fen);
+
+        assertEquals(0xFFFFL, board.getOccupancy(Color.BLACK), "Black pieces should occupy the first two rows");
+        assertEquals(0xFFFFL << 48, board.getOccupancy(Color.WHITE), "White pieces should occupy the last two rows");
+        assertEquals(0xFFL << 48, board.getPieces(PieceType.PAWN, Color.WHITE), "White pawns should be on the second rank");
+        assertEquals(1L << 60, board.getPieces(PieceType.KING, Color.WHITE), "White king should be on e1");
+        assertEquals(32, Long.bitCount(board.getOccupied()), "There should be 32 pieces on the board");
+    }
+
+    @Test
+    void testMakeAndUnmakeMoveKeepsViewsInSync() throws InvalidFENException {
+        String fen = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+        Board board = createBoardFromFEN(fen);
+        Board copy = board.copy();
+
+        Move move = new Move(6, 4, 4, 4); // e2 to e4
+        copy.makeMove(move);
+
+        assertTrue(copy.isEmpty(6, 4), "e2 should be empty after the pawn left it");
+        assertFalse(copy.isEmpty(4, 4), "e4 should be occupied after the pawn arrived");
+        assertNotNull(copy.getSquares()[4][4], "The grid view should follow the bitboards");
+        assertEquals("e3", copy.getEnPassantTarget(), "A double pawn push should set the en-passant target");
+        assertEquals(Color.BLACK, copy.getSideToMove(), "Black should be to move after white's move");
+        assertFalse(board.isEmpty(6, 4), "The original board should not be affected by changes to its copy");
+
+        copy.unmakeMove(move);
+        assertFalse(copy.isEmpty(6, 4), "e2 should be occupied again after unmaking the move");
+        assertTrue(copy.isEmpty(4, 4), "e4 should be empty again after unmaking the move");
+        assertEquals("-", copy.getEnPassantTarget(), "The en-passant target should be restored");
+        assertEquals(Color.WHITE, copy.getSideToMove(), "White should be to move again");
+    }
+
+    @Test
+    void testMakeAndUnmakeCastling() throws InvalidFENException {
+        String fen = "r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R w KQkq - 0 1";
+        Board board = createBoardFromFEN(fen);
+
+        Move castling = new Move(7, 4, 7, 6, MoveType.CASTLING); // e1 to g1
+        board.makeMove(castling);
+
+        assertEquals(PieceType.ROOK, board.getPieceAt(7, 5).getType(), "The rook should land on f1");
+        assertTrue(board.isEmpty(7, 7), "h1 should be empty after castling");
+        assertTrue(board.getWhiteCastlingRights().isEmpty(), "White should lose both castling rights");
+        assertEquals(Set.of("k", "q"), board.getBlackCastlingRights(), "Black castling rights should be kept");
+
+        board.unmakeMove(castling);
+        assertEquals(PieceType.ROOK, board.getPieceAt(7, 7).getType(), "The rook should be back on h1");
+        assertEquals(PieceType.KING, board.getPieceAt(7, 4).getType(), "The king should be back on e1");
+        assertEquals(Set.of("K", "Q"), board.getWhiteCastlingRights(), "White castling rights should be restored");
+    }
+
+    @Test
+    void testMakeAndUnmakeEnPassant() throws InvalidFENException {
+        String fen = "rnbqkbnr/pppp1ppp/8/4pP2/8/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 3";
+        Board board = createBoardFromFEN(fen);
+
+        Move enPassant = new Move(3, 5, 2, 4, MoveType.EN_PASSANT); // f5 takes e6
+        board.makeMove(enPassant);
+
+        assertTrue(board.isEmpty(3, 4), "The captured pawn on e5 should be removed");
+        assertEquals(PieceType.PAWN, board.getPieceAt(2, 4).getType(), "The capturing pawn should land on e6");
+        assertEquals(0, board.getHalfmoveClock(), "A capture should reset the halfmove clock");
+
+        board.unmakeMove(enPassant);
+        assertEquals(Color.BLACK, board.getPieceAt(3, 4).getColor(), "The black pawn should be back on e5");
+        assertEquals(Color.WHITE, board.getPieceAt(3, 5).getColor(), "The white pawn should be back on f5");
+        assertTrue(board.isEmpty(2, 4), "e6 should be empty again");
+        assertEquals("e6", board.getEnPassantTarget(), "The en-passant target should be restored");
+    }
+
+    @Test
+    void testZobristKeyMatchesRecomputedKeyAfterEveryMove() throws InvalidFENException {
+        // Kiwipete has castling, en-passant and promotion-free captures in its first two plies
+        Board board = createBoardFromFEN("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        long initialKey = board.getZobristKey();
+        assertEquals(Zobrist.computeKey(board), initialKey, "The FEN board should start with a from-scratch key");
+
+        for (Move move : MoveGenerator.generateLegalMoves(board, Color.WHITE)) {
+            board.makeMove(move);
+            assertEquals(Zobrist.computeKey(board), board.getZobristKey(), "Incremental key differs after " + move);
+            for (Move reply : MoveGenerator.generateLegalMoves(board, Color.BLACK)) {
+                board.makeMove(reply);
+                assertEquals(Zobrist.computeKey(board), board.getZobristKey(), "Incremental key differs after " + reply);
+                board.unmakeMove(reply);
+            }
+            board.unmakeMove(move);
+        }
+        assertEquals(initialKey, board.getZobristKey(), "Unmaking every move should restore the original key");
+    }
+
+    @Test
+    void testPieceSquareScoreMatchesRecomputedScoreAfterEveryMove() throws InvalidFENException {
+        Board board = createBoardFromFEN("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        int initialScore = board.getPieceSquareScore();
+        assertEquals(PieceSquareTables.computeScore(board), initialScore, "The FEN board should start with a from-scratch score");
+        assertEquals(PieceSquareTables.MAX_PHASE, board.getPhase(), "No minor or major piece has been traded yet");
+
+        for (Move move : MoveGenerator.generateLegalMoves(board, Color.WHITE)) {
+            board.makeMove(move);
+            assertEquals(PieceSquareTables.computeScore(board), board.getPieceSquareScore(), "Incremental score differs after " + move);
+            for (Move reply : MoveGenerator.generateLegalMoves(board, Color.BLACK)) {
+                board.makeMove(reply);
+                assertEquals(PieceSquareTables.computeScore(board), board.getPieceSquareScore(), "Incremental score differs after " + reply);
+                board.unmakeMove(reply);
+            }
+            board.unmakeMove(move);
+        }
+        assertEquals(initialScore, board.getPieceSquareScore(), "Unmaking every move should restore the original score");
+
+        board.makeNullMove();
+        assertEquals(initialScore, board.getPieceSquareScore(), "A null move should not change the score");
+        board.unmakeNullMove();
+    }
+
+    @Test
+    void testPieceSquareScoreIsTapered() throws InvalidFENException {
+        Board start = createBoardFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        assertEquals(0, start.getPieceSquareScore(), "The starting position should be balanced");
+
+        // The same king and pawn ending with the colors swapped should score the opposite
+        Board ending = createBoardFromFEN("8/8/4k3/8/8/4K3/4P3/8 w - - 0 1");
+        Board mirrored = createBoardFromFEN("8/4p3/4k3/8/8/4K3/8/8 w - - 0 1");
+        assertEquals(0, ending.getPhase(), "Kings and pawns only should be a pure endgame");
+        assertEquals(-ending.getPieceSquareScore(), mirrored.getPieceSquareScore(), "The score should be color-symmetric");
+
+        // A promotion adds its phase weight
+        Board promotion = createBoardFromFEN("8/P6k/8/8/8/8/8/K7 w - - 0 1");
+        promotion.makeMove(new Move(1, 0, 0, 0, MoveType.NORMAL, null, PieceType.QUEEN));
+        assertEquals(4, promotion.getPhase(), "The new queen should count in the phase");
+        assertEquals(PieceSquareTables.computeScore(promotion), promotion.getPieceSquareScore(), "The promoted queen should be scored");
+    }
+
+    @Test
+    void testZobristKeyPromotion() throws InvalidFENException {
+        Board board = createBoardFromFEN("8/P6k/8/8/8/8/8/K7 w - - 0 1");
+        Move promotion = new Move(1, 0, 0, 0, MoveType.NORMAL, null, PieceType.KNIGHT);
+        board.makeMove(promotion);
+        assertEquals(Zobrist.computeKey(board), board.getZobristKey(), "The promoted piece should be hashed");
+    }
+
+    @Test
+    void testZobristKeyTransposition() throws InvalidFENException {
+        Board board = createBoardFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        long startKey = board.getZobristKey();
+
+        // Knights out and back again reach the starting position
+        board.makeMove(new Move(7, 6, 5, 5, MoveType.NORMAL)); // Ng1-f3
+        board.makeMove(new Move(0, 6, 2, 5, MoveType.NORMAL)); // Ng8-f6
+        board.makeMove(new Move(5, 5, 7, 6, MoveType.NORMAL)); // Nf3-g1
+        assertFalse(board.isRepetition(), "Nf3-g1 does not repeat an earlier position");
+        board.makeMove(new Move(2, 5, 0, 6, MoveType.NORMAL)); // Nf6-g8
+        assertEquals(startKey, board.getZobristKey(), "The same position should have the same key");
+        assertTrue(board.isRepetition(), "Returning to the starting position should be a repetition");
+
+        Board blackToMove = createBoardFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 1");
+        assertNotEquals(startKey, blackToMove.getZobristKey(), "The side to move should change the key");
+        Board noCastling = createBoardFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        assertNotEquals(startKey, noCastling.getZobristKey(), "The castling rights should change the key");
+        Board enPassant = createBoardFromFEN("rnbqkbnr/pppp1ppp/8/4pP2/8/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 3");
+        Board noEnPassant = createBoardFromFEN("rnbqkbnr/pppp1ppp/8/4pP2/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3");
+        assertNotEquals(noEnPassant.getZobristKey(), enPassant.getZobristKey(), "The en-passant file should change the key");
+    }
+
+    @Test
+    void testNullMove() throws InvalidFENException {
+        Board board = createBoardFromFEN("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2");
+        long key = board.getZobristKey();
+
+        board.makeNullMove();
+        assertEquals(Color.BLACK, board.getSideToMove(), "The turn should pass to black");
+        assertEquals(-1, board.getEnPassantSquare(), "The en-passant target should be cleared");
+        assertEquals(Zobrist.computeKey(board), board.getZobristKey(), "The key should follow the null move");
+
+        board.unmakeNullMove();
+        assertEquals(Color.WHITE, board.getSideToMove(), "The turn should be back to white");
+        assertEquals(key, board.getZobristKey(), "The key should be restored");
+        assertEquals(2 * 8 + 4, board.getEnPassantSquare(), "The en-passant target should be restored");
+    }
+
+    @Test
+    void testKingSquaresFollowMoves() throws InvalidFENException {
+        Board board = createBoardFromFEN("r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R w KQkq - 0 1");
+        assertEquals(7 * 8 + 4, board.getKingSquare(Color.WHITE), "The white king should start on e1");
+        assertEquals(4, board.getKingSquare(Color.BLACK), "The black king should start on e8");
+
+        Move castling = new Move(7, 4, 7, 2, MoveType.CASTLING); // e1 to c1
+        board.makeMove(castling);
+        assertEquals(7 * 8 + 2, board.getKingSquare(Color.WHITE), "The white king should be tracked to c1");
+
+        board.unmakeMove(castling);
+        assertEquals(7 * 8 + 4, board.getKingSquare(Color.WHITE), "The white king should be back on e1");
+        assertEquals(4, board.getKingSquare(Color.BLACK), "The black king should not move");
+    }
+
+    @Test
+    void testPiecesAreSharedInstances() throws InvalidFENException {
+        Board board = createBoardFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+
+        assertSame(Piece.of(PieceType.ROOK, Color.WHITE), board.getPieceAt(7, 0), "a1 should hold the shared white rook");
+        assertSame(board.getPieceAt(7, 0), board.getPieceAt(7, 7), "Both white rooks should be the same instance");
+        assertSame(board.getPieceAt(1, 0), board.getPieceAt(1, 7), "All black pawns should be the same instance");
+        assertNotSame(board.getPieceAt(7, 0), board.getPieceAt(0, 0), "Rooks of different colors should differ");
+
+        Board promotion = createBoardFromFEN("8/P6k/8/8/8/8/8/K7 w - - 0 1");
+        promotion.makeMove(new Move(1, 0, 0, 0, MoveType.NORMAL, null, PieceType.QUEEN));
+        assertSame(Piece.of(PieceType.QUEEN, Color.WHITE), promotion.getPieceAt(0, 0),
+                "A promotion should place the shared queen");
+    }
 }
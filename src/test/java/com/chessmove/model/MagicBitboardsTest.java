@@ -0,0 +1,62 @@
+package com.chessmove.model;
+
+import com.chessmove.model.game.MagicBitboards;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MagicBitboardsTest {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    // Reference implementation walking the rays one square at a time
+    private long walkRays(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] dir : directions) {
+            int row = square / 8 + dir[0];
+            int col = square % 8 + dir[1];
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                long target = 1L << (row * 8 + col);
+                attacks |= target;
+                if ((occupied & target) != 0) {
+                    break;
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    @Test
+    void testRookAttacksOnEmptyBoard() {
+        // Rook on d4 (row 4, column 3) attacks the whole 4th rank and d-file
+        long attacks = MagicBitboards.rookAttacks(4 * 8 + 3, 0L);
+        assertEquals(14, Long.bitCount(attacks), "A rook on an empty board should attack 14 squares");
+    }
+
+    @Test
+    void testBishopAttacksStopAtBlocker() {
+        // Bishop on d4 with a blocker on f6 (row 2, column 5)
+        long blocker = 1L << (2 * 8 + 5);
+        long attacks = MagicBitboards.bishopAttacks(4 * 8 + 3, blocker);
+        assertTrue((attacks & blocker) != 0, "The blocking square itself should be attacked");
+        assertEquals(0, attacks & (1L << (8 + 6)), "g7 should not be attacked behind the blocker on f6");
+    }
+
+    @Test
+    void testAttacksMatchRayWalkOnRandomOccupancies() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            int square = random.nextInt(64);
+            assertEquals(walkRays(square, occupied, ROOK_DIRECTIONS), MagicBitboards.rookAttacks(square, occupied),
+                    "Rook attacks differ on square " + square);
+            assertEquals(walkRays(square, occupied, BISHOP_DIRECTIONS), MagicBitboards.bishopAttacks(square, occupied),
+                    "Bishop attacks differ on square " + square);
+        }
+    }
+}
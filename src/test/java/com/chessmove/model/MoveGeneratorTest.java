@@ -0,0 +1,197 @@
+package com.chessmove.model;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.Move;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.util.Color;
+import com.chessmove.util.FENValidator;
+import com.chessmove.util.InvalidFENException;
+import com.chessmove.util.MoveType;
+import com.chessmove.util.PieceType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveGeneratorTest {
+
+    // Helper method to create a Board from a FEN string
+    private Board createBoardFromFEN(String fen) throws InvalidFENException {
+        FENValidator validator = new FENValidator(fen);
+        return validator.getBoard();
+    }
+
+    // Counts the leaf nodes of the legal move tree, reusing one packed move list per ply
+    private long countNodes(Board board, Color color, int depth) {
+        MoveList[] lists = new MoveList[depth];
+        for (int i = 0; i < depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return countNodes(board, color, depth, lists);
+    }
+
+    private long countNodes(Board board, Color color, int depth, MoveList[] lists) {
+        MoveList moves = lists[depth - 1];
+        MoveGenerator.generateLegalMoves(board, color, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            nodes += countNodes(board, Color.getOppositeColor(color), depth - 1, lists);
+            board.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    @ParameterizedTest(name = "{3}")
+    @CsvSource({
+            "'rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1', 3, 8902, Initial position",
+            "'r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1', 2, 2039, Kiwipete",
+            "'8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1', 4, 43238, Rook and pawn endgame",
+            "'r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1', 3, 9467, Promotions and pins",
+            "'rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8', 3, 62379, Promotion with capture"
+    })
+    void testNodeCountsMatchReferenceValues(String fen, int depth, long expectedNodes, String name)
+            throws InvalidFENException {
+        Board board = createBoardFromFEN(fen);
+        assertEquals(expectedNodes, countNodes(board, board.getSideToMove(), depth),
+                "Node count should match the reference value for " + name);
+    }
+
+    @ParameterizedTest(name = "{1}")
+    @CsvSource({
+            "'r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1', Kiwipete",
+            "'r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1', Promotions and pins",
+            "'rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8', Promotion with capture",
+            "'rnbqkbnr/pppp1ppp/8/4pP2/8/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 3', En-passant",
+            "'4k3/8/3N4/8/8/8/8/K3R2r b - - 0 1', Double check"
+    })
+    void testCapturesAreTheCapturingLegalMoves(String fen, String name) throws InvalidFENException {
+        Board board = createBoardFromFEN(fen);
+        MoveList all = new MoveList();
+        MoveList captures = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), all);
+        MoveGenerator.generateLegalCaptures(board, board.getSideToMove(), captures);
+
+        // The captures and promotions of the full list, in the same order
+        MoveList expected = new MoveList();
+        for (int i = 0; i < all.size(); i++) {
+            Move move = PackedMove.toMove(all.get(i), board);
+            if (move.getCapturedPiece() != null || move.getPromotion() != null) {
+                expected.add(all.get(i));
+            }
+        }
+        assertEquals(expected.size(), captures.size(), "The capture count should match in " + name);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), captures.get(i), "Capture " + i + " should match in " + name);
+        }
+    }
+
+    @Test
+    void testDoubleCheckOnlyAllowsKingMoves() throws InvalidFENException {
+        // Black king on e8 is checked by the rook on e1 and the knight on d6
+        String fen = "4k3/8/3N4/8/8/8/8/K3R2r b - - 0 1";
+        Board board = createBoardFromFEN(fen);
+
+        List<Move> moves = MoveGenerator.generateLegalMoves(board, Color.BLACK);
+
+        assertFalse(moves.isEmpty(), "The king should be able to escape");
+        for (Move move : moves) {
+            assertEquals(PieceType.KING, board.getPieceAt(move.fromRow(), move.fromCol()).getType(),
+                    "Only the king may move in double check");
+        }
+    }
+
+    @Test
+    void testPinnedRookMovesAlongPinRay() throws InvalidFENException {
+        // White rook on e4 is pinned by the black rook on e8 against the king on e1
+        String fen = "4r2k/8/8/8/4R3/8/8/4K3 w - - 0 1";
+        Board board = createBoardFromFEN(fen);
+
+        List<Move> moves = MoveGenerator.generateLegalMoves(board, Color.WHITE);
+
+        long rookMoves = moves.stream().filter(m -> m.fromRow() == 4 && m.fromCol() == 4).count();
+        assertEquals(6, rookMoves, "The pinned rook should only move along the e-file");
+        assertTrue(moves.stream().allMatch(m -> !(m.fromRow() == 4 && m.fromCol() == 4) || m.toCol() == 4),
+                "The pinned rook must not leave the e-file");
+    }
+
+    @Test
+    void testEnPassantDiscoveredCheckIsIllegal() throws InvalidFENException {
+        // Capturing en-passant would remove both pawns from the 5th rank and expose the king to the rook
+        String fen = "8/8/8/KPp4r/8/8/8/7k w - c6 0 1";
+        Board board = createBoardFromFEN(fen);
+
+        List<Move> moves = MoveGenerator.generateLegalMoves(board, Color.WHITE);
+
+        assertTrue(moves.stream().noneMatch(m -> m.getMoveType() == MoveType.EN_PASSANT),
+                "En-passant must not be generated when it exposes the king");
+    }
+
+    @Test
+    void testPromotionsGenerateAllPieces() throws InvalidFENException {
+        String fen = "7k/P7/8/8/8/8/8/K7 w - - 0 1";
+        Board board = createBoardFromFEN(fen);
+
+        List<Move> moves = MoveGenerator.generateLegalMoves(board, Color.WHITE);
+
+        long promotions = moves.stream().filter(m -> m.getPromotion() != null).count();
+        assertEquals(4, promotions, "A pawn on the 7th rank should promote to queen, rook, bishop or knight");
+    }
+
+    @Test
+    void testPackedMoveRoundTrip() {
+        // e7 (row 1, column 4) takes d8 (row 0, column 3) and promotes to a knight
+        int packed = PackedMove.encode(12, 3, MoveType.NORMAL, PieceType.KNIGHT);
+        assertEquals(12, PackedMove.from(packed), "The from-square should be decoded");
+        assertEquals(3, PackedMove.to(packed), "The to-square should be decoded");
+        assertEquals(MoveType.NORMAL, PackedMove.moveType(packed), "The move type should be decoded");
+        assertEquals(PieceType.KNIGHT, PackedMove.promotion(packed), "The promotion should be decoded");
+
+        Move castling = new Move(7, 4, 7, 6, MoveType.CASTLING);
+        int packedCastling = PackedMove.of(castling);
+        assertEquals(MoveType.CASTLING, PackedMove.moveType(packedCastling), "Castling should keep its type");
+        assertNull(PackedMove.promotion(packedCastling), "A non-promotion should decode to no promotion");
+    }
+
+    @Test
+    void testPackedAndObjectMovesAgree() throws InvalidFENException {
+        Board board = createBoardFromFEN("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        MoveList packed = new MoveList();
+        MoveGenerator.generateLegalMoves(board, Color.WHITE, packed);
+        List<Move> moves = MoveGenerator.generateLegalMoves(board, Color.WHITE);
+
+        assertEquals(moves.size(), packed.size(), "Both forms should hold the same number of moves");
+        for (int i = 0; i < packed.size(); i++) {
+            assertEquals(moves.get(i), PackedMove.toMove(packed.get(i), board), "Move " + i + " should match");
+        }
+
+        // Refilling the list replaces its previous content
+        MoveGenerator.generateLegalMoves(board, Color.BLACK, packed);
+        assertEquals(MoveGenerator.generateLegalMoves(board, Color.BLACK).size(), packed.size(),
+                "The list should be cleared before it is refilled");
+    }
+
+    @Test
+    void testTruncateKeepsOnlyExistingMoves() throws InvalidFENException {
+        Board board = createBoardFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, Color.WHITE, moves);
+
+        moves.truncate(5);
+
+        assertEquals(5, moves.size(), "The list should keep the first five moves");
+        assertThrows(IndexOutOfBoundsException.class, () -> moves.truncate(6),
+                "Growing the list would expose stale moves");
+        assertThrows(IndexOutOfBoundsException.class, () -> moves.truncate(-1), "A negative size should be rejected");
+        assertEquals(5, moves.size(), "A rejected size should leave the list unchanged");
+    }
+}
@@ -0,0 +1,57 @@
+package com.chessmove.model;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.model.game.StaticExchange;
+import com.chessmove.util.FENValidator;
+import com.chessmove.util.InvalidFENException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticExchangeTest {
+
+    // Helper method to create a Board from a FEN string
+    private Board createBoardFromFEN(String fen) throws InvalidFENException {
+        FENValidator validator = new FENValidator(fen);
+        return validator.getBoard();
+    }
+
+    // Finds the legal move with the given UCI notation
+    private int findMove(Board board, String uci) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.toUci(moves.get(i)).equals(uci)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException(uci + " is not a legal move");
+    }
+
+    @ParameterizedTest(name = "{3}")
+    @CsvSource({
+            "'1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1', e1e5, 100, Undefended pawn",
+            "'1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1', d3e5, -220, Knight for a defended pawn",
+            "'4k3/8/2p5/3n4/4P3/8/8/4K3 w - - 0 1', e4d5, 220, Pawn takes a defended knight",
+            "'3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1', d2d5, 100, Rook backed up by a rook (x-ray)",
+            "'3rk3/8/8/3p4/8/8/3R4/4K3 w - - 0 1', d2d5, -400, Rook alone against a rook",
+            "'2k5/3p4/8/8/8/8/3R4/3R2K1 w - - 0 1', d2d7, 100, The king may not recapture a defended square",
+            "'2k5/3p4/8/8/8/8/3R4/6K1 w - - 0 1', d2d7, -400, The king recaptures",
+            "'4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1', e5d6, 100, En-passant",
+            "'1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1', a7b8q, 1300, Capturing promotion",
+            "'1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1', a7a8q, -100, Promotion onto a defended square",
+            "'4k3/8/8/3p4/8/5N2/8/4K3 w - - 0 1', f3e5, 0, Quiet move to a safe square"
+    })
+    void testExchangeValues(String fen, String uci, int expectedValue, String name) throws InvalidFENException {
+        Board board = createBoardFromFEN(fen);
+        int move = findMove(board, uci);
+        long key = board.getZobristKey();
+
+        assertEquals(expectedValue, StaticExchange.evaluate(board, move), "Exchange value of " + uci + ": " + name);
+        assertEquals(key, board.getZobristKey(), "The board should be left unchanged");
+    }
+}
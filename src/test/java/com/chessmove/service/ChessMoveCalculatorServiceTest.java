@@ -2,10 +2,14 @@ package com.chessmove.service;
 
 import com.chessmove.util.Color;
 import com.chessmove.util.InvalidFENException;
+import com.chessmove.util.PositionStatus;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvFileSource;
+import org.junit.jupiter.params.provider.CsvSource;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,4 +35,61 @@ class ChessMoveCalculatorServiceTest {
         assertEquals(expectedMoveCount, actualMoves.size(),
                 String.format("Expected %d moves for test case '%s', but got %d", expectedMoveCount, testName, actualMoves.size()));
     }
+
+    @Test
+    void testEvaluateCaptures() throws InvalidFENException {
+        // The pawn on c6 defends both the pawn on d5 and the rook on b5
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("4k3/8/2p5/1r1p4/8/2N5/3Q4/4K3 w - - 0 1");
+
+        Map<String, Integer> exchanges = service.evaluateCaptures(Color.WHITE);
+
+        assertEquals(Map.of("c3b5", 180, "c3d5", -220, "d2d5", -800), exchanges,
+                "Each capture should be annotated with the material it wins or loses");
+        assertTrue(service.evaluateCaptures(Color.BLACK).isEmpty(), "Black has nothing to capture");
+    }
+
+    @ParameterizedTest(name = "{2}")
+    @CsvFileSource(resources = "/chess_tests.csv", numLinesToSkip = 1)
+    void testCountLegalMoves(String fen, int expectedMoveCount, String testName) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        // The positions of the CSV are not terminal, so the count equals the number of move descriptions
+        assertEquals(expectedMoveCount, service.countLegalMoves(Color.WHITE),
+                String.format("Expected %d legal moves for test case '%s'", expectedMoveCount, testName));
+        assertTrue(service.hasAnyLegalMove(Color.WHITE), "White should have a legal move in " + testName);
+    }
+
+    @Test
+    void testNoLegalMovesInTerminalPositions() throws InvalidFENException {
+        // Fool's mate: white is checkmated
+        ChessMoveCalculatorService checkmate = new ChessMoveCalculatorService(
+                "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        assertEquals(0, checkmate.countLegalMoves(Color.WHITE), "A checkmated side should have no legal moves");
+        assertFalse(checkmate.hasAnyLegalMove(Color.WHITE), "A checkmated side should have no legal move");
+        assertTrue(checkmate.hasAnyLegalMove(Color.BLACK), "The mating side should still have moves");
+
+        // Black king on a8 is stalemated by the white queen on b6
+        ChessMoveCalculatorService stalemate = new ChessMoveCalculatorService("k7/8/1Q6/8/8/8/8/7K b - - 0 1");
+        assertEquals(0, stalemate.countLegalMoves(Color.BLACK), "A stalemated side should have no legal moves");
+        assertFalse(stalemate.hasAnyLegalMove(Color.BLACK), "A stalemated side should have no legal move");
+    }
+
+    @ParameterizedTest(name = "{3}")
+    @CsvSource({
+            "'rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1', WHITE, ONGOING, Initial position",
+            "'rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3', WHITE, CHECKMATE, Fool's mate",
+            "'k7/8/1Q6/8/8/8/8/7K b - - 0 1', BLACK, STALEMATE, Queen stalemate",
+            "'8/8/4k3/8/8/3K4/8/8 w - - 0 1', WHITE, INSUFFICIENT_MATERIAL, Two kings",
+            "'8/8/4k3/4n3/8/3KB3/8/8 w - - 0 1', WHITE, INSUFFICIENT_MATERIAL, One minor piece each",
+            "'8/8/4k3/8/8/3KBB2/8/8 w - - 0 1', WHITE, ONGOING, Bishop pair",
+            "'8/8/4k3/8/8/3K4/8/R7 w - - 99 80', WHITE, ONGOING, One ply before the fifty-move rule",
+            "'8/8/4k3/8/8/3K4/8/R7 w - - 100 80', WHITE, FIFTY_MOVE_RULE, Fifty-move rule",
+            "'7k/5Q2/6K1/8/8/8/8/8 b - - 100 80', BLACK, STALEMATE, Stalemate on the hundredth ply",
+            "'R6k/6pp/8/8/8/8/8/6K1 b - - 100 80', BLACK, CHECKMATE, Checkmate on the hundredth ply"
+    })
+    void testStatus(String fen, Color color, PositionStatus expectedStatus, String name) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        assertEquals(expectedStatus, service.status(color), "Unexpected status for " + name);
+    }
 }
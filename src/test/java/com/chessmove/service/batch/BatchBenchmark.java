@@ -0,0 +1,61 @@
+package com.chessmove.service.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how the batch pipeline scales with the number of worker threads, on a few thousand positions.
+ * Not part of the test suite; run it after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes com.chessmove.service.batch.BatchBenchmark [MAX_THREADS]}.
+ */
+public class BatchBenchmark {
+
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "rnbqkb1r/pp1p1ppp/2p5/4P3/2B5/8/PPP1NnPP/RNBQK2R"
+    };
+    private static final int LINES = 20_000;
+    private static final int WARM_UP_RUNS = 3;
+    private static final int TIMED_RUNS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        List<String> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            lines.add(POSITIONS[i % POSITIONS.length]);
+        }
+        String input = String.join("\n", lines);
+
+        // Warm up the JIT on both the sequential and the parallel path before timing
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            BatchProcessor.run(new BufferedReader(new StringReader(input)), Writer.nullWriter(), 1);
+            BatchProcessor.run(new BufferedReader(new StringReader(input)), Writer.nullWriter(), maxThreads);
+        }
+
+        long singleThreadNanos = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            // The fastest of a few runs, the others being slowed down by whatever else the machine did
+            BatchResult best = null;
+            for (int i = 0; i < TIMED_RUNS; i++) {
+                BatchResult result = BatchProcessor.run(new BufferedReader(new StringReader(input)),
+                        Writer.nullWriter(), threads);
+                if (best == null || result.getElapsedNanos() < best.getElapsedNanos()) {
+                    best = result;
+                }
+            }
+            if (threads == 1) {
+                singleThreadNanos = best.getElapsedNanos();
+            }
+            System.out.printf("threads %2d  positions %,8d  %,8d ms  %,10d positions/s  speedup %.2f%n",
+                    threads, best.getPositions(), best.getElapsedMillis(), best.getPositionsPerSecond(),
+                    (double) singleThreadNanos / best.getElapsedNanos());
+        }
+    }
+}
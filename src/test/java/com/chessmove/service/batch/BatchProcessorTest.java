@@ -0,0 +1,198 @@
+package com.chessmove.service.batch;
+
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.Color;
+import com.chessmove.util.InvalidFENException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchProcessorTest {
+
+    private static final String INITIAL_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String CHECKMATE = "7k/6Q1/6K1/8/8/8/8/8 b - - 0 1";
+    private static final String NO_ACTIVE_COLOR = "4k3/4p3/8/8/8/8/4P3/4K3";
+
+    @Test
+    void testWritesOneRecordPerLineInInputOrder() throws IOException {
+        String input = String.join("\n", INITIAL_POSITION, "", "not a fen", CHECKMATE, "   ", NO_ACTIVE_COLOR);
+        StringWriter output = new StringWriter();
+
+        BatchResult result = BatchProcessor.run(new BufferedReader(new StringReader(input)), output);
+
+        List<String> records = output.toString().lines().toList();
+        // Blank lines get no record but still count, so that line numbers point into the input
+        assertEquals(List.of("1", "3", "4", "6"), records.stream().map(record -> record.split("\t")[0]).toList(),
+                "Every non-blank line should get a record, in input order");
+        assertEquals(4, result.getPositions(), "Every non-blank line should count as a position");
+        assertEquals(1, result.getErrors(), "Only the invalid line should count as an error");
+    }
+
+    @Test
+    void testInvalidLineDoesNotStopTheBatch() throws IOException {
+        String input = String.join("\n", "8/8/8/8/8/8/8/8 w - - 0 1", INITIAL_POSITION);
+        StringWriter output = new StringWriter();
+
+        BatchProcessor.run(new BufferedReader(new StringReader(input)), output);
+
+        List<String> records = output.toString().lines().toList();
+        assertEquals("1\terror\t8/8/8/8/8/8/8/8 w - - 0 1\tInvalid number of kings for WHITE: 0", records.get(0),
+                "The error record should give the reason the position is invalid");
+        assertTrue(records.get(1).startsWith("2\tok\t" + INITIAL_POSITION + "\twhite\t20\t"),
+                "The lines after an invalid one should still be calculated");
+    }
+
+    @Test
+    void testRecordsTheMovesOfTheSinglePositionMode() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+        List<String> moves = service.getMoves(service.getBoard().getSquares(), Color.WHITE);
+
+        String record = BatchProcessor.calculate(7, INITIAL_POSITION);
+
+        assertEquals("7\tok\t" + INITIAL_POSITION + "\twhite\t20\t" + String.join(", ", moves) + "\n", record,
+                "The record should list the same moves as the single-position mode");
+    }
+
+    @Test
+    void testRecordsBothColorsWithoutActiveColor() {
+        String[] fields = BatchProcessor.calculate(1, NO_ACTIVE_COLOR).strip().split("\t");
+
+        assertEquals(9, fields.length, "The record should hold the moves of both colors");
+        assertEquals(List.of("white", "6", "black", "6"), List.of(fields[3], fields[4], fields[6], fields[7]),
+                "Both sides should have four king moves and two pawn moves, white first");
+    }
+
+    @Test
+    void testRecordsWhyThereAreNoMoves() {
+        assertEquals("1\tok\t" + CHECKMATE + "\tblack\t0\tCheckmate\n", BatchProcessor.calculate(1, CHECKMATE),
+                "A mated side should have no moves and the reason should be given");
+    }
+
+    @Test
+    void testKeepsTheFenInOneField() {
+        String record = BatchProcessor.calculate(1, "\t" + CHECKMATE.replace(' ', '\t') + "  ");
+
+        assertTrue(record.startsWith("1\tok\t" + CHECKMATE + "\t"),
+                "Tabs and surrounding white space in the input should not split the FEN field");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4})
+    void testParallelRunWritesTheSameRecordsInTheSameOrder(int threads) throws IOException {
+        String input = mixedInput(600);
+        StringWriter sequential = new StringWriter();
+        StringWriter parallel = new StringWriter();
+
+        BatchProcessor.run(new BufferedReader(new StringReader(input)), sequential);
+        BatchResult result = BatchProcessor.run(new BufferedReader(new StringReader(input)), parallel, threads);
+
+        assertEquals(sequential.toString(), parallel.toString(),
+                "The records should not depend on the number of threads");
+        assertEquals(500, result.getPositions(), "Every non-blank line should count as a position");
+        assertEquals(100, result.getErrors(), "Every invalid line should count as an error");
+        assertEquals(threads, result.getThreads(), "The thread count should be reported");
+    }
+
+    @Test
+    void testTinyQueuesHoldTheStagesBackWithoutLosingOrder() throws IOException {
+        String input = mixedInput(300);
+        StringWriter sequential = new StringWriter();
+        StringWriter pipelined = new StringWriter();
+
+        BatchProcessor.run(new BufferedReader(new StringReader(input)), sequential);
+        // Queues of one item keep every stage waiting on the next one, and the reader on the writer
+        new BatchPipeline(3, 1, BatchProcessor::generate).run(new BufferedReader(new StringReader(input)), pipelined);
+
+        assertEquals(sequential.toString(), pipelined.toString(), "Full queues should only slow the run down");
+    }
+
+    @Test
+    void testReadErrorEndsTheParallelRunAfterTheRecordsReadSoFar() {
+        Reader failingInput = new Reader() {
+            private final Reader lines = new StringReader(INITIAL_POSITION + "\n" + CHECKMATE + "\n");
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = lines.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IOException("Input lost");
+                }
+                return read;
+            }
+
+            @Override
+            public void close() {
+                // Nothing to release
+            }
+        };
+        StringWriter output = new StringWriter();
+
+        IOException exception = assertThrows(IOException.class,
+                () -> BatchProcessor.run(new BufferedReader(failingInput), output, 2),
+                "A read error should end the run");
+        assertEquals("Input lost", exception.getMessage(), "The read error should be passed on");
+        assertEquals(2, output.toString().lines().count(), "The lines read before the error should be written");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4})
+    void testStageFailureEndsTheRunAfterTheRecordsBefore(int threads) {
+        String input = String.join("\n", INITIAL_POSITION, CHECKMATE, NO_ACTIVE_COLOR, INITIAL_POSITION);
+        List<Throwable> failures = List.of(new IllegalStateException("Generator broken"),
+                new StackOverflowError("Generator too deep"));
+
+        for (Throwable failure : failures) {
+            StringWriter output = new StringWriter();
+            Consumer<BatchItem> generator = item -> {
+                if (item.fen.equals(NO_ACTIVE_COLOR) && failure instanceof Error error) {
+                    throw error;
+                }
+                if (item.fen.equals(NO_ACTIVE_COLOR)) {
+                    throw (RuntimeException) failure;
+                }
+                BatchProcessor.generate(item);
+            };
+
+            // An error that killed a worker used to leave the writer waiting forever
+            Throwable thrown = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> assertThrows(failure.getClass(),
+                            () -> BatchProcessor.run(new BufferedReader(new StringReader(input)), output, threads,
+                                    generator),
+                            "A failing stage should end the run with " + threads + " thread(s)"));
+            assertSame(failure, thrown, "The stage failure should be passed on as it is");
+            assertEquals(2, output.toString().lines().count(),
+                    "The records before the failing line should be written with " + threads + " thread(s)");
+        }
+    }
+
+    @Test
+    void testRejectsInvalidThreadCount() {
+        BufferedReader input = new BufferedReader(new StringReader(INITIAL_POSITION));
+
+        assertThrows(IllegalArgumentException.class, () -> BatchProcessor.run(input, new StringWriter(), 0),
+                "At least one thread should be required");
+    }
+
+    // Valid positions of every kind, with an invalid line and a blank line in every six
+    private static String mixedInput(int lines) {
+        String[] positions = {INITIAL_POSITION, CHECKMATE, NO_ACTIVE_COLOR, "not a fen",
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", ""};
+        List<String> input = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            input.add(positions[i % positions.length]);
+        }
+        return String.join("\n", input);
+    }
+}
@@ -0,0 +1,186 @@
+package com.chessmove.service.book;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.InvalidFENException;
+import com.chessmove.util.MoveType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolyglotBookTest {
+
+    private static final String INITIAL_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String AFTER_E4 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+    private static final String CASTLING = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+    private static final String PROMOTION = "8/P7/8/8/8/8/8/k1K5 w - - 0 1";
+
+    @TempDir
+    static Path directory;
+
+    private static PolyglotBook book;
+
+    @BeforeAll
+    static void writeBook() throws IOException, InvalidFENException {
+        List<long[]> entries = new ArrayList<>();
+        entries.add(entry(0x463b96181691fc9cL, "e2e4", 100));
+        entries.add(entry(0x463b96181691fc9cL, "d2d4", 50));
+        entries.add(entry(0x463b96181691fc9cL, "g1f3", 0));
+        // Not a legal move of the starting position, as after a key collision
+        entries.add(entry(0x463b96181691fc9cL, "e2e5", 10));
+        entries.add(entry(0x823c9b50fd114196L, "c7c5", 10));
+        entries.add(entry(key(CASTLING), "e1h1", 5));
+        entries.add(entry(key(CASTLING), "e1a1", 5));
+        entries.add(entry(key(PROMOTION), "a7a8q", 3));
+        entries.add(entry(key(PROMOTION), "a7a8n", 1));
+        // Other positions around the ones looked up, so that the binary search has something to skip
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            entries.add(entry(random.nextLong(), "a2a3", 1));
+        }
+        entries.sort(Comparator.comparing(entry -> entry[0], Long::compareUnsigned));
+        ByteBuffer bytes = ByteBuffer.allocate(16 * entries.size());
+        for (long[] entry : entries) {
+            bytes.putLong(entry[0]).putShort((short) entry[1]).putShort((short) entry[2]).putInt(0);
+        }
+        Path file = directory.resolve("book.bin");
+        Files.write(file, bytes.array());
+        book = new PolyglotBook(file);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "'rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1', 463b96181691fc9c",
+            "'rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1', 823c9b50fd114196",
+            "'rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2', 0756b94461c50fb0",
+            "'rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2', 662fafb965db29d4",
+            "'rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3', 22a48b5a8e47ff78",
+            "'rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 0 3', 652a607ca3f242c1",
+            "'rnbq1bnr/ppp1pkpp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w - - 0 4', 00fdd303c946bdd9",
+            "'rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3', 3c8123ea7b067637",
+            "'rnbqkbnr/p1pppppp/8/8/P6P/R1p5/1P1PPPP1/1NBQKBNR b Kkq - 0 4', 5c3f9b829b279560"
+    })
+    void testKeysMatchThePolyglotReference(String fen, String expectedKey) throws InvalidFENException {
+        Board board = new ChessMoveCalculatorService(fen).getBoard();
+
+        // The reference keys of the Polyglot format, including en passant targets that do and do not count
+        assertEquals(Long.parseUnsignedLong(expectedKey, 16), PolyglotKey.compute(board),
+                "The key should match the Polyglot reference for " + fen);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // Reference key after 1.e4 d5 2.e5 f5 3.Ke2, without the published black kingside castling number
+            "'rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b q - 0 3', c05403457edeb161",
+            // The same, also without the published black queenside castling number
+            "'rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b - - 0 3', dea2e59ecf48afa8"
+    })
+    void testKeysWithTheBlackKingOnE8WithoutKingsideCastling(String fen, String expectedKey)
+            throws InvalidFENException {
+        Board board = new ChessMoveCalculatorService(fen).getBoard();
+
+        // The reference positions all combine the black king on e8 with the kingside right, so a wrong number for
+        // one of them can be hidden by a wrong number for the other; these keys take the kingside right apart
+        assertEquals(Long.parseUnsignedLong(expectedKey, 16), PolyglotKey.compute(board),
+                "The key should match the reference key with the published castling numbers removed for " + fen);
+    }
+
+    @Test
+    void testLooksUpWeightedMoves() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+
+        List<BookMove> moves = service.probeBook(book);
+
+        assertEquals(List.of("e2e4", "d2d4", "g1f3"), moves.stream().map(BookMove::getUci).toList(),
+                "The legal book moves should be returned by decreasing weight");
+        assertEquals(List.of(100, 50, 0), moves.stream().map(BookMove::getWeight).toList(),
+                "The weights should be read from the book");
+        assertEquals(1009, book.size(), "Every entry should be counted");
+    }
+
+    @Test
+    void testLooksUpKeysAboveTheSignedRange() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(AFTER_E4);
+
+        // The key starts with bit 63 set, so it is only found when keys are compared as unsigned numbers
+        assertEquals(List.of("c7c5"), service.probeBook(book).stream().map(BookMove::getUci).toList(),
+                "The reply should be found");
+    }
+
+    @Test
+    void testConvertsCastlingAndPromotions() throws InvalidFENException {
+        List<BookMove> castling = new ChessMoveCalculatorService(CASTLING).probeBook(book);
+        List<BookMove> promotions = new ChessMoveCalculatorService(PROMOTION).probeBook(book);
+
+        assertEquals(List.of("e1g1", "e1c1"), castling.stream().map(BookMove::getUci).toList(),
+                "Castling written as the king taking its rook should become the king's two-square move");
+        assertTrue(castling.stream().allMatch(move -> PackedMove.moveType(move.getMove()) == MoveType.CASTLING),
+                "Book castling moves should be castling moves");
+        assertEquals(List.of("a7a8q", "a7a8n"), promotions.stream().map(BookMove::getUci).toList(),
+                "Promotion pieces should be read from the book");
+    }
+
+    @Test
+    void testPositionOutsideTheBookHasNoMoves() throws InvalidFENException {
+        Board board = new ChessMoveCalculatorService("4k3/8/8/8/8/8/8/4K3 w - - 0 1").getBoard();
+
+        assertTrue(book.lookup(board).isEmpty(), "A position not in the book should have no moves");
+        assertEquals(PackedMove.NONE, book.pick(board, new Random(1)), "No move should be picked");
+    }
+
+    @Test
+    void testPicksMovesInProportionToTheirWeights() throws InvalidFENException {
+        Board board = new ChessMoveCalculatorService(INITIAL_POSITION).getBoard();
+        Random random = new Random(42);
+        int e4 = 0;
+        int d4 = 0;
+
+        for (int i = 0; i < 3000; i++) {
+            String move = PackedMove.toUci(book.pick(board, random));
+            if (move.equals("e2e4")) {
+                e4++;
+            } else if (move.equals("d2d4")) {
+                d4++;
+            } else {
+                fail("A move of weight 0 or outside the book should never be picked: " + move);
+            }
+        }
+        // Weights 100 and 50: about two thirds and one third
+        assertEquals(2000, e4, 100, "e2e4 should be picked about twice as often as d2d4");
+        assertEquals(1000, d4, 100, "d2d4 should be picked about a third of the time");
+    }
+
+    @Test
+    void testRejectsFilesThatAreNotBooks() throws IOException {
+        Path file = directory.resolve("truncated.bin");
+        Files.write(file, new byte[17]);
+
+        assertThrows(IOException.class, () -> new PolyglotBook(file), "A truncated entry should be rejected");
+    }
+
+    private static long key(String fen) throws InvalidFENException {
+        return PolyglotKey.compute(new ChessMoveCalculatorService(fen).getBoard());
+    }
+
+    // Builds an entry with the move written as Polyglot does: to-square, from-square, promotion piece
+    private static long[] entry(long key, String uci, int weight) {
+        int toSquare = (uci.charAt(3) - '1') * 8 + (uci.charAt(2) - 'a');
+        int fromSquare = (uci.charAt(1) - '1') * 8 + (uci.charAt(0) - 'a');
+        int promotion = uci.length() == 5 ? " nbrq".indexOf(uci.charAt(4)) : 0;
+        return new long[]{key, toSquare | fromSquare << 6 | promotion << 12, weight};
+    }
+}
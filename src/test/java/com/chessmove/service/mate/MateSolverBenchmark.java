@@ -0,0 +1,49 @@
+package com.chessmove.service.mate;
+
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.service.search.SearchFeature;
+import com.chessmove.service.search.SearchLimits;
+import com.chessmove.service.search.SearchResult;
+import com.chessmove.util.InvalidFENException;
+
+/**
+ * Compares the mate solver with the best-move search on mate problems: the solver with one thread and with the
+ * given number of threads (all cores by default), and the search to the depth of the mate, which is where it
+ * can first announce it.
+ * Not part of the test suite; run it after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes com.chessmove.service.mate.MateSolverBenchmark [THREADS]}.
+ */
+public class MateSolverBenchmark {
+
+    private static final String[][] POSITIONS = {
+            {"kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1", "2", "Morphy's rook sacrifice"},
+            {"r1b1kb1r/pppp1ppp/5q2/4n3/3KP3/2N3PN/PPP4P/R1BQ1B1R b kq - 0 1", "3", "Exposed king"},
+            {"8/8/8/3k4/8/8/8/5RQK w - - 0 1", "5", "Queen and rook"},
+            {"r2qkb1r/pp2nppp/3p4/2pNN1B1/2BnP3/3P4/PPP2PPP/R2bK2R w KQkq - 1 1", "3", "Legal's mate pattern"}
+    };
+
+    public static void main(String[] args) throws InvalidFENException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+        for (String[] position : POSITIONS) {
+            ChessMoveCalculatorService service = new ChessMoveCalculatorService(position[0]);
+            int moves = Integer.parseInt(position[1]);
+
+            // Warm up the JIT before timing
+            service.solveMate(moves, threads);
+
+            MateResult single = service.solveMate(moves);
+            MateResult parallel = service.solveMate(moves, threads);
+            SearchResult search = service.search(SearchLimits.depth(2 * moves - 1), SearchFeature.all());
+            System.out.printf("%-24s solver      1 thread   mate %d  %-6s nodes %,12d  %,7d ms%n",
+                    position[2], single.getMateIn(), single.getBestMoveUci(), single.getNodes(),
+                    single.getElapsedMillis());
+            System.out.printf("%-24s solver     %2d threads  mate %d  %-6s nodes %,12d  %,7d ms%n",
+                    position[2], threads, parallel.getMateIn(), parallel.getBestMoveUci(), parallel.getNodes(),
+                    parallel.getElapsedMillis());
+            System.out.printf("%-24s search depth %2d        %-6s %-6s nodes %,12d  %,7d ms%n%n",
+                    position[2], search.getDepth(), search.getScoreText(), search.getBestMoveUci(), search.getNodes(),
+                    search.getElapsedMillis());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.chessmove.service.mate;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.Color;
+import com.chessmove.util.InvalidFENException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MateSolverTest {
+
+    private static final String INITIAL_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String QUEEN_AND_ROOK = "8/8/8/3k4/8/8/8/5RQK w - - 0 1";
+
+    @ParameterizedTest(name = "{3}")
+    @CsvSource({
+            "'6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1', 1, a1a8, Back-rank mate",
+            "'kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1', 2, a1a6, Morphy's rook sacrifice",
+            "'r1b1kb1r/pppp1ppp/5q2/4n3/3KP3/2N3PN/PPP4P/R1BQ1B1R b kq - 0 1', 3, f8c5, Black mates the exposed king",
+            "'8/8/8/3k4/8/8/8/5RQK w - - 0 1', 5, f1f5, Queen and rook against the king"
+    })
+    void testFindsShortestMate(String fen, int mateIn, String firstMove, String name) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        MateResult result = service.solveMate(mateIn + 1);
+
+        assertTrue(result.isMate(), "A mate should be found in " + name);
+        assertEquals(mateIn, result.getMateIn(), "The shortest mate should be found in " + name);
+        assertEquals(firstMove, result.getBestMoveUci(), "The key move should be found in " + name);
+        assertEquals(2 * mateIn - 1, result.getLine().length, "The line should have one move per side and move");
+        assertLineEndsInMate(service.getBoard(), result);
+    }
+
+    @Test
+    void testProvesThereIsNoMate() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+
+        MateResult result = service.solveMate(3);
+
+        assertFalse(result.isMate(), "There is no forced mate from the starting position");
+        assertEquals(0, result.getMateIn(), "No mate length should be reported");
+        assertEquals(3, result.getMaxMoves(), "The searched length should be reported");
+        assertEquals(0, result.getLine().length, "There should be no line");
+        assertEquals("-", result.getBestMoveUci(), "There should be no best move");
+    }
+
+    @Test
+    void testMateLongerThanTheLimitIsNotFound() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(QUEEN_AND_ROOK);
+
+        assertFalse(service.solveMate(4).isMate(), "The mate in 5 should not be found within 4 moves");
+    }
+
+    @Test
+    void testStalemateIsNotMate() throws InvalidFENException {
+        // Any king move stalemates, and the queen cannot mate without the king's help
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("k7/2Q5/8/8/8/8/8/K7 w - - 0 1");
+
+        assertFalse(service.solveMate(1).isMate(), "A stalemating move is no mate");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4})
+    void testParallelSolverGivesTheSameResult(int threads) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(QUEEN_AND_ROOK);
+
+        MateResult single = service.solveMate(5);
+        MateResult parallel = service.solveMate(5, threads);
+
+        assertEquals(single.getMateIn(), parallel.getMateIn(), "The mate length should not depend on the threads");
+        assertEquals(single.getLineUci(), parallel.getLineUci(), "The line should not depend on the threads");
+        assertEquals(threads, parallel.getThreads(), "The thread count should be reported");
+        assertLineEndsInMate(service.getBoard(), parallel);
+    }
+
+    @Test
+    void testBoardIsUnchanged() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(QUEEN_AND_ROOK);
+        long key = service.getBoard().getZobristKey();
+
+        service.solveMate(5, 2);
+
+        assertEquals(key, service.getBoard().getZobristKey(), "The solver should not change the board");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 16})
+    void testInvalidLength(int moves) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+
+        assertThrows(IllegalArgumentException.class, () -> service.solveMate(moves),
+                "The number of moves must be between 1 and " + MateSolver.MAX_MOVES);
+        assertThrows(IllegalArgumentException.class, () -> service.solveMate(2, 0),
+                "At least one thread is needed");
+    }
+
+    // Plays the line on a copy of the board, checking that every move is legal and that the last one mates
+    private static void assertLineEndsInMate(Board board, MateResult result) {
+        Board copy = board.copy();
+        MoveList moves = new MoveList();
+        for (int move : result.getLine()) {
+            MoveGenerator.generateLegalMoves(copy, copy.getSideToMove(), moves);
+            assertTrue(moves.contains(move), "Every move of the line should be legal");
+            copy.makeMove(move);
+        }
+        Color mated = copy.getSideToMove();
+        assertFalse(MoveGenerator.hasLegalMove(copy, mated, moves), "The mated side should have no legal move");
+        assertTrue(copy.isSquareAttacked(copy.getKingSquare(mated), Color.getOppositeColor(mated)),
+                "The mated king should be in check");
+    }
+}
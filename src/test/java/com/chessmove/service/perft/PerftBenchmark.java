@@ -0,0 +1,41 @@
+package com.chessmove.service.perft;
+
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.InvalidFENException;
+
+/**
+ * Measures how parallel perft scales with the number of threads, on the deeper reference positions.
+ * Not part of the test suite; run it after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes com.chessmove.service.perft.PerftBenchmark [MAX_THREADS]}.
+ */
+public class PerftBenchmark {
+
+    private static final String[][] POSITIONS = {
+            {"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", "6", "Initial position"},
+            {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "5", "Kiwipete"},
+            {"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", "5", "Position 6"}
+    };
+
+    public static void main(String[] args) throws InvalidFENException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+        for (String[] position : POSITIONS) {
+            ChessMoveCalculatorService service = new ChessMoveCalculatorService(position[0]);
+            int depth = Integer.parseInt(position[1]);
+
+            // Warm up the JIT before timing
+            service.perft(depth - 1, maxThreads);
+
+            long singleThreadNanos = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                PerftResult result = service.perft(depth, threads);
+                if (threads == 1) {
+                    singleThreadNanos = result.getElapsedNanos();
+                }
+                System.out.printf("%-16s depth %d  threads %2d  nodes %,14d  %,8d ms  %,12d nps  speedup %.2f%n",
+                        position[2], depth, threads, result.getNodes(), result.getElapsedMillis(),
+                        result.getNodesPerSecond(), (double) singleThreadNanos / result.getElapsedNanos());
+            }
+        }
+    }
+}
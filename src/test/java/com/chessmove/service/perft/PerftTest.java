@@ -0,0 +1,120 @@
+package com.chessmove.service.perft;
+
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.InvalidFENException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    private static final String INITIAL_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @ParameterizedTest(name = "{3}, depth {1}")
+    @CsvFileSource(resources = "/perft_positions.csv", numLinesToSkip = 1)
+    void testReferencePositions(String fen, int depth, long expectedNodes, String name) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        PerftResult result = service.perft(depth);
+
+        assertEquals(expectedNodes, result.getNodes(),
+                String.format("Expected %d nodes for '%s' at depth %d", expectedNodes, name, depth));
+    }
+
+    @Test
+    void testDivideSumsToTotal() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+
+        PerftResult result = service.perft(3);
+
+        // Every root move is listed in UCI notation, and their counts add up to the total
+        assertEquals(20, result.getDivide().size(), "The initial position has 20 root moves");
+        assertEquals(600L, result.getDivide().get("e2e4"), "e2e4 should lead to 600 nodes at depth 3");
+        assertEquals(result.getNodes(), result.getDivide().values().stream().mapToLong(Long::longValue).sum(),
+                "The divide counts should add up to the total node count");
+    }
+
+    @Test
+    void testPromotionsInDivide() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("8/P6k/8/8/8/8/8/K7 w - - 0 1");
+
+        PerftResult result = service.perft(1);
+
+        assertTrue(result.getDivide().containsKey("a7a8q"), "Promotion to a queen should be listed as a7a8q");
+        assertTrue(result.getDivide().containsKey("a7a8n"), "Promotion to a knight should be listed as a7a8n");
+    }
+
+    @Test
+    void testDepthZeroAndBoardUnchanged() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+        long keyBefore = service.getBoard().getZobristKey();
+
+        assertEquals(1, service.perft(0).getNodes(), "Depth 0 should count the position itself");
+        service.perft(2);
+        assertEquals(keyBefore, service.getBoard().getZobristKey(), "Perft should not change the service's board");
+        assertThrows(IllegalArgumentException.class, () -> service.perft(-1), "A negative depth should be rejected");
+    }
+
+    @ParameterizedTest(name = "{0} threads")
+    @ValueSource(ints = {2, 4})
+    void testParallelPerftMatchesSequential(int threads) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+
+        PerftResult sequential = service.perft(4);
+        PerftResult parallel = service.perft(4, threads);
+
+        assertEquals(4085603, parallel.getNodes(), "The parallel node count should match the reference value");
+        assertEquals(threads, parallel.getThreads(), "The result should record the thread count");
+        // The divide is merged in generation order, so the maps are equal including their iteration order
+        assertEquals(sequential.getDivide(), parallel.getDivide(), "The divide counts should match");
+        assertEquals(List.copyOf(sequential.getDivide().keySet()), List.copyOf(parallel.getDivide().keySet()),
+                "The root moves should be listed in the same order");
+    }
+
+    @ParameterizedTest(name = "{0} threads")
+    @ValueSource(ints = {1, 3})
+    void testHashedPerftMatchesReferenceValues(int threads) throws InvalidFENException {
+        // A 1 MB table is small enough that entries get replaced, and still large enough to hit
+        ChessMoveCalculatorService kiwipete = new ChessMoveCalculatorService(
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        PerftResult result = kiwipete.perft(4, threads, 1);
+
+        assertEquals(4085603, result.getNodes(), "The hashed node count should match the reference value");
+        assertTrue(result.isHashed(), "The result should report that a hash table was used");
+        assertTrue(result.getHashHits() > 0, "Transpositions should be found in the table");
+        assertTrue(result.getHashMisses() > 0, "New subtrees should miss the table");
+
+        ChessMoveCalculatorService endgame = new ChessMoveCalculatorService("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+        assertEquals(674624, endgame.perft(5, threads, 1).getNodes(), "The endgame count should match as well");
+    }
+
+    @Test
+    void testHashTableRejectsOtherDepthsAndKeys() {
+        PerftHashTable table = new PerftHashTable(1);
+        table.store(0x1234_5678_9ABC_DEF0L, 3, 97862);
+
+        assertEquals(97862, table.probe(0x1234_5678_9ABC_DEF0L, 3), "A stored count should be found");
+        assertEquals(-1, table.probe(0x1234_5678_9ABC_DEF0L, 4), "The same position at another depth should miss");
+        assertEquals(-1, table.probe(0x1234_5678_9ABC_DEF1L, 3), "Another position should miss");
+        assertEquals(1, table.getHits(), "One probe should have hit");
+        assertEquals(2, table.getMisses(), "Two probes should have missed");
+    }
+
+    @Test
+    void testRejectsHashTablesAboveTheMaximum() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+
+        assertThrows(IllegalArgumentException.class, () -> service.perft(1, 1, PerftHashTable.MAX_MEGABYTES + 1),
+                "A hash table above the maximum should be rejected, not capped");
+        assertThrows(IllegalArgumentException.class, () -> service.perft(1, 1, -1),
+                "A negative hash table size should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> new PerftHashTable(PerftHashTable.MAX_MEGABYTES + 1),
+                "The table itself should reject sizes above the maximum");
+    }
+}
@@ -0,0 +1,50 @@
+package com.chessmove.service.search;
+
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.InvalidFENException;
+
+/**
+ * Measures how Lazy SMP scales with the number of threads: the time to reach a fixed depth and the total nodes per
+ * second, from 1 thread up to the given maximum (all cores by default).
+ * Not part of the test suite; run it after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes com.chessmove.service.search.LazySmpBenchmark [MAX_THREADS]}.
+ */
+public class LazySmpBenchmark {
+
+    private static final int HASH_MEGABYTES = 64;
+
+    private static final String[][] POSITIONS = {
+            {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "8", "Kiwipete"},
+            {"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", "8", "Position 6"},
+            {"r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N2N2/PP2BPPP/R2QKB1R w KQ - 0 8", "8", "Queen's Gambit"}
+    };
+
+    public static void main(String[] args) throws InvalidFENException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+        for (String[] position : POSITIONS) {
+            SearchLimits limits = SearchLimits.depth(Integer.parseInt(position[1]));
+
+            // Warm up the JIT at full depth before timing, so that the single-thread run is not the one paying for it.
+            // Every search gets a new service, since a service keeps its transposition table between searches.
+            new ChessMoveCalculatorService(position[0]).search(limits, SearchFeature.defaults(), HASH_MEGABYTES, 1);
+            new ChessMoveCalculatorService(position[0]).search(limits, SearchFeature.defaults(), HASH_MEGABYTES,
+                    maxThreads);
+
+            SearchResult single = null;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                SearchResult result = new ChessMoveCalculatorService(position[0]).search(limits,
+                        SearchFeature.defaults(), HASH_MEGABYTES, threads);
+                if (threads == 1) {
+                    single = result;
+                }
+                System.out.printf("%-16s depth %d  threads %2d  %-6s %-10s nodes %,12d  %,7d ms  %,11d nps  "
+                                + "time-to-depth speedup %.2f  nps scaling %.2f%n",
+                        position[2], result.getDepth(), threads, result.getBestMoveUci(), result.getScoreText(),
+                        result.getNodes(), result.getElapsedMillis(), result.getNodesPerSecond(),
+                        (double) single.getElapsedNanos() / result.getElapsedNanos(),
+                        (double) result.getNodesPerSecond() / single.getNodesPerSecond());
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.chessmove.service.search;
+
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.InvalidFENException;
+
+import java.util.Set;
+
+/**
+ * Measures what each search feature is worth: every position is searched to a fixed depth with plain alpha-beta,
+ * with all features and the transposition table, and with all of them but one, reporting the nodes and the time to
+ * depth.
+ * Not part of the test suite; run it after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes com.chessmove.service.search.SearchBenchmark}.
+ */
+public class SearchBenchmark {
+
+    private static final String[][] POSITIONS = {
+            {"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", "7", "Initial position"},
+            {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "6", "Kiwipete"},
+            {"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", "6", "Position 6"},
+            {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", "10", "Rook endgame"},
+            {"r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N2N2/PP2BPPP/R2QKB1R w KQ - 0 8", "6", "Queen's Gambit"}
+    };
+
+    public static void main(String[] args) throws InvalidFENException {
+        for (String[] position : POSITIONS) {
+            int depth = Integer.parseInt(position[1]);
+            SearchLimits limits = SearchLimits.depth(depth);
+
+            // Warm up the JIT before timing
+            fresh(position).search(SearchLimits.depth(depth - 1));
+
+            SearchResult baseline = fresh(position).search(limits, SearchFeature.none(), 0);
+            report(position[2], "baseline", baseline, baseline);
+            report(position[2], "default features", fresh(position).search(limits, SearchFeature.defaults()),
+                    baseline);
+            report(position[2], "all features", fresh(position).search(limits, SearchFeature.all()), baseline);
+            report(position[2], "without transposition table", fresh(position).search(limits, SearchFeature.all(), 0),
+                    baseline);
+            for (SearchFeature feature : SearchFeature.values()) {
+                Set<SearchFeature> features = SearchFeature.all();
+                features.remove(feature);
+                report(position[2], "without " + feature.name().toLowerCase(), fresh(position).search(limits, features),
+                        baseline);
+            }
+            System.out.println();
+        }
+    }
+
+    // A new service for every search, since a service keeps its transposition table from one search to the next
+    private static ChessMoveCalculatorService fresh(String[] position) throws InvalidFENException {
+        return new ChessMoveCalculatorService(position[0]);
+    }
+
+    private static void report(String name, String variant, SearchResult result, SearchResult baseline) {
+        System.out.printf("%-16s depth %d  %-36s %-6s %-10s nodes %,12d (%5.1f%%)  %,7d ms (%5.1f%%)  %,10d nps%n",
+                name, result.getDepth(), variant, result.getBestMoveUci(), result.getScoreText(), result.getNodes(),
+                100.0 * result.getNodes() / baseline.getNodes(), result.getElapsedMillis(),
+                100.0 * result.getElapsedNanos() / baseline.getElapsedNanos(), result.getNodesPerSecond());
+    }
+}
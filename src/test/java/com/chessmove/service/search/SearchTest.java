@@ -0,0 +1,292 @@
+package com.chessmove.service.search;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.util.InvalidFENException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTest {
+
+    private static final String INITIAL_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @ParameterizedTest(name = "{2}")
+    @CsvSource({
+            "'6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1', a1a8, White back-rank mate",
+            "'r5k1/8/8/8/8/8/5PPP/6K1 b - - 0 1', a8a1, Black back-rank mate",
+            "'k7/8/1K6/8/8/8/8/7R w - - 0 1', h1h8, Rook mate with the king's help"
+    })
+    void testFindsMateInOne(String fen, String expectedMove, String name) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        SearchResult result = service.search(SearchLimits.depth(4));
+
+        assertEquals(expectedMove, result.getBestMoveUci(), "The mating move should be found in " + name);
+        assertTrue(result.isMate(), "The score should be a mate score");
+        assertEquals(1, result.getMateIn(), "The mate should be announced in one move");
+        assertEquals("mate 1", result.getScoreText(), "The score text should announce the mate");
+    }
+
+    @Test
+    void testCapturesHangingQueen() throws InvalidFENException {
+        // Nothing defends the black queen on d5
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+
+        SearchResult result = service.search(SearchLimits.depth(3));
+
+        assertEquals("d2d5", result.getBestMoveUci(), "The rook should take the queen");
+        assertTrue(result.getScore() > 0, "White should be better after winning the queen");
+    }
+
+    @Test
+    void testQuiescenceSeesTheRecapture() throws InvalidFENException {
+        // Taking the pawn on d5 looks like a free pawn at depth 1, but the pawn on c6 takes the queen back
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1");
+
+        Board board = service.getBoard().copy();
+        board.makeMove(findMove(board, "d2d5"));
+        // What a depth-1 search without quiescence would score the capture at, for white
+        int pawnGrabbed = -Evaluator.evaluate(board);
+
+        SearchResult result = service.search(SearchLimits.depth(1));
+
+        assertNotEquals("d2d5", result.getBestMoveUci(), "The queen should not take a defended pawn");
+        assertTrue(result.getScore() < pawnGrabbed, String.format(
+                "The score %d should stay below the %d of the position with the pawn grabbed and not recaptured",
+                result.getScore(), pawnGrabbed));
+    }
+
+    @Test
+    void testPrincipalVariationIsPlayable() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+        Board board = service.getBoard().copy();
+
+        SearchResult result = service.search(SearchLimits.depth(4));
+
+        assertEquals(4, result.getDepth(), "All four iterations should complete");
+        int[] pv = result.getPrincipalVariation();
+        assertTrue(pv.length > 0, "The principal variation should not be empty");
+        assertEquals(result.getBestMove(), pv[0], "The principal variation should start with the best move");
+        assertEquals(pv.length, result.getPrincipalVariationUci().size(), "Every move should have a UCI form");
+
+        // Each move of the variation must be legal in the position it is played in
+        MoveList moves = new MoveList();
+        for (int move : pv) {
+            MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+            assertTrue(moves.contains(move), PackedMove.toUci(move) + " should be legal");
+            board.makeMove(move);
+        }
+    }
+
+    @Test
+    void testSearchDoesNotChangeTheBoard() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+        long key = service.getBoard().getZobristKey();
+
+        service.search(SearchLimits.depth(3));
+
+        assertEquals(key, service.getBoard().getZobristKey(), "The service board should be left unchanged");
+        assertEquals(20, service.countLegalMoves(service.getBoard().getSideToMove()),
+                "The position should still have its 20 moves");
+    }
+
+    @Test
+    void testNodeLimitStopsTheSearch() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+
+        SearchResult result = service.search(new SearchLimits(0, 5_000, 0));
+
+        // The limit is checked every 1024 nodes, so the search may overshoot by less than that
+        assertTrue(result.getNodes() < 5_000 + 1024, "The search should stop near the node limit");
+        assertTrue(result.getDepth() < SearchLimits.MAX_DEPTH, "The search should not reach the maximum depth");
+        assertNotEquals(PackedMove.NONE, result.getBestMove(), "A move should be returned even when stopped early");
+    }
+
+    @Test
+    void testTimeLimitStopsTheSearch() throws InvalidFENException {
+        ChessMoveCalculatorService service =
+                new ChessMoveCalculatorService("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+
+        SearchResult result = service.search(new SearchLimits(0, 0, 200));
+
+        assertTrue(result.getElapsedMillis() < 2_000, "The search should stop soon after the time limit");
+        assertNotEquals(PackedMove.NONE, result.getBestMove(), "A move should be returned when the time is up");
+        assertTrue(result.getNodesPerSecond() > 0, "The search speed should be reported");
+    }
+
+    @ParameterizedTest(name = "{2}")
+    @CsvSource({
+            "'R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1', true, Checkmate",
+            "'7k/5Q2/6K1/8/8/8/8/8 b - - 0 1', false, Stalemate"
+    })
+    void testNoLegalMoves(String fen, boolean mated, String name) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        SearchResult result = service.search(SearchLimits.depth(3));
+
+        assertEquals(PackedMove.NONE, result.getBestMove(), "There is no move to play in " + name);
+        assertEquals("-", result.getBestMoveUci(), "A missing move should be shown as a dash");
+        assertEquals(mated, result.isMate(), "Only a checkmate should have a mate score");
+        if (mated) {
+            assertTrue(result.getScore() < 0, "The mated side should have a losing score");
+        } else {
+            assertEquals(0, result.getScore(), "A stalemate is a draw");
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(SearchFeature.class)
+    void testEachFeatureAloneKeepsTheTactics(SearchFeature feature) throws InvalidFENException {
+        Set<SearchFeature> features = Set.of(feature);
+
+        SearchResult mate = new ChessMoveCalculatorService("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1")
+                .search(SearchLimits.depth(5), features);
+        SearchResult queen = new ChessMoveCalculatorService("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1")
+                .search(SearchLimits.depth(5), features);
+
+        assertEquals("a1a8", mate.getBestMoveUci(), "The mate should be found with " + feature);
+        assertEquals("mate 1", mate.getScoreText(), "The mate should be announced with " + feature);
+        assertEquals("d2d5", queen.getBestMoveUci(), "The queen should be taken with " + feature);
+    }
+
+    @Test
+    void testDefaultSearchLeavesAspirationWindowsOut() throws InvalidFENException {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        Set<SearchFeature> withoutAspiration = SearchFeature.all();
+        withoutAspiration.remove(SearchFeature.ASPIRATION_WINDOWS);
+
+        // Separate services, since a service keeps its transposition table from one search to the next
+        SearchResult result = new ChessMoveCalculatorService(fen).search(SearchLimits.depth(5));
+        SearchResult expected = new ChessMoveCalculatorService(fen).search(SearchLimits.depth(5), withoutAspiration);
+
+        assertEquals(withoutAspiration, SearchFeature.defaults(), "Only aspiration windows should be left out");
+        assertEquals(expected.getNodes(), result.getNodes(), "The default search should not use aspiration windows");
+    }
+
+    @ParameterizedTest(name = "{2}")
+    @CsvSource({
+            "'r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1', 5, Kiwipete",
+            "'r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10', 5, Position 6",
+            "'8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1', 8, Rook endgame"
+    })
+    void testFeaturesSearchFewerNodes(String fen, int depth, String name) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        SearchResult baseline = service.search(SearchLimits.depth(depth), SearchFeature.none(), 0);
+        SearchResult pruned = service.search(SearchLimits.depth(depth), SearchFeature.all());
+
+        assertEquals(depth, pruned.getDepth(), "Both searches should complete the depth in " + name);
+        assertTrue(pruned.getNodes() * 2 < baseline.getNodes(),
+                String.format("The pruned search should need less than half of the %d nodes of plain alpha-beta "
+                        + "in %s, but needed %d", baseline.getNodes(), name, pruned.getNodes()));
+    }
+
+    @Test
+    void testServiceKeepsItsTranspositionTableBetweenSearches() throws InvalidFENException {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        SearchResult first = service.search(SearchLimits.depth(5), SearchFeature.defaults(), 16);
+        SearchResult second = service.search(SearchLimits.depth(5), SearchFeature.defaults(), 16);
+        SearchResult resized = service.search(SearchLimits.depth(5), SearchFeature.defaults(), 8);
+        SearchResult fresh = new ChessMoveCalculatorService(fen).search(SearchLimits.depth(5),
+                SearchFeature.defaults(), 8);
+
+        assertTrue(second.getNodes() < first.getNodes(), "A second search should find the entries of the first");
+        assertEquals(first.getBestMove(), second.getBestMove(), "The reused table should not change the best move");
+        assertEquals(fresh.getNodes(), resized.getNodes(), "Another size should start from an empty table");
+    }
+
+    @ParameterizedTest(name = "{0} threads")
+    @ValueSource(ints = {2, 3})
+    void testLazySmpFindsTheSameTactics(int threads) throws InvalidFENException {
+        ChessMoveCalculatorService mate = new ChessMoveCalculatorService("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        ChessMoveCalculatorService queen = new ChessMoveCalculatorService("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+
+        SearchResult mateResult = mate.search(SearchLimits.depth(5), SearchFeature.all(), 1, threads);
+        SearchResult queenResult = queen.search(SearchLimits.depth(5), SearchFeature.all(), 1, threads);
+
+        assertEquals("a1a8", mateResult.getBestMoveUci(), "The mate should be found with " + threads + " threads");
+        assertEquals("mate 1", mateResult.getScoreText(), "The mate should be announced");
+        assertEquals("d2d5", queenResult.getBestMoveUci(), "The queen should be taken with " + threads + " threads");
+        assertEquals(threads, queenResult.getThreads(), "The thread count should be reported");
+    }
+
+    @Test
+    void testLazySmpCompletesTheDepthAndKeepsTheBoard() throws InvalidFENException {
+        ChessMoveCalculatorService service =
+                new ChessMoveCalculatorService("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        long key = service.getBoard().getZobristKey();
+
+        SearchResult result = service.search(SearchLimits.depth(5), SearchFeature.all(), 4, 3);
+
+        assertEquals(5, result.getDepth(), "The requested depth should be completed");
+        assertEquals(result.getBestMove(), result.getPrincipalVariation()[0],
+                "The principal variation should start with the best move");
+        assertEquals(key, service.getBoard().getZobristKey(), "The service board should be left unchanged");
+    }
+
+    @Test
+    void testEveryLazySmpHelperWalksTheTreeInItsOwnOrder() throws InvalidFENException {
+        Board board = new ChessMoveCalculatorService(INITIAL_POSITION).getBoard();
+        Set<Long> nodeCounts = new HashSet<>();
+
+        // Without a shared table, a searcher's node count depends only on its depth schedule and move order
+        for (int helper = 0; helper < 4; helper++) {
+            Searcher searcher = new Searcher(board.copy(), SearchLimits.depth(5), SearchFeature.defaults(), null,
+                    helper, new AtomicBoolean(), null);
+            nodeCounts.add(searcher.search().getNodes());
+        }
+
+        assertEquals(4, nodeCounts.size(), "No two helpers should search the same tree, even helpers of equal parity");
+    }
+
+    @Test
+    void testLazySmpNodeLimitCountsAllThreads() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+
+        SearchResult result = service.search(new SearchLimits(0, 20_000, 0), SearchFeature.all(), 1, 4);
+
+        // Each thread reports its nodes every 1024 nodes, so the group may overshoot by less than that per thread
+        assertTrue(result.getNodes() < 20_000 + 4 * 1024, "The threads together should stop near the node limit");
+        assertNotEquals(PackedMove.NONE, result.getBestMove(), "A move should be returned");
+    }
+
+    @Test
+    void testInvalidLimits() throws InvalidFENException {
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimits(-1, 0, 0),
+                "A negative depth should be rejected");
+        assertEquals(SearchLimits.MAX_DEPTH, new SearchLimits(0, 100, 0).getDepth(),
+                "No depth limit should mean the maximum depth");
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(INITIAL_POSITION);
+        assertThrows(IllegalArgumentException.class,
+                () -> service.search(SearchLimits.depth(1), SearchFeature.all(), 1, 0),
+                "At least one thread is needed");
+        assertThrows(IllegalArgumentException.class,
+                () -> service.search(SearchLimits.depth(1), SearchFeature.all(), -1, 1),
+                "A negative table size should be rejected");
+    }
+
+    private static int findMove(Board board, String uci) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.toUci(moves.get(i)).equals(uci)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("No legal move " + uci);
+    }
+}
@@ -0,0 +1,135 @@
+package com.chessmove.service.search;
+
+import com.chessmove.model.game.PackedMove;
+import com.chessmove.util.MoveType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    private static final int E2E4 = PackedMove.encode(52, 36, MoveType.NORMAL, null);
+    private static final int D2D4 = PackedMove.encode(51, 35, MoveType.NORMAL, null);
+
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEF1L;
+
+        assertEquals(0, table.probe(key), "An empty table should miss");
+
+        table.store(key, E2E4, -31_950, 12, TranspositionTable.BOUND_UPPER);
+        long entry = table.probe(key);
+        assertNotEquals(0, entry, "A stored position should be found");
+        assertEquals(E2E4, TranspositionTable.move(entry), "The move should be decoded");
+        assertEquals(-31_950, TranspositionTable.score(entry), "A negative score should keep its sign");
+        assertEquals(12, TranspositionTable.depth(entry), "The depth should be decoded");
+        assertEquals(TranspositionTable.BOUND_UPPER, TranspositionTable.bound(entry), "The bound should be decoded");
+
+        // Same bucket, different key
+        assertEquals(0, table.probe(key ^ (1L << 60)), "A different key in the same bucket should miss");
+    }
+
+    @Test
+    void testStoreWithoutMoveKeepsTheStoredMove() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42;
+
+        table.store(key, D2D4, 15, 3, TranspositionTable.BOUND_LOWER);
+        table.store(key, PackedMove.NONE, -20, 4, TranspositionTable.BOUND_UPPER);
+
+        long entry = table.probe(key);
+        assertEquals(D2D4, TranspositionTable.move(entry), "The stored move should be kept");
+        assertEquals(-20, TranspositionTable.score(entry), "The score should be replaced");
+        assertEquals(4, TranspositionTable.depth(entry), "The depth should be replaced");
+    }
+
+    @Test
+    void testReplacementPrefersDeepAndRecentEntries() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.capacity() / 2;
+        // Three keys in the same bucket of two entries
+        long deep = 7;
+        long shallow = 7 + buckets;
+        long newcomer = 7 + 2 * buckets;
+
+        table.store(deep, E2E4, 0, 10, TranspositionTable.BOUND_EXACT);
+        table.store(shallow, E2E4, 0, 2, TranspositionTable.BOUND_EXACT);
+        table.store(newcomer, E2E4, 0, 5, TranspositionTable.BOUND_EXACT);
+
+        assertNotEquals(0, table.probe(deep), "The deepest entry should survive");
+        assertEquals(0, table.probe(shallow), "The shallowest entry should be replaced");
+        assertNotEquals(0, table.probe(newcomer), "The new entry should be stored");
+
+        // In the next search, the old deep entry counts as shallower than the refreshed one
+        table.newSearch();
+        table.store(newcomer, E2E4, 0, 5, TranspositionTable.BOUND_EXACT);
+        table.store(shallow, E2E4, 0, 1, TranspositionTable.BOUND_EXACT);
+        assertEquals(0, table.probe(deep), "The old deep entry should be replaced first");
+        assertNotEquals(0, table.probe(newcomer), "The more recent entry should survive");
+    }
+
+    @Test
+    void testTableSpreadOverSeveralBuffers() {
+        // 4 MB in buffers of 1 MB
+        TranspositionTable table = new TranspositionTable(4, 1 << 20);
+        assertEquals(4L * 1024 * 1024 / 16, table.capacity(), "The table should hold 16-byte entries");
+
+        long buckets = table.capacity() / 2;
+        for (long bucket = 0; bucket < buckets; bucket += 997) {
+            table.store(bucket, (int) (bucket & 0xFFF), (int) (bucket & 0x7FFF), 1, TranspositionTable.BOUND_EXACT);
+        }
+        for (long bucket = 0; bucket < buckets; bucket += 997) {
+            long entry = table.probe(bucket);
+            assertNotEquals(0, entry, "Bucket " + bucket + " should be found");
+            assertEquals((int) (bucket & 0x7FFF), TranspositionTable.score(entry), "Bucket " + bucket + " score");
+        }
+
+        table.clear();
+        assertEquals(0, table.probe(buckets - 997), "A cleared table should miss");
+        assertEquals(0, table.getUsagePermille(), "A cleared table should be empty");
+    }
+
+    @Test
+    void testConcurrentWritersNeverProduceMixedEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.capacity() / 2;
+        AtomicLong corrupted = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+
+        // Every writer stores, for the same few keys, its own consistent combination of move, score and depth
+        for (int t = 1; t <= 4; t++) {
+            int writer = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = 3 + (i % 5) * buckets;
+                    table.store(key, writer, writer * 100, writer, TranspositionTable.BOUND_EXACT);
+                    long entry = table.probe(key);
+                    int move = TranspositionTable.move(entry);
+                    if (entry != 0 && (TranspositionTable.score(entry) != move * 100
+                            || TranspositionTable.depth(entry) != move)) {
+                        corrupted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, corrupted.get(), "A probe should never return parts of different writes");
+    }
+
+    @Test
+    void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0),
+                "A table needs at least one megabyte");
+    }
+}
@@ -0,0 +1,337 @@
+package com.chessmove.service.tablebase;
+
+import com.chessmove.model.game.Board;
+import com.chessmove.model.game.MoveGenerator;
+import com.chessmove.model.game.MoveList;
+import com.chessmove.service.ChessMoveCalculatorService;
+import com.chessmove.service.mate.MateResult;
+import com.chessmove.util.Color;
+import com.chessmove.util.InvalidFENException;
+import com.chessmove.util.PieceType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseTest {
+
+    @TempDir
+    static Path directory;
+
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generateTables() throws IOException {
+        // KPK needs the tables of all its promotions, KQK and KRK among them
+        TablebaseGenerator.generate(Material.parse("KPK"), directory);
+        tablebase = new Tablebase(directory);
+    }
+
+    @Test
+    void testGeneratesSmallerMaterialSetsFirst() throws IOException {
+        List<Path> written = TablebaseGenerator.generate(Material.parse("KBKN"), directory.resolve("minor"));
+
+        assertEquals(List.of("KNK.tb", "KBK.tb", "KBKN.tb"),
+                written.stream().map(path -> path.getFileName().toString()).toList(),
+                "The tables of the captures should be written before the table itself");
+        assertTrue(TablebaseGenerator.generate(Material.parse("KNKB"), directory.resolve("minor")).isEmpty(),
+                "Tables already in the directory should not be built again, in either orientation");
+    }
+
+    @ParameterizedTest(name = "{3}")
+    @CsvSource({
+            "'k7/8/1K6/8/8/8/8/6Q1 w - - 0 1', WIN, 1, Queen mates in one",
+            "'k7/8/1K6/8/8/8/8/6Q1 b - - 0 1', LOSS, 2, King runs from the queen",
+            "'k7/1Q6/1K6/8/8/8/8/8 b - - 0 1', LOSS, 0, King is mated",
+            "'k7/2Q5/1K6/8/8/8/8/8 b - - 0 1', DRAW, 0, King is stalemated",
+            "'8/8/8/3k4/8/8/8/4RK2 w - - 0 1', WIN, 29, Rook against the king",
+            "'4k3/8/4K3/4P3/8/8/8/8 w - - 0 1', WIN, 21, King on the sixth rank",
+            "'4k3/8/4K3/4P3/8/8/8/8 b - - 0 1', LOSS, 24, King on the sixth rank with black to move",
+            "'4k3/8/8/4K3/4P3/8/8/8 w - - 0 1', WIN, 25, Opposition taken by white",
+            "'4k3/8/8/4K3/4P3/8/8/8 b - - 0 1', DRAW, 0, Opposition taken by black",
+            "'k7/8/K7/P7/8/8/8/8 w - - 0 1', DRAW, 0, Rook pawn",
+            "'8/8/8/8/4p3/4k3/8/4K3 b - - 0 1', WIN, 21, Black pawn on the sixth rank"
+    })
+    void testProbesExactResults(String fen, TablebaseResult.Outcome outcome, int pliesToMate, String name)
+            throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        TablebaseResult result = service.probeTablebase(tablebase);
+
+        assertNotNull(result, "The position should be covered: " + name);
+        assertEquals(outcome, result.getOutcome(), "The result should be exact: " + name);
+        assertEquals(pliesToMate, result.getPliesToMate(), "The distance to mate should be exact: " + name);
+    }
+
+    @Test
+    void testWinningMoveMates() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("k7/8/1K6/8/8/8/8/6Q1 w - - 0 1");
+
+        TablebaseResult result = service.probeTablebase(tablebase);
+
+        assertEquals(List.of("g1g8"), result.getBestMovesUci(), "Only Qg8 mates at once");
+        assertEquals(1, result.getMovesToMate(), "The mate should be in one move");
+    }
+
+    @Test
+    void testDrawingMoveTakesTheOpposition() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("4k3/8/8/4K3/4P3/8/8/8 b - - 0 1");
+
+        TablebaseResult result = service.probeTablebase(tablebase);
+
+        assertEquals(List.of("e8e7"), result.getBestMovesUci(), "Only Ke7 should keep the draw");
+    }
+
+    // Builds KQKR and the tables it depends on, which takes seconds rather than milliseconds
+    @Test
+    @Tag("slow")
+    void testProbesAFourPieceTable() throws IOException, InvalidFENException {
+        Path fourPieces = directory.resolve("four");
+        TablebaseGenerator.generate(Material.parse("KQKR"), fourPieces);
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("8/8/4r3/3k4/8/8/3K1Q2/8 w - - 0 1");
+
+        TablebaseResult result = service.probeTablebase(new Tablebase(fourPieces));
+
+        assertNotNull(result, "A queen against a rook should be covered");
+        assertEquals(TablebaseResult.Outcome.WIN, result.getOutcome(), "The queen should win against the rook");
+        assertEquals(55, result.getPliesToMate(), "The distance to mate should be exact");
+        assertEquals(28, result.getMovesToMate(), "The mate should take 28 moves");
+        assertTrue(result.getBestMovesUci().contains("d2d3"), "Kd3 should be among the fastest wins");
+    }
+
+    // Builds KPKP and the tables it depends on, which are all those of up to four pieces that a pawn can promote to
+    @Test
+    @Tag("slow")
+    void testAccountsForEnPassant() throws IOException, InvalidFENException {
+        Path pawns = directory.resolve("pawns");
+        TablebaseGenerator.generate(Material.parse("KPKP"), pawns);
+        Tablebase pawnTablebase = new Tablebase(pawns);
+
+        // a2-a4 would walk past the black pawn, which takes it en passant and draws
+        TablebaseResult result = pawnTablebase.probe(
+                new ChessMoveCalculatorService("6k1/8/8/8/1pK5/8/P7/8 w - - 0 1").getBoard());
+        assertEquals(TablebaseResult.Outcome.WIN, result.getOutcome(), "White should win by taking the pawn");
+        assertEquals(List.of("c4b4"), result.getBestMovesUci(), "Only Kxb4 should win, not a2-a4");
+
+        TablebaseResult afterDoublePush = pawnTablebase.probe(
+                new ChessMoveCalculatorService("6k1/8/8/8/PpK5/8/8/8 b - a3 0 1").getBoard());
+        assertEquals(TablebaseResult.Outcome.DRAW, afterDoublePush.getOutcome(), "Taking en passant should draw");
+        assertEquals(List.of("b4a3"), afterDoublePush.getBestMovesUci(), "Only bxa3 should keep the draw");
+
+        TablebaseResult withoutEnPassant = pawnTablebase.probe(
+                new ChessMoveCalculatorService("6k1/8/8/8/PpK5/8/8/8 b - - 0 1").getBoard());
+        assertEquals(TablebaseResult.Outcome.LOSS, withoutEnPassant.getOutcome(),
+                "The same position should be lost once the capture is no longer allowed");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "8/8/8/3k4/8/8/8/4RK2 w - - 0 1",
+            "8/8/8/8/2k5/8/1K6/1R6 w - - 0 1",
+            "4k3/8/4K3/4P3/8/8/8/8 w - - 0 1",
+            "8/8/8/8/8/2k5/7q/K7 b - - 0 1"
+    })
+    void testBestMovesFollowTheDistanceToMate(String fen) throws InvalidFENException {
+        Board board = new ChessMoveCalculatorService(fen).getBoard();
+        TablebaseResult result = tablebase.probe(board);
+        int plies = result.getPliesToMate();
+
+        // Playing the first best move of both sides until mate takes exactly the announced number of plies
+        for (int ply = 0; ply < plies; ply++) {
+            TablebaseResult current = tablebase.probe(board);
+            assertEquals(plies - ply, current.getPliesToMate(), "Every best move should bring mate one ply closer");
+            board.makeMove(current.getBestMoves()[0]);
+        }
+        MoveList moves = new MoveList();
+        Color sideToMove = board.getSideToMove();
+        assertFalse(MoveGenerator.hasLegalMove(board, sideToMove, moves), "The line should end in mate");
+        assertTrue(board.isSquareAttacked(board.getKingSquare(sideToMove), Color.getOppositeColor(sideToMove)),
+                "The line should end in mate, not stalemate");
+    }
+
+    @Test
+    void testAgreesWithTheMateSolver() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("8/8/8/8/8/1k6/8/K6Q w - - 0 1");
+
+        TablebaseResult result = service.probeTablebase(tablebase);
+        MateResult mate = service.solveMate(result.getMovesToMate());
+
+        assertTrue(mate.isMate(), "The mate solver should find the mate announced by the table");
+        assertEquals(result.getMovesToMate(), mate.getMateIn(), "The mate should not be shorter than announced");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "r3k3/8/8/8/8/8/8/4K3 w q - 0 1",
+            "4k3/8/8/3Pp3/8/8/8/4K3 w - e6 0 1",
+            "4k3/8/8/8/8/8/8/R3K2R w - - 0 1",
+            "4k3/4r3/8/8/8/8/8/2BQK3 w - - 0 1",
+            "4k3/4r3/8/8/8/8/8/3QK3 w - - 0 1"
+    })
+    void testDoesNotCoverOtherPositions(String fen) throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService(fen);
+
+        // Castling, five pieces and 4-piece material sets without a table, such as KPKP here, are not covered
+        assertFalse(tablebase.covers(service.getBoard()), "The position should not be covered: " + fen);
+        assertNull(service.probeTablebase(tablebase), "An uncovered position should have no result: " + fen);
+    }
+
+    @Test
+    void testDoesNotCoverTablesWithoutTheirSuccessors() throws IOException, InvalidFENException {
+        Path partial = directory.resolve("partial");
+        Files.createDirectories(partial);
+        Files.copy(directory.resolve("KPK.tb"), partial.resolve("KPK.tb"));
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1");
+
+        // Probing the pawn moves would read the tables of the promotions
+        assertNull(service.probeTablebase(new Tablebase(partial)), "KPK should need the tables it promotes into");
+
+        for (String name : List.of("KQK", "KRK", "KBK", "KNK")) {
+            Files.copy(directory.resolve(name + ".tb"), partial.resolve(name + ".tb"));
+        }
+        assertNotNull(service.probeTablebase(new Tablebase(partial)), "KPK should be covered with its promotions");
+    }
+
+    @Test
+    void testBareKingsNeedNoTable() throws InvalidFENException {
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+
+        TablebaseResult result = service.probeTablebase(new Tablebase(directory.resolve("missing")));
+
+        assertEquals(TablebaseResult.Outcome.DRAW, result.getOutcome(), "Two kings should always draw");
+        assertEquals(5, result.getBestMoves().length, "Every king move should keep the draw");
+    }
+
+    @Test
+    void testRejectsCorruptTables() throws IOException, InvalidFENException {
+        Path corrupt = directory.resolve("corrupt");
+        Files.createDirectories(corrupt);
+        Files.write(corrupt.resolve("KQK.tb"), new byte[64]);
+        ChessMoveCalculatorService service = new ChessMoveCalculatorService("k7/8/1K6/8/8/8/8/6Q1 w - - 0 1");
+        Tablebase corruptTablebase = new Tablebase(corrupt);
+
+        assertThrows(java.io.UncheckedIOException.class, () -> service.probeTablebase(corruptTablebase),
+                "A file that is not a table should be rejected");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"KRK", "KPK", "KNNK", "KRKP"})
+    void testIndexIsPerfect(String name) {
+        Material material = Material.parse(name);
+        TablebaseIndex index = new TablebaseIndex(material);
+        PieceType[] types = TablebaseIndex.slotTypes(material);
+        Color[] colors = TablebaseIndex.slotColors(material);
+        boolean twins = types.length == 4 && types[2] == types[3] && colors[2] == colors[3];
+        int symmetries = material.hasPawns() ? 2 : 8;
+        int[] squares = new int[types.length];
+        int[] decoded = new int[types.length];
+
+        // Every index decodes to a valid position that maps back to it
+        for (int i = 0; i < index.size(); i++) {
+            index.squares(i, decoded);
+            assertTrue(isValid(types, decoded), name + " index " + i + " should decode to a valid position");
+            assertEquals(i, index.index(decoded), name + " index " + i + " should map back to itself");
+        }
+
+        // Every valid position maps to an index that decodes to one of its mirror images, and there are as many
+        // indexes as positions that are no mirror images of each other
+        int orbits = 0;
+        int placements = 1 << (6 * types.length);
+        for (int placement = 0; placement < placements; placement++) {
+            for (int slot = 0; slot < types.length; slot++) {
+                squares[slot] = (placement >> (6 * slot)) & 63;
+            }
+            // Of two pieces of a kind, take one order only
+            if ((twins && squares[2] > squares[3]) || !isValid(types, squares)) {
+                continue;
+            }
+            index.squares(index.index(squares), decoded);
+            long orbit = orbit(squares, symmetries, twins);
+            assertEquals(orbit, orbit(decoded, symmetries, twins),
+                    name + " positions should map to their own mirror images");
+            if (orbit == key(squares, 0, twins)) {
+                orbits++;
+            }
+        }
+        assertEquals(orbits, index.size(), name + " should have one index per position up to mirror images");
+    }
+
+    // Distinct squares, kings that do not touch, and pawns off the first and last rank
+    private static boolean isValid(PieceType[] types, int[] squares) {
+        long occupied = 0;
+        for (int slot = 0; slot < squares.length; slot++) {
+            int square = squares[slot];
+            if ((occupied & (1L << square)) != 0 || (types[slot] == PieceType.PAWN && (square < 8 || square >= 56))) {
+                return false;
+            }
+            occupied |= 1L << square;
+        }
+        return Math.abs(squares[0] / 8 - squares[1] / 8) > 1 || Math.abs(squares[0] % 8 - squares[1] % 8) > 1;
+    }
+
+    // The lowest key among the mirror images of a position
+    private static long orbit(int[] squares, int symmetries, boolean twins) {
+        long orbit = Long.MAX_VALUE;
+        for (int symmetry = 0; symmetry < symmetries; symmetry++) {
+            orbit = Math.min(orbit, key(squares, symmetry, twins));
+        }
+        return orbit;
+    }
+
+    // The squares of a mirror image, with two pieces of a kind in ascending order; bit 0 of the symmetry mirrors
+    // the files, bit 1 the ranks and bit 2 swaps files and ranks
+    private static long key(int[] squares, int symmetry, boolean twins) {
+        long key = 0;
+        int previous = 0;
+        for (int slot = 0; slot < squares.length; slot++) {
+            int file = squares[slot] % 8;
+            int row = squares[slot] / 8;
+            if ((symmetry & 4) != 0) {
+                int swapped = file;
+                file = row;
+                row = swapped;
+            }
+            int image = ((symmetry & 2) != 0 ? 7 - row : row) * 8 + ((symmetry & 1) != 0 ? 7 - file : file);
+            if (twins && slot == 3 && image < previous) {
+                key = key - previous + image;
+                image = previous;
+            }
+            key = key * 64 + image;
+            previous = image;
+        }
+        return key;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "KQKR, KQKR, true",
+            "KRKQ, KQKR, false",
+            "KPKN, KNKP, false",
+            "KBKN, KBKN, true",
+            "KNKB, KBKN, false",
+            "kpk, KPK, true"
+    })
+    void testMaterialOrientation(String name, String canonical, boolean isCanonical) {
+        Material material = Material.parse(name);
+
+        assertEquals(isCanonical, material.isCanonical(), "The stronger side should be white in " + name);
+        assertEquals(canonical, material.canonical().getName(), "The canonical orientation of " + name);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"KQRKR", "QKK", "KXK", "K", ""})
+    void testRejectsInvalidMaterial(String name) {
+        assertThrows(IllegalArgumentException.class, () -> Material.parse(name),
+                "An invalid material set should be rejected: " + name);
+    }
+}